@@ -1,28 +1,49 @@
 package com.chatapp.apigateway.config;
 
 import com.chatapp.apigateway.filter.JwtAuthenticationFilter;
+import com.chatapp.apigateway.filter.RateLimitFilter;
+import com.chatapp.apigateway.filter.WebSocketAffinityFilter;
+import com.chatapp.apigateway.loadbalancer.LatencyAwareLoadBalancerConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 
 @Configuration
+@EnableConfigurationProperties({RateLimitProperties.class, WebSocketRoutingProperties.class, LoadBalancerProperties.class})
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
 public class GatewayConfig {
 
     private final JwtAuthenticationFilter filter;
+    private final RateLimitFilter rateLimitFilter;
+    private final WebSocketAffinityFilter webSocketAffinityFilter;
 
-    public GatewayConfig(JwtAuthenticationFilter filter) {
+    public GatewayConfig(JwtAuthenticationFilter filter, RateLimitFilter rateLimitFilter,
+                         WebSocketAffinityFilter webSocketAffinityFilter) {
         this.filter = filter;
+        this.rateLimitFilter = rateLimitFilter;
+        this.webSocketAffinityFilter = webSocketAffinityFilter;
     }
 
     @Bean
     public RouteLocator routes(RouteLocatorBuilder builder) {
         return builder.routes()
                 .route("auth-service", r -> r.path("/api/auth/**", "/api/contacts/**", "/api/blocks/**", "/api/users/**")
-                        .filters(f -> f.filter(filter))
+                        .filters(f -> f.filter(filter, 0).filter(rateLimitFilter, 1))
                         .uri("lb://auth-service"))
                 .route("chat-service", r -> r.path("/api/chat/**", "/api/groups/**")
-                        .filters(f -> f.filter(filter))
+                        .filters(f -> f.filter(filter, 0).filter(rateLimitFilter, 1))
+                        .uri("lb://chat-service"))
+                // SockJS handshake and transports; the instance is picked by WebSocketAffinityFilter
+                .route("chat-websocket", r -> r.path("/ws/**")
+                        .filters(f -> f.filter(filter, 0)
+                                .filter(webSocketAffinityFilter)
+                                // SockJS answers CORS itself, on top of the gateway's CORS headers
+                                .dedupeResponseHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN + " "
+                                        + HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, "RETAIN_FIRST"))
                         .uri("lb://chat-service"))
                 .build();
     }
@@ -0,0 +1,27 @@
+package com.chatapp.apigateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Tuning for the latency-aware load balancer used by the {@code lb://} routes.
+ *
+ * @param decayMs            time constant of the latency EWMA; older samples lose weight over it
+ * @param initialLatencyMs   latency assumed for an instance before its first response
+ * @param consecutiveErrors  5xx responses or connect failures in a row that eject an instance
+ * @param baseEjectionMs     first ejection length; repeat ejections last this many times longer
+ * @param maxEjectionMs      upper bound on one ejection
+ * @param maxEjectedPercent  share of instances that may be ejected at once
+ * @param slowStartMs        after joining or returning from ejection, an instance's share ramps
+ *                           up linearly over this window
+ */
+@ConfigurationProperties(prefix = "gateway.load-balancer")
+public record LoadBalancerProperties(
+        @DefaultValue("10000") long decayMs,
+        @DefaultValue("50") long initialLatencyMs,
+        @DefaultValue("3") int consecutiveErrors,
+        @DefaultValue("10000") long baseEjectionMs,
+        @DefaultValue("300000") long maxEjectionMs,
+        @DefaultValue("50") int maxEjectedPercent,
+        @DefaultValue("30000") long slowStartMs) {
+}
@@ -0,0 +1,43 @@
+package com.chatapp.apigateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Token-bucket limits per route class. Route classes are matched in order, first match wins;
+ * requests matching none use {@code default-limit}. Every class has a per-user bucket and may
+ * add a {@code route} bucket shared by all users of that class.
+ */
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("local") Mode mode,
+        @DefaultValue("rate-limit:") String redisKeyPrefix,
+        @DefaultValue List<RouteClass> routeClasses,
+        @DefaultValue Limit defaultLimit) {
+
+    public enum Mode {
+        /** Buckets live in this gateway instance only. */
+        LOCAL,
+        /** Buckets live in Redis and are shared by every gateway instance. */
+        REDIS
+    }
+
+    /**
+     * @param methods HTTP methods this class applies to, empty for any method
+     * @param paths   {@code PathPattern}s such as {@code /api/chat/conversations}
+     * @param route   optional bucket shared by all users of the class
+     */
+    public record RouteClass(String name, @DefaultValue List<String> methods, List<String> paths,
+                             Limit user, Limit route) {
+    }
+
+    /**
+     * @param capacity        burst size
+     * @param refillPerSecond sustained requests per second
+     */
+    public record Limit(@DefaultValue("100") long capacity, @DefaultValue("20") double refillPerSecond) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.chatapp.apigateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Routing of {@code /ws/**} to chat-service instances by consistent hash of the user id.
+ *
+ * @param serviceId     discovery id of the service holding the WebSocket endpoint
+ * @param virtualNodes  ring points per instance; more points spread users more evenly
+ * @param drainWindowMs connections owned by another instance after a membership change are
+ *                      closed at random points within this window, so clients reconnect
+ *                      to their new owner without all arriving at once
+ */
+@ConfigurationProperties(prefix = "gateway.websocket")
+public record WebSocketRoutingProperties(
+        @DefaultValue("chat-service") String serviceId,
+        @DefaultValue("160") int virtualNodes,
+        @DefaultValue("60000") long drainWindowMs) {
+}
@@ -1,5 +1,6 @@
 package com.chatapp.apigateway.filter;
 
+import com.chatapp.apigateway.security.TokenRevocationRegistry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
@@ -20,34 +21,36 @@ import java.util.function.Predicate;
 @Component
 public class JwtAuthenticationFilter implements GatewayFilter {
 
+    /** Exchange attribute holding the authenticated user's id, read by later filters. */
+    public static final String USER_ID_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".userId";
+
     @Value("${jwt.secret}")
     private String secret;
 
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+
+    public JwtAuthenticationFilter(TokenRevocationRegistry tokenRevocationRegistry) {
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
+    }
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         ServerHttpRequest request = exchange.getRequest();
 
-        final List<String> apiEndpoints = List.of("/api/auth/register", "/api/auth/login");
+        final List<String> apiEndpoints = List.of("/api/auth/register", "/api/auth/login",
+                "/api/auth/refresh", "/api/auth/logout");
 
         Predicate<ServerHttpRequest> isApiSecured = r -> apiEndpoints.stream()
                 .noneMatch(uri -> r.getURI().getPath().contains(uri));
 
         if (isApiSecured.test(request)) {
-            if (!request.getHeaders().containsKey("Authorization")) {
+            final String token = resolveToken(request);
+            if (token == null) {
                 ServerHttpResponse response = exchange.getResponse();
                 response.setStatusCode(HttpStatus.UNAUTHORIZED);
                 return response.setComplete();
             }
 
-            final String authHeader = request.getHeaders().getOrEmpty("Authorization").get(0);
-            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                ServerHttpResponse response = exchange.getResponse();
-                response.setStatusCode(HttpStatus.UNAUTHORIZED);
-                return response.setComplete();
-            }
-
-            final String token = authHeader.substring(7);
-
             try {
                 byte[] keyBytes = secret.getBytes();
                 Key key = Keys.hmacShaKeyFor(keyBytes);
@@ -61,6 +64,16 @@ public class JwtAuthenticationFilter implements GatewayFilter {
                     return response.setComplete();
                 }
 
+                Long userId = claims.get("id", Long.class);
+                Long tokenVersion = claims.get("ver", Long.class);
+                if (tokenRevocationRegistry.isRevoked(userId, tokenVersion != null ? tokenVersion : 0L)) {
+                    ServerHttpResponse response = exchange.getResponse();
+                    response.setStatusCode(HttpStatus.UNAUTHORIZED);
+                    return response.setComplete();
+                }
+
+                exchange.getAttributes().put(USER_ID_ATTRIBUTE, userId);
+
                 // Validation successful, forward the original request without adding custom headers
                 return chain.filter(exchange);
 
@@ -74,4 +87,16 @@ public class JwtAuthenticationFilter implements GatewayFilter {
         return chain.filter(exchange);
     }
 
+    // SockJS cannot set request headers, so the WebSocket endpoint also takes the token as a query parameter
+    private String resolveToken(ServerHttpRequest request) {
+        if (request.getHeaders().containsKey("Authorization")) {
+            final String authHeader = request.getHeaders().getOrEmpty("Authorization").get(0);
+            return authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+        }
+        if (request.getPath().pathWithinApplication().value().startsWith("/ws/")) {
+            return request.getQueryParams().getFirst("access_token");
+        }
+        return null;
+    }
+
 }
@@ -0,0 +1,105 @@
+package com.chatapp.apigateway.filter;
+
+import com.chatapp.apigateway.config.RateLimitProperties;
+import com.chatapp.apigateway.ratelimit.RouteClassifier;
+import com.chatapp.apigateway.ratelimit.RouteClassifier.RouteClass;
+import com.chatapp.apigateway.ratelimit.TokenBucketLimiter;
+import com.chatapp.apigateway.ratelimit.TokenBucketLimiter.Bucket;
+import com.chatapp.apigateway.ratelimit.TokenBucketLimiter.Decision;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket rate limiting per user and route class. Runs after {@link JwtAuthenticationFilter}
+ * so authenticated requests are keyed by user id; the open auth endpoints are keyed by client
+ * address. Rejected requests get {@code 429} with {@code Retry-After} in seconds.
+ */
+@Component
+public class RateLimitFilter implements GatewayFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+    private static final Decision FAIL_OPEN = new Decision(true, 0);
+
+    private final RateLimitProperties properties;
+    private final RouteClassifier routeClassifier;
+    private final TokenBucketLimiter limiter;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public RateLimitFilter(RateLimitProperties properties, RouteClassifier routeClassifier,
+                           TokenBucketLimiter limiter, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.routeClassifier = routeClassifier;
+        this.limiter = limiter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.enabled()) {
+            return chain.filter(exchange);
+        }
+
+        RouteClass routeClass = routeClassifier.classify(exchange.getRequest());
+        String subject = subject(exchange);
+        List<Bucket> buckets = routeClass.route() == null
+                ? List.of(new Bucket(routeClass.name() + ":" + subject, routeClass.user()))
+                : List.of(new Bucket(routeClass.name() + ":" + subject, routeClass.user()),
+                          new Bucket(routeClass.name() + ":*", routeClass.route()));
+
+        return limiter.tryConsume(buckets)
+                .map(decision -> {
+                    count(routeClass, decision.allowed() ? "allowed" : "rejected");
+                    return decision;
+                })
+                .onErrorResume(e -> {
+                    // Fail open: a limiter outage should not take the API down with it
+                    logger.warn("Rate limit check failed for {}: {}", routeClass.name(), e.getMessage());
+                    count(routeClass, "error");
+                    return Mono.just(FAIL_OPEN);
+                })
+                .flatMap(decision -> {
+                    if (decision.allowed()) {
+                        return chain.filter(exchange);
+                    }
+                    ServerHttpResponse response = exchange.getResponse();
+                    long retryAfterSeconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(decision.retryAfterMillis() + 999));
+                    response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+                    response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+                    return response.setComplete();
+                });
+    }
+
+    private String subject(ServerWebExchange exchange) {
+        Long userId = exchange.getAttribute(JwtAuthenticationFilter.USER_ID_ATTRIBUTE);
+        if (userId != null) {
+            return "user:" + userId;
+        }
+        InetSocketAddress address = exchange.getRequest().getRemoteAddress();
+        return "ip:" + (address != null ? address.getHostString() : "unknown");
+    }
+
+    private void count(RouteClass routeClass, String outcome) {
+        counters.computeIfAbsent(routeClass.name() + ":" + outcome, key -> Counter.builder("gateway.ratelimit.requests")
+                .description("Requests checked by the gateway rate limiter")
+                .tag("route_class", routeClass.name())
+                .tag("outcome", outcome)
+                .register(meterRegistry)).increment();
+    }
+}
@@ -0,0 +1,88 @@
+package com.chatapp.apigateway.filter;
+
+import com.chatapp.apigateway.websocket.WebSocketConnectionRegistry;
+import com.chatapp.apigateway.websocket.WebSocketConnectionRegistry.Connection;
+import com.chatapp.apigateway.websocket.WebSocketInstanceRing;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Set;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+
+/**
+ * Sends every WebSocket/SockJS request of a user to the same chat-service instance, chosen by
+ * consistent hash of the user id, so all of a user's tabs share one node. Runs after the route URL
+ * is set and before the load balancer would resolve it; requests of a live SockJS session stay on
+ * the instance serving it even if the ring changes meanwhile.
+ */
+@Component
+public class WebSocketAffinityFilter implements GatewayFilter, Ordered {
+
+    // SockJS transports that hold the connection open; the rest are short requests
+    private static final Set<String> STREAMING_TRANSPORTS = Set.of("websocket", "xhr_streaming", "eventsource", "htmlfile");
+
+    private final WebSocketInstanceRing ring;
+    private final WebSocketConnectionRegistry connectionRegistry;
+
+    public WebSocketAffinityFilter(WebSocketInstanceRing ring, WebSocketConnectionRegistry connectionRegistry) {
+        this.ring = ring;
+        this.connectionRegistry = connectionRegistry;
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Long userId = exchange.getAttribute(JwtAuthenticationFilter.USER_ID_ATTRIBUTE);
+        URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        if (userId == null || url == null) {
+            return chain.filter(exchange);
+        }
+
+        // /ws/{server}/{session}/{transport}, /ws/info or a raw /ws/websocket
+        String[] segments = exchange.getRequest().getPath().pathWithinApplication().value().split("/");
+        String sessionId = segments.length == 5 ? segments[3] : null;
+        String transport = segments[segments.length - 1];
+
+        String key = "user:" + userId;
+        ServiceInstance instance = sessionId != null ? connectionRegistry.sessionInstance(sessionId) : null;
+        if (instance == null) {
+            instance = ring.current().get(key);
+        }
+        if (instance == null) {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            return response.setComplete();
+        }
+
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, UriComponentsBuilder.fromUri(url)
+                .scheme(instance.isSecure() ? "https" : "http")
+                .host(instance.getHost())
+                .port(instance.getPort())
+                .build(true)
+                .toUri());
+
+        boolean upgrade = "websocket".equalsIgnoreCase(exchange.getRequest().getHeaders().getUpgrade());
+        if (!upgrade && !STREAMING_TRANSPORTS.contains(transport)) {
+            return chain.filter(exchange);
+        }
+        Connection connection = connectionRegistry.open(instance, key, sessionId);
+        return chain.filter(exchange)
+                .takeUntilOther(connection.drained())
+                .doFinally(signal -> connectionRegistry.close(connection));
+    }
+}
@@ -0,0 +1,110 @@
+package com.chatapp.apigateway.loadbalancer;
+
+import com.chatapp.apigateway.config.LoadBalancerProperties;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load and health of one instance as seen by this gateway: a peak-sensitive latency EWMA, the
+ * number of outstanding requests, and the ejection state driven by consecutive errors.
+ */
+final class InstanceStats {
+
+    // Floor for the slow-start weight so a returning instance still gets probe traffic
+    private static final double MIN_WEIGHT = 0.1;
+
+    private final LoadBalancerProperties properties;
+    private final long decayNanos;
+    private final long slowStartNanos;
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    private double latencyNanos;
+    private long observedAt;
+    private int consecutiveErrors;
+    private int ejections;
+    private long ejectedUntil;
+    private long admittedAt;
+
+    InstanceStats(LoadBalancerProperties properties, long now) {
+        this.properties = properties;
+        this.decayNanos = TimeUnit.MILLISECONDS.toNanos(properties.decayMs());
+        this.slowStartNanos = TimeUnit.MILLISECONDS.toNanos(properties.slowStartMs());
+        this.latencyNanos = TimeUnit.MILLISECONDS.toNanos(properties.initialLatencyMs());
+        this.observedAt = now;
+        this.admittedAt = now;
+    }
+
+    void requestStarted() {
+        outstanding.incrementAndGet();
+    }
+
+    void requestFinished() {
+        // Never below zero, even if stats were reset while the request was in flight
+        outstanding.updateAndGet(n -> Math.max(0, n - 1));
+    }
+
+    /**
+     * Expected cost of sending one more request here: latency times queue depth, inflated while
+     * the instance is slow-starting.
+     */
+    synchronized double cost(long now) {
+        return latencyNanos * (outstanding.get() + 1) / weight(now);
+    }
+
+    synchronized boolean isEjected(long now) {
+        return now < ejectedUntil;
+    }
+
+    synchronized void recordSuccess(long latency, long now) {
+        observe(latency, now);
+        consecutiveErrors = 0;
+        if (ejections > 0 && now - admittedAt > slowStartNanos) {
+            ejections = 0;
+        }
+    }
+
+    /**
+     * Records a 5xx or failed request and returns true when it ejects the instance. Ejection is
+     * skipped when {@code mayEject} is false, i.e. too many instances are out already.
+     */
+    synchronized boolean recordError(long latency, long now, boolean mayEject) {
+        // Count a failure as twice the current latency, so an instance that fails fast does not
+        // look like the quickest one
+        observe(Math.max(latency, (long) (latencyNanos * 2)), now);
+        if (++consecutiveErrors < properties.consecutiveErrors() || isEjected(now) || !mayEject) {
+            return false;
+        }
+        ejections++;
+        long duration = Math.min(TimeUnit.MILLISECONDS.toNanos(properties.baseEjectionMs()) * ejections,
+                TimeUnit.MILLISECONDS.toNanos(properties.maxEjectionMs()));
+        ejectedUntil = now + duration;
+        // Comes back with a fresh latency estimate, slow-starting once the ejection is over
+        latencyNanos = TimeUnit.MILLISECONDS.toNanos(properties.initialLatencyMs());
+        admittedAt = ejectedUntil;
+        consecutiveErrors = 0;
+        return true;
+    }
+
+    // Peak EWMA: a slower sample is taken at once, faster ones blend in with a time-based decay
+    private void observe(long latency, long now) {
+        if (latency < 0) {
+            return;
+        }
+        long elapsed = Math.max(0, now - observedAt);
+        observedAt = now;
+        if (latency > latencyNanos) {
+            latencyNanos = latency;
+            return;
+        }
+        double w = Math.exp(-(double) elapsed / decayNanos);
+        latencyNanos = latencyNanos * w + latency * (1 - w);
+    }
+
+    private double weight(long now) {
+        if (slowStartNanos <= 0 || now - admittedAt >= slowStartNanos) {
+            return 1.0;
+        }
+        return Math.max(MIN_WEIGHT, (double) Math.max(0, now - admittedAt) / slowStartNanos);
+    }
+}
@@ -0,0 +1,168 @@
+package com.chatapp.apigateway.loadbalancer;
+
+import com.chatapp.apigateway.config.LoadBalancerProperties;
+import com.chatapp.apigateway.websocket.ConsistentHashRing;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Power-of-two-choices load balancer: samples two healthy instances at random and picks the one
+ * with the lower latency EWMA times outstanding requests. Instances returning consecutive 5xx or
+ * failing to connect are ejected for a growing period and then slow-started back in.
+ * Also registered as the lifecycle callback, which is how it sees each request's outcome.
+ */
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer,
+        LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    private static final Logger logger = LoggerFactory.getLogger(LatencyAwareLoadBalancer.class);
+
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final String serviceId;
+    private final LoadBalancerProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoClock;
+    private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+    private volatile int instanceCount;
+
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider, String serviceId,
+                                    LoadBalancerProperties properties, MeterRegistry meterRegistry) {
+        this(supplierProvider, serviceId, properties, meterRegistry, System::nanoTime);
+    }
+
+    // The clock is replaceable so tests can step through ejection and slow-start windows
+    LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider, String serviceId,
+                             LoadBalancerProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.supplierProvider = supplierProvider;
+        this.serviceId = serviceId;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(this::choose);
+    }
+
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            logger.warn("No instances available for {}", serviceId);
+            return new EmptyResponse();
+        }
+        instanceCount = instances.size();
+        long now = nanoClock.getAsLong();
+        if (stats.size() > instances.size()) {
+            Set<String> live = instances.stream().map(ConsistentHashRing::idOf).collect(Collectors.toSet());
+            stats.keySet().retainAll(live);
+        }
+
+        List<ServiceInstance> healthy = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            if (!statsOf(instance, now).isEjected(now)) {
+                healthy.add(instance);
+            }
+        }
+        // With everything ejected, spreading load is better than refusing it
+        List<ServiceInstance> candidates = healthy.isEmpty() ? instances : healthy;
+        if (candidates.size() == 1) {
+            return new DefaultResponse(candidates.get(0));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = candidates.get(first);
+        ServiceInstance b = candidates.get(second);
+        return new DefaultResponse(statsOf(a, now).cost(now) <= statsOf(b, now).cost(now) ? a : b);
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+                && ResponseData.class.isAssignableFrom(responseClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        if (request.getContext() instanceof TimedRequestContext context) {
+            context.setRequestStartTime(nanoClock.getAsLong());
+        }
+        if (lbResponse.hasServer()) {
+            statsOf(lbResponse.getServer(), nanoClock.getAsLong()).requestStarted();
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()
+                || completionContext.status() == CompletionContext.Status.DISCARD) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        ServiceInstance instance = lbResponse.getServer();
+        InstanceStats instanceStats = statsOf(instance, now);
+        instanceStats.requestFinished();
+
+        long latency = -1;
+        if (completionContext.getLoadBalancerRequest().getContext() instanceof TimedRequestContext context
+                && context.getRequestStartTime() > 0) {
+            latency = now - context.getRequestStartTime();
+        }
+        ResponseData response = completionContext.getClientResponse();
+        boolean failed = completionContext.status() == CompletionContext.Status.FAILED
+                || (response != null && response.getHttpStatus() != null && response.getHttpStatus().is5xxServerError());
+        if (!failed) {
+            instanceStats.recordSuccess(latency, now);
+            return;
+        }
+        if (instanceStats.recordError(latency, now, mayEject(now))) {
+            logger.warn("Ejected {} instance {} after consecutive errors", serviceId, ConsistentHashRing.idOf(instance));
+            meterRegistry.counter("gateway.loadbalancer.ejections", "service", serviceId).increment();
+        }
+    }
+
+    private boolean mayEject(long now) {
+        long ejected = stats.values().stream().filter(s -> s.isEjected(now)).count();
+        return (ejected + 1) * 100 <= (long) instanceCount * properties.maxEjectedPercent();
+    }
+
+    private InstanceStats statsOf(ServiceInstance instance, long now) {
+        return stats.computeIfAbsent(ConsistentHashRing.idOf(instance), id -> new InstanceStats(properties, now));
+    }
+}
@@ -0,0 +1,26 @@
+package com.chatapp.apigateway.loadbalancer;
+
+import com.chatapp.apigateway.config.LoadBalancerProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Per-service load balancer configuration, instantiated once in each service's load balancer
+ * context. Deliberately not a {@code @Configuration}: component scanning must not pick it up
+ * into the main context, where one load balancer would be shared by every service.
+ */
+public class LatencyAwareLoadBalancerConfiguration {
+
+    @Bean
+    public LatencyAwareLoadBalancer latencyAwareLoadBalancer(Environment environment,
+                                                             LoadBalancerClientFactory clientFactory,
+                                                             LoadBalancerProperties properties,
+                                                             MeterRegistry meterRegistry) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new LatencyAwareLoadBalancer(clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                serviceId, properties, meterRegistry);
+    }
+}
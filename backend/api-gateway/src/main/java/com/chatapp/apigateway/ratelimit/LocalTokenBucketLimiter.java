@@ -0,0 +1,108 @@
+package com.chatapp.apigateway.ratelimit;
+
+import com.chatapp.apigateway.config.RateLimitProperties.Limit;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buckets held in this gateway instance. With several instances behind a load balancer each
+ * one enforces the limits on its own share of the traffic; use the Redis mode for a shared budget.
+ * Buckets that have been idle long enough to be full again are dropped, since a fresh bucket
+ * behaves the same.
+ */
+@Component
+@ConditionalOnProperty(prefix = "gateway.rate-limit", name = "mode", havingValue = "local", matchIfMissing = true)
+public class LocalTokenBucketLimiter implements TokenBucketLimiter {
+
+    private static final Duration SWEEP_INTERVAL = Duration.ofMinutes(1);
+
+    private final Map<String, State> buckets = new ConcurrentHashMap<>();
+    private Disposable sweeper;
+
+    @PostConstruct
+    public void start() {
+        sweeper = Flux.interval(SWEEP_INTERVAL, SWEEP_INTERVAL).subscribe(tick -> sweep());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sweeper != null) {
+            sweeper.dispose();
+        }
+    }
+
+    @Override
+    public Mono<Decision> tryConsume(List<Bucket> buckets) {
+        long now = System.nanoTime();
+        List<State> taken = new ArrayList<>(buckets.size());
+        for (Bucket bucket : buckets) {
+            State state = this.buckets.computeIfAbsent(bucket.key(), key -> new State(bucket.limit(), now));
+            long waitNanos = state.tryTake(now);
+            if (waitNanos > 0) {
+                // Return what the earlier buckets gave so a rejected request costs nothing
+                taken.forEach(State::refund);
+                return Mono.just(new Decision(false, TimeUnit.NANOSECONDS.toMillis(waitNanos)));
+            }
+            taken.add(state);
+        }
+        return Mono.just(new Decision(true, 0));
+    }
+
+    private void sweep() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(state -> state.isFull(now));
+    }
+
+    private static final class State {
+
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long refilledAt;
+
+        State(Limit limit, long now) {
+            this.capacity = limit.capacity();
+            this.tokensPerNano = limit.refillPerSecond() / TimeUnit.SECONDS.toNanos(1);
+            this.tokens = capacity;
+            this.refilledAt = now;
+        }
+
+        /** Takes a token and returns 0, or returns the nanos until one is available. */
+        synchronized long tryTake(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+
+        synchronized void refund() {
+            tokens = Math.min(capacity, tokens + 1);
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            if (now > refilledAt) {
+                tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+                refilledAt = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.chatapp.apigateway.ratelimit;
+
+import com.chatapp.apigateway.config.RateLimitProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buckets shared by every gateway instance. Each check is one script call that refills and
+ * takes from all buckets atomically, using the Redis clock so instance clock skew does not matter.
+ */
+@Component
+@ConditionalOnProperty(prefix = "gateway.rate-limit", name = "mode", havingValue = "redis")
+public class RedisTokenBucketLimiter implements TokenBucketLimiter {
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/token_bucket.lua"), List.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final String keyPrefix;
+
+    public RedisTokenBucketLimiter(ReactiveStringRedisTemplate redisTemplate, RateLimitProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.keyPrefix = properties.redisKeyPrefix();
+    }
+
+    @Override
+    public Mono<Decision> tryConsume(List<Bucket> buckets) {
+        List<String> keys = new ArrayList<>(buckets.size());
+        List<String> args = new ArrayList<>(buckets.size() * 2);
+        for (Bucket bucket : buckets) {
+            keys.add(keyPrefix + bucket.key());
+            args.add(Long.toString(bucket.limit().capacity()));
+            args.add(Double.toString(bucket.limit().refillPerSecond()));
+        }
+        return redisTemplate.execute(SCRIPT, keys, args)
+                .next()
+                .map(result -> new Decision(((Long) result.get(0)) == 1L, (Long) result.get(1)));
+    }
+}
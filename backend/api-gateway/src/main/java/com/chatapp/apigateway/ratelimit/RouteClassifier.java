@@ -0,0 +1,60 @@
+package com.chatapp.apigateway.ratelimit;
+
+import com.chatapp.apigateway.config.RateLimitProperties;
+import com.chatapp.apigateway.config.RateLimitProperties.Limit;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Maps a request to the first configured route class whose method and path match.
+ */
+@Component
+public class RouteClassifier {
+
+    public static final String DEFAULT_CLASS = "default";
+
+    private final List<Matcher> matchers;
+    private final RouteClass defaultClass;
+
+    public RouteClassifier(RateLimitProperties properties) {
+        this.matchers = properties.routeClasses().stream()
+                .map(routeClass -> new Matcher(
+                        routeClass.methods().stream().map(String::toUpperCase).map(HttpMethod::valueOf).collect(Collectors.toSet()),
+                        routeClass.paths().stream().map(PathPatternParser.defaultInstance::parse).toList(),
+                        new RouteClass(routeClass.name(), routeClass.user(), routeClass.route())))
+                .toList();
+        this.defaultClass = new RouteClass(DEFAULT_CLASS, properties.defaultLimit(), null);
+    }
+
+    public RouteClass classify(ServerHttpRequest request) {
+        for (Matcher matcher : matchers) {
+            if (matcher.matches(request)) {
+                return matcher.routeClass();
+            }
+        }
+        return defaultClass;
+    }
+
+    /**
+     * @param route bucket shared by all users of the class, or null
+     */
+    public record RouteClass(String name, Limit user, Limit route) {
+    }
+
+    private record Matcher(Set<HttpMethod> methods, List<PathPattern> paths, RouteClass routeClass) {
+
+        boolean matches(ServerHttpRequest request) {
+            if (!methods.isEmpty() && !methods.contains(request.getMethod())) {
+                return false;
+            }
+            return paths.stream().anyMatch(pattern -> pattern.matches(request.getPath().pathWithinApplication()));
+        }
+    }
+}
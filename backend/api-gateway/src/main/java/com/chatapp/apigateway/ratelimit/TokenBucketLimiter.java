@@ -0,0 +1,23 @@
+package com.chatapp.apigateway.ratelimit;
+
+import com.chatapp.apigateway.config.RateLimitProperties.Limit;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Takes one token from every given bucket, or from none of them when any bucket is empty.
+ */
+public interface TokenBucketLimiter {
+
+    Mono<Decision> tryConsume(List<Bucket> buckets);
+
+    record Bucket(String key, Limit limit) {
+    }
+
+    /**
+     * @param retryAfterMillis how long until every bucket has a token again, 0 when allowed
+     */
+    record Decision(boolean allowed, long retryAfterMillis) {
+    }
+}
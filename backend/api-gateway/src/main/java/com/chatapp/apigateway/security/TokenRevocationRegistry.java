@@ -0,0 +1,103 @@
+package com.chatapp.apigateway.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of revoked access tokens, keyed by user id. Auth-service bumps a user's
+ * token version on logout and publishes it; any access token carrying an older version is
+ * rejected here. Entries are dropped once every token they could affect has expired.
+ * The subscription is re-established with backoff whenever the Redis connection drops, and the
+ * published revocations hash is reloaded on every (re)subscribe to cover what was missed.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationRegistry.class);
+    private static final String TOKEN_REVOCATIONS_KEY = "token-revocations";
+    private static final Duration PRUNE_INTERVAL = Duration.ofMinutes(1);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final long accessTokenTtlMillis;
+    private final Map<Long, Revocation> revocations = new ConcurrentHashMap<>();
+    private Disposable subscription;
+    private Disposable pruner;
+
+    public TokenRevocationRegistry(ReactiveStringRedisTemplate redisTemplate,
+                                   @Value("${jwt.access-token-ttl-ms:900000}") long accessTokenTtlMillis) {
+        this.redisTemplate = redisTemplate;
+        this.accessTokenTtlMillis = accessTokenTtlMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        subscription = redisTemplate.listenTo(ChannelTopic.of(TOKEN_REVOCATIONS_KEY))
+                .doOnSubscribe(s -> reload())
+                // A dropped connection completes or errors the stream; both end in a resubscribe
+                .concatWith(Flux.error(new IllegalStateException("subscription ended")))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .transientErrors(true)
+                        .doBeforeRetry(signal -> logger.warn("Token revocation subscription lost, resubscribing: {}",
+                                signal.failure().getMessage())))
+                .subscribe(message -> record(message.getMessage()));
+        pruner = Flux.interval(PRUNE_INTERVAL).subscribe(tick -> prune());
+    }
+
+    private void reload() {
+        redisTemplate.opsForHash().entries(TOKEN_REVOCATIONS_KEY)
+                .subscribe(entry -> record(entry.getKey() + ":" + entry.getValue()),
+                        e -> logger.warn("Could not load token revocations: {}", e.getMessage()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+        if (pruner != null) {
+            pruner.dispose();
+        }
+    }
+
+    public boolean isRevoked(Long userId, long tokenVersion) {
+        Revocation revocation = revocations.get(userId);
+        return revocation != null && tokenVersion < revocation.version;
+    }
+
+    // Format: userId:version:revokedAtMillis
+    private void record(String value) {
+        try {
+            String[] parts = value.split(":");
+            Long userId = Long.valueOf(parts[0]);
+            Revocation revocation = new Revocation(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+            if (revocation.revokedAt + accessTokenTtlMillis < System.currentTimeMillis()) {
+                return;
+            }
+            revocations.merge(userId, revocation, (a, b) -> a.version >= b.version ? a : b);
+        } catch (RuntimeException e) {
+            logger.warn("Ignoring malformed token revocation '{}'", value);
+        }
+    }
+
+    private void prune() {
+        long cutoff = System.currentTimeMillis() - accessTokenTtlMillis;
+        revocations.values().removeIf(revocation -> revocation.revokedAt < cutoff);
+    }
+
+    private record Revocation(long version, long revokedAt) {
+    }
+}
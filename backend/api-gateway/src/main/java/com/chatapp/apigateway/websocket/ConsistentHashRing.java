@@ -0,0 +1,104 @@
+package com.chatapp.apigateway.websocket;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable hash ring over service instances. Each instance is placed at {@code virtualNodes}
+ * points derived from its instance id, so every gateway builds the same ring from the same
+ * membership, and adding or removing one instance only moves the keys next to its points.
+ */
+public final class ConsistentHashRing {
+
+    private static final ConsistentHashRing EMPTY = new ConsistentHashRing(List.of(), new long[0], new ServiceInstance[0]);
+
+    private final List<ServiceInstance> instances;
+    private final long[] points;
+    private final ServiceInstance[] owners;
+
+    private ConsistentHashRing(List<ServiceInstance> instances, long[] points, ServiceInstance[] owners) {
+        this.instances = instances;
+        this.points = points;
+        this.owners = owners;
+    }
+
+    public static ConsistentHashRing empty() {
+        return EMPTY;
+    }
+
+    public static ConsistentHashRing of(List<ServiceInstance> instances, int virtualNodes) {
+        if (instances.isEmpty()) {
+            return EMPTY;
+        }
+        List<ServiceInstance> sorted = instances.stream()
+                .sorted(Comparator.comparing(ConsistentHashRing::idOf))
+                .toList();
+        List<Point> ring = new ArrayList<>(sorted.size() * virtualNodes);
+        for (ServiceInstance instance : sorted) {
+            String id = idOf(instance);
+            for (int v = 0; v < virtualNodes; v++) {
+                ring.add(new Point(hash(id + "#" + v), instance));
+            }
+        }
+        ring.sort(Comparator.comparingLong(Point::hash));
+        long[] points = new long[ring.size()];
+        ServiceInstance[] owners = new ServiceInstance[ring.size()];
+        for (int i = 0; i < ring.size(); i++) {
+            points[i] = ring.get(i).hash();
+            owners[i] = ring.get(i).owner();
+        }
+        return new ConsistentHashRing(sorted, points, owners);
+    }
+
+    /** Instance owning {@code key}, or null when the ring is empty. */
+    public ServiceInstance get(String key) {
+        if (points.length == 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    public List<ServiceInstance> instances() {
+        return instances;
+    }
+
+    public boolean contains(String instanceId) {
+        return instances.stream().anyMatch(instance -> idOf(instance).equals(instanceId));
+    }
+
+    public boolean sameMembership(List<ServiceInstance> other) {
+        return instances.stream().map(ConsistentHashRing::idOf).toList()
+                .equals(other.stream().map(ConsistentHashRing::idOf).sorted().toList());
+    }
+
+    public static String idOf(ServiceInstance instance) {
+        return instance.getInstanceId() != null
+                ? instance.getInstanceId()
+                : instance.getHost() + ":" + instance.getPort();
+    }
+
+    // 64-bit FNV-1a followed by the SplitMix64 finalizer, which spreads nearby keys such as
+    // consecutive user ids across the whole ring
+    static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+
+    private record Point(long hash, ServiceInstance owner) {
+    }
+}
@@ -0,0 +1,153 @@
+package com.chatapp.apigateway.websocket;
+
+import com.chatapp.apigateway.config.WebSocketRoutingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Long-lived WebSocket and SockJS streaming connections proxied by this gateway, per chat-service
+ * instance. When the ring changes, connections now owned by another instance are drained: each
+ * is closed at a random point within the drain window and the client reconnects to its owner.
+ * Connections to an instance that left are not touched; they end when the instance goes away.
+ */
+@Component
+public class WebSocketConnectionRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebSocketConnectionRegistry.class);
+
+    private final MeterRegistry meterRegistry;
+    private final long drainWindowMs;
+    private final Counter drained;
+    private final Map<String, InstanceConnections> byInstance = new ConcurrentHashMap<>();
+    // SockJS session id -> instance, so xhr_send for a streaming session reaches the same node
+    private final Map<String, ServiceInstance> sessions = new ConcurrentHashMap<>();
+    private volatile ConsistentHashRing ring = ConsistentHashRing.empty();
+
+    public WebSocketConnectionRegistry(MeterRegistry meterRegistry, WebSocketRoutingProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.drainWindowMs = properties.drainWindowMs();
+        this.drained = Counter.builder("gateway.websocket.drained")
+                .description("Connections closed so the client reconnects to its new owner")
+                .register(meterRegistry);
+    }
+
+    public Connection open(ServiceInstance instance, String key, String sessionId) {
+        Connection connection = new Connection(ConsistentHashRing.idOf(instance), key, sessionId);
+        byInstance.compute(connection.instanceId, (id, existing) -> {
+            InstanceConnections connections = existing != null ? existing : new InstanceConnections(id);
+            connections.connections.add(connection);
+            return connections;
+        });
+        if (sessionId != null) {
+            sessions.put(sessionId, instance);
+        }
+        return connection;
+    }
+
+    public void close(Connection connection) {
+        connection.closed = true;
+        if (connection.sessionId != null) {
+            sessions.remove(connection.sessionId);
+        }
+        byInstance.computeIfPresent(connection.instanceId, (id, connections) -> {
+            connections.connections.remove(connection);
+            return retain(connections) ? connections : null;
+        });
+    }
+
+    /** Instance serving a live SockJS session, or null. */
+    public ServiceInstance sessionInstance(String sessionId) {
+        return sessions.get(sessionId);
+    }
+
+    void rebalance(ConsistentHashRing updated) {
+        this.ring = updated;
+        updated.instances().forEach(instance -> byInstance.computeIfAbsent(ConsistentHashRing.idOf(instance),
+                InstanceConnections::new));
+        int misplaced = 0;
+        for (InstanceConnections connections : byInstance.values()) {
+            for (Connection connection : connections.connections) {
+                if (isMisplaced(connection)) {
+                    misplaced++;
+                    long delay = ThreadLocalRandom.current().nextLong(Math.max(1, drainWindowMs));
+                    Mono.delay(Duration.ofMillis(delay)).subscribe(tick -> drain(connection));
+                }
+            }
+        }
+        byInstance.keySet().forEach(id -> byInstance.computeIfPresent(id,
+                (key, connections) -> retain(connections) ? connections : null));
+        logger.info("Draining {} WebSocket connections over {} ms", misplaced, drainWindowMs);
+    }
+
+    private void drain(Connection connection) {
+        // The ring may have changed again since this drain was scheduled
+        if (!connection.closed && isMisplaced(connection) && connection.drain.tryEmitValue(Boolean.TRUE).isSuccess()) {
+            drained.increment();
+        }
+    }
+
+    private boolean isMisplaced(Connection connection) {
+        ServiceInstance owner = ring.get(connection.key);
+        // Only move connections whose node is still up; the rest are closed by the node leaving
+        return owner != null
+                && !ConsistentHashRing.idOf(owner).equals(connection.instanceId)
+                && ring.contains(connection.instanceId);
+    }
+
+    private boolean retain(InstanceConnections connections) {
+        boolean keep = !connections.connections.isEmpty() || ring.contains(connections.instanceId);
+        if (!keep) {
+            meterRegistry.remove(connections.gauge);
+        }
+        return keep;
+    }
+
+    private final class InstanceConnections {
+
+        private final String instanceId;
+        private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+        private final Gauge gauge;
+
+        InstanceConnections(String instanceId) {
+            this.instanceId = instanceId;
+            this.gauge = Gauge.builder("gateway.websocket.connections", connections, Set::size)
+                    .description("Open WebSocket and SockJS streaming connections per chat-service instance")
+                    .tag("instance", instanceId)
+                    .strongReference(true)
+                    .register(meterRegistry);
+        }
+    }
+
+    public static final class Connection {
+
+        private final String instanceId;
+        private final String key;
+        private final String sessionId;
+        private final Sinks.One<Boolean> drain = Sinks.one();
+        private volatile boolean closed;
+
+        private Connection(String instanceId, String key, String sessionId) {
+            this.instanceId = instanceId;
+            this.key = key;
+            this.sessionId = sessionId;
+        }
+
+        /** Emits when the connection should be closed so the client reconnects elsewhere. */
+        public Mono<Boolean> drained() {
+            return drain.asMono();
+        }
+    }
+}
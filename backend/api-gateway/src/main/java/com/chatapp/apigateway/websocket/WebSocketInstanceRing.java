@@ -0,0 +1,55 @@
+package com.chatapp.apigateway.websocket;
+
+import com.chatapp.apigateway.config.WebSocketRoutingProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Hash ring over the UP instances of the WebSocket service, rebuilt whenever the discovery
+ * client refreshes its cache and the membership has changed.
+ */
+@Component
+public class WebSocketInstanceRing {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebSocketInstanceRing.class);
+
+    private final DiscoveryClient discoveryClient;
+    private final WebSocketConnectionRegistry connectionRegistry;
+    private final String serviceId;
+    private final int virtualNodes;
+    private volatile ConsistentHashRing ring = ConsistentHashRing.empty();
+
+    public WebSocketInstanceRing(DiscoveryClient discoveryClient, WebSocketConnectionRegistry connectionRegistry,
+                                 WebSocketRoutingProperties properties) {
+        this.discoveryClient = discoveryClient;
+        this.connectionRegistry = connectionRegistry;
+        this.serviceId = properties.serviceId();
+        this.virtualNodes = properties.virtualNodes();
+    }
+
+    public ConsistentHashRing current() {
+        return ring;
+    }
+
+    @EventListener({ApplicationReadyEvent.class, HeartbeatEvent.class})
+    public synchronized void refresh() {
+        List<ServiceInstance> instances = discoveryClient.getInstances(serviceId);
+        if (ring.sameMembership(instances)) {
+            return;
+        }
+        ConsistentHashRing updated = ConsistentHashRing.of(instances, virtualNodes);
+        logger.info("WebSocket ring for {} changed: {} -> {}", serviceId,
+                ring.instances().stream().map(ConsistentHashRing::idOf).toList(),
+                updated.instances().stream().map(ConsistentHashRing::idOf).toList());
+        ring = updated;
+        connectionRegistry.rebalance(updated);
+    }
+}
@@ -0,0 +1,37 @@
+-- Takes one token from every bucket in KEYS, or from none when any of them is empty.
+-- ARGV holds capacity and refill-per-second for each key, in order.
+-- Returns {allowed (0/1), retry-after millis}.
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local tokens = {}
+local allowed = 1
+local retry_after = 0
+
+for i, key in ipairs(KEYS) do
+  local capacity = tonumber(ARGV[2 * i - 1])
+  local rate = tonumber(ARGV[2 * i])
+  local state = redis.call('HMGET', key, 'tokens', 'ts')
+  local available = tonumber(state[1]) or capacity
+  local ts = tonumber(state[2]) or now
+  available = math.min(capacity, available + math.max(0, now - ts) * rate / 1000)
+  tokens[i] = available
+  if available < 1 then
+    allowed = 0
+    retry_after = math.max(retry_after, math.ceil((1 - available) * 1000 / rate))
+  end
+end
+
+for i, key in ipairs(KEYS) do
+  local capacity = tonumber(ARGV[2 * i - 1])
+  local rate = tonumber(ARGV[2 * i])
+  local left = tokens[i]
+  if allowed == 1 then
+    left = left - 1
+  end
+  redis.call('HSET', key, 'tokens', tostring(left), 'ts', now)
+  -- An idle bucket is full again after capacity / rate seconds; let Redis drop it then
+  redis.call('PEXPIRE', key, math.ceil(capacity * 1000 / rate) + 1000)
+end
+
+return {allowed, retry_after}
@@ -0,0 +1,213 @@
+package com.chatapp.apigateway.loadbalancer;
+
+import com.chatapp.apigateway.config.LoadBalancerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.LinkedMultiValueMap;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the balancer through its lifecycle callbacks against two stub instances. Latency is
+ * injected by stepping a fake clock between the start and the completion of a request, and
+ * failures by completing with a 5xx. With two candidates the power-of-two-choices pick always
+ * compares both, so every choice below is deterministic.
+ */
+class LatencyAwareLoadBalancerTest {
+
+    private static final LoadBalancerProperties PROPERTIES =
+            new LoadBalancerProperties(10_000, 50, 3, 10_000, 300_000, 50, 30_000);
+
+    private final ServiceInstance a = new DefaultServiceInstance("a", "chat-service", "10.0.0.1", 8084, false);
+    private final ServiceInstance b = new DefaultServiceInstance("b", "chat-service", "10.0.0.2", 8084, false);
+
+    private long nanos;
+    private SimpleMeterRegistry meterRegistry;
+    private LatencyAwareLoadBalancer loadBalancer;
+
+    @BeforeEach
+    void setUp() {
+        nanos = TimeUnit.SECONDS.toNanos(1);
+        meterRegistry = new SimpleMeterRegistry();
+        ServiceInstanceListSupplier supplier = ServiceInstanceListSuppliers.from("chat-service", a, b);
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("supplier", supplier));
+        loadBalancer = new LatencyAwareLoadBalancer(beanFactory.getBeanProvider(ServiceInstanceListSupplier.class),
+                "chat-service", PROPERTIES, meterRegistry, () -> nanos);
+        // Both instances are first seen now; let their initial slow start run out
+        choose();
+        advanceMillis(PROPERTIES.slowStartMs() + 1);
+    }
+
+    @Test
+    void prefersLowerLatencyTimesOutstandingRequests() {
+        serve(a, 200, HttpStatus.OK);
+        serve(b, 20, HttpStatus.OK);
+
+        assertThat(choose()).isEqualTo(b);
+
+        // b at 20ms with ten requests queued costs more than an idle a at 200ms
+        startRequests(b, 10);
+        assertThat(choose()).isEqualTo(a);
+    }
+
+    @Test
+    void consecutiveServerErrorsEjectTheInstance() {
+        serve(a, 5, HttpStatus.INTERNAL_SERVER_ERROR);
+        serve(a, 5, HttpStatus.BAD_GATEWAY);
+        assertThat(ejections()).isZero();
+
+        serve(a, 5, HttpStatus.SERVICE_UNAVAILABLE);
+
+        assertThat(ejections()).isEqualTo(1);
+        // a would win on cost alone, but an ejected instance is never a candidate
+        startRequests(b, 50);
+        for (int i = 0; i < 20; i++) {
+            assertThat(choose()).isEqualTo(b);
+        }
+    }
+
+    @Test
+    void successResetsTheConsecutiveErrorCount() {
+        serve(a, 5, HttpStatus.INTERNAL_SERVER_ERROR);
+        serve(a, 5, HttpStatus.INTERNAL_SERVER_ERROR);
+        serve(a, 5, HttpStatus.OK);
+        serve(a, 5, HttpStatus.INTERNAL_SERVER_ERROR);
+        serve(a, 5, HttpStatus.INTERNAL_SERVER_ERROR);
+
+        assertThat(ejections()).isZero();
+    }
+
+    @Test
+    void ejectedInstanceIsSlowStartedBackIn() {
+        ejectA();
+        startRequests(b, 4);
+
+        // Still ejected one millisecond before the base ejection ends
+        advanceMillis(PROPERTIES.baseEjectionMs() - 1);
+        startRequests(b, 20);
+        assertThat(choose()).isEqualTo(b);
+        finishRequests(b, 20);
+
+        // Back in at the minimum weight: 50ms / 0.1 still costs more than b's 50ms x 5
+        advanceMillis(1);
+        assertThat(choose()).isEqualTo(b);
+
+        // Halfway through slow start a costs 50ms / 0.5, now cheaper than b
+        advanceMillis(PROPERTIES.slowStartMs() / 2);
+        assertThat(choose()).isEqualTo(a);
+    }
+
+    @Test
+    void repeatedEjectionLastsLonger() {
+        ejectA();
+        advanceMillis(PROPERTIES.baseEjectionMs());
+        // Fails again before its slow start is over, so the ejection count is kept
+        ejectA();
+        assertThat(ejections()).isEqualTo(2);
+
+        startRequests(b, 50);
+        advanceMillis(PROPERTIES.baseEjectionMs() + 1);
+        assertThat(choose()).as("second ejection is twice the base length").isEqualTo(b);
+
+        advanceMillis(PROPERTIES.baseEjectionMs() + PROPERTIES.slowStartMs());
+        assertThat(choose()).isEqualTo(a);
+    }
+
+    @Test
+    void maxEjectedPercentKeepsTheLastInstanceIn() {
+        ejectA();
+
+        // Half of two instances is already out: b keeps failing but stays in
+        serve(b, 5, HttpStatus.INTERNAL_SERVER_ERROR);
+        serve(b, 5, HttpStatus.INTERNAL_SERVER_ERROR);
+        serve(b, 5, HttpStatus.INTERNAL_SERVER_ERROR);
+        serve(b, 5, HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(ejections()).isEqualTo(1);
+        assertThat(choose()).isEqualTo(b);
+
+        // Once a is back, b's next failure may eject it
+        advanceMillis(PROPERTIES.baseEjectionMs());
+        serve(b, 5, HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(ejections()).isEqualTo(2);
+        assertThat(choose()).isEqualTo(a);
+    }
+
+    private void ejectA() {
+        for (int i = 0; i < PROPERTIES.consecutiveErrors(); i++) {
+            serve(a, 5, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private ServiceInstance choose() {
+        Response<ServiceInstance> response = loadBalancer.choose(newRequest()).block();
+        assertThat(response).isNotNull();
+        assertThat(response.hasServer()).isTrue();
+        return response.getServer();
+    }
+
+    // One request to the stub instance, answering with the given status after latencyMs
+    private void serve(ServiceInstance instance, long latencyMs, HttpStatus status) {
+        Request<RequestDataContext> request = newRequest();
+        Response<ServiceInstance> lbResponse = new DefaultResponse(instance);
+        loadBalancer.onStartRequest(request, lbResponse);
+        advanceMillis(latencyMs);
+        complete(request, lbResponse, status);
+    }
+
+    private void startRequests(ServiceInstance instance, int count) {
+        for (int i = 0; i < count; i++) {
+            loadBalancer.onStartRequest(newRequest(), new DefaultResponse(instance));
+        }
+    }
+
+    // Completions without a start time leave the latency estimate alone
+    private void finishRequests(ServiceInstance instance, int count) {
+        for (int i = 0; i < count; i++) {
+            complete(new DefaultRequest<>(new RequestDataContext(requestData())), new DefaultResponse(instance), HttpStatus.OK);
+        }
+    }
+
+    private void complete(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse, HttpStatus status) {
+        ResponseData response = new ResponseData(status, new HttpHeaders(), new LinkedMultiValueMap<>(),
+                request.getContext().getClientRequest());
+        loadBalancer.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, null, request, lbResponse, response));
+    }
+
+    private Request<RequestDataContext> newRequest() {
+        return new DefaultRequest<>(new RequestDataContext(requestData()));
+    }
+
+    private static RequestData requestData() {
+        return new RequestData(HttpMethod.GET, URI.create("http://chat-service/api/chat/messages"), new HttpHeaders(),
+                new LinkedMultiValueMap<>(), Map.of());
+    }
+
+    private double ejections() {
+        return meterRegistry.counter("gateway.loadbalancer.ejections", "service", "chat-service").count();
+    }
+
+    private void advanceMillis(long millis) {
+        nanos += TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
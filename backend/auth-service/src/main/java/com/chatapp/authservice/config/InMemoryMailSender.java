@@ -0,0 +1,38 @@
+package com.chatapp.authservice.config;
+
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.MailException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-process SMTP stand-in enabled with mail.stub.enabled=true. Messages are kept in memory
+ * instead of being delivered, so the outbox can be exercised without a mail server.
+ */
+public class InMemoryMailSender extends JavaMailSenderImpl {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryMailSender.class);
+
+    private final List<MimeMessage> sentMessages = new CopyOnWriteArrayList<>();
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+        for (MimeMessage message : mimeMessages) {
+            sentMessages.add(message);
+        }
+        logger.info("InMemoryMailSender captured {} message(s), total={}", mimeMessages.length, sentMessages.size());
+    }
+
+    public List<MimeMessage> getSentMessages() {
+        return new ArrayList<>(sentMessages);
+    }
+
+    public void clear() {
+        sentMessages.clear();
+    }
+}
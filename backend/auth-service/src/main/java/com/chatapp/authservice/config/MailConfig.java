@@ -29,8 +29,14 @@ public class MailConfig {
     @Value("${spring.mail.properties.mail.smtp.starttls.enable:true}")
     private boolean starttls;
 
+    @Value("${mail.stub.enabled:false}")
+    private boolean stubEnabled;
+
     @Bean
     public JavaMailSender javaMailSender() {
+        if (stubEnabled) {
+            return new InMemoryMailSender();
+        }
         JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
         if (host != null && !host.isBlank()) {
             mailSender.setHost(host);
@@ -3,15 +3,19 @@ package com.chatapp.authservice.controller;
 import com.chatapp.authservice.dto.AuthRequest;
 import com.chatapp.authservice.dto.AuthResponse;
 import com.chatapp.authservice.dto.ProfileUpdateRequest;
+import com.chatapp.authservice.dto.RefreshTokenRequest;
 import com.chatapp.authservice.dto.RegisterRequest;
 import com.chatapp.authservice.dto.UserDto;
 import com.chatapp.authservice.model.User;
 import com.chatapp.authservice.service.AuthService;
+import com.chatapp.authservice.service.ResourceVersionService;
 import com.chatapp.authservice.util.JwtUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -19,10 +23,12 @@ public class AuthController {
 
     private final AuthService authService;
     private final JwtUtil jwtUtil;
+    private final ResourceVersionService resourceVersionService;
 
-    public AuthController(AuthService authService, JwtUtil jwtUtil) {
+    public AuthController(AuthService authService, JwtUtil jwtUtil, ResourceVersionService resourceVersionService) {
         this.authService = authService;
         this.jwtUtil = jwtUtil;
+        this.resourceVersionService = resourceVersionService;
     }
 
     @PostMapping("/register")
@@ -42,11 +48,27 @@ public class AuthController {
         return ResponseEntity.ok(authService.login(authRequest));
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+        return ResponseEntity.ok(authService.refresh(refreshTokenRequest));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+        authService.logout(refreshTokenRequest);
+        return ResponseEntity.ok().build();
+    }
+
     @GetMapping("/profile")
-    public ResponseEntity<UserDto> getProfile(HttpServletRequest request) {
+    public ResponseEntity<UserDto> getProfile(HttpServletRequest request, WebRequest webRequest) {
         String header = request.getHeader("Authorization");
         String token = header.substring(7);
         Long userId = jwtUtil.getUserIdFromToken(token);
+        // Answered from the version counter before loading the user; checkNotModified also sets the ETag header
+        String eTag = resourceVersionService.profileETag(userId);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         User user = authService.getUserById(userId);
         UserDto userDto = UserDto.builder()
                 .id(user.getId())
@@ -56,7 +78,9 @@ public class AuthController {
                 .profilePictureUrl(user.getProfilePictureUrl())
                 .about(user.getAbout())
                 .build();
-        return ResponseEntity.ok(userDto);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(userDto);
     }
 
     @PutMapping("/profile")
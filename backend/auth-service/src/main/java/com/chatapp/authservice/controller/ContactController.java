@@ -3,9 +3,12 @@ package com.chatapp.authservice.controller;
 import com.chatapp.authservice.dto.ContactDto;
 import com.chatapp.authservice.dto.AddContactRequest;
 import com.chatapp.authservice.dto.AddContactResponse;
+import com.chatapp.authservice.dto.ContactSyncRequest;
+import com.chatapp.authservice.dto.ContactSyncResponse;
 import com.chatapp.authservice.service.ContactService;
 import com.chatapp.authservice.util.JwtUtil;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
@@ -45,6 +48,14 @@ public class ContactController {
         return ResponseEntity.ok(contactService.addContactByIdentifier(userId, body));
     }
 
+    // Bulk address-book import; returns only what changed since the caller's contacts
+    @PostMapping("/sync")
+    public ResponseEntity<ContactSyncResponse> syncContacts(HttpServletRequest request,
+                                                            @Valid @RequestBody ContactSyncRequest body) {
+        Long userId = getUserIdFromRequest(request);
+        return ResponseEntity.ok(contactService.syncContacts(userId, body));
+    }
+
     @DeleteMapping("/{contactId}")
     public ResponseEntity<Void> removeContact(HttpServletRequest request, @PathVariable Long contactId) {
         Long userId = getUserIdFromRequest(request);
@@ -75,7 +86,7 @@ public class ContactController {
         return ResponseEntity.ok(contactService.getContacts(userId, pageable));
     }
 
-    // Send invitation email to provided email address
+    // Queue invitation email to provided email address; delivery happens in the outbox dispatcher
     @PostMapping("/invite")
     public ResponseEntity<Void> sendInvite(HttpServletRequest request, @RequestParam("email") String email) {
         Long userId = getUserIdFromRequest(request);
@@ -83,8 +94,8 @@ public class ContactController {
         String header = request.getHeader("Authorization");
         String token = header.substring(7);
         String inviterUsername = jwtUtil.getUserNameFromJwtToken(token);
-        emailService.sendInviteEmail(email, inviterUsername);
-        return ResponseEntity.ok().build();
+        emailService.queueInviteEmail(email, inviterUsername);
+        return ResponseEntity.accepted().build();
     }
 
 }
@@ -13,4 +13,9 @@ public class AuthResponse {
 
     private String token;
 
+    private String refreshToken;
+
+    // Access token lifetime in seconds
+    private long expiresIn;
+
 }
@@ -0,0 +1,23 @@
+package com.chatapp.authservice.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContactSyncRequest {
+
+    // Usernames, emails or phone numbers from the client's address book
+    @NotNull(message = "Identifiers are required")
+    @Size(max = 5000, message = "At most 5000 identifiers can be synced at once")
+    private List<String> identifiers;
+
+}
@@ -0,0 +1,25 @@
+package com.chatapp.authservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContactSyncResponse {
+
+    // True when the address book hash matched the previous sync and nothing was processed
+    private boolean unchanged;
+
+    private List<UserDto> added;     // registered users newly linked as contacts
+
+    private List<String> invited;    // identifiers newly stored as invite placeholders
+
+    private int alreadyPresent;      // identifiers that were already contacts or invites
+
+}
@@ -1,7 +1,10 @@
 package com.chatapp.authservice.filter;
 
-import com.chatapp.authservice.service.UserDetailsServiceImpl;
+import com.chatapp.authservice.service.TokenVersionService;
+import com.chatapp.authservice.service.UserDetailsImpl;
 import com.chatapp.authservice.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,13 +13,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 public class AuthTokenFilter extends OncePerRequestFilter {
 
@@ -24,7 +28,7 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private UserDetailsServiceImpl userDetailsService;
+    private TokenVersionService tokenVersionService;
 
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
@@ -33,18 +37,29 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtil.validateJwtToken(jwt)) {
-                String username = jwtUtil.getUserNameFromJwtToken(jwt);
+            if (jwt != null) {
+                // Principal is built from the signed claims; only the token version is checked per request
+                Claims claims = jwtUtil.parseClaims(jwt);
+                Long userId = claims.get("id", Long.class);
+                Long tokenVersion = claims.get("ver", Long.class);
+                long currentVersion = tokenVersionService.getTokenVersion(userId);
+                if ((tokenVersion != null ? tokenVersion : 0L) != currentVersion) {
+                    logger.debug("Rejecting revoked token for userId={}", userId);
+                } else {
+                    UserDetailsImpl userDetails = new UserDetailsImpl(userId, claims.getSubject(), null,
+                            List.of(new SimpleGrantedAuthority(claims.get("role", String.class))));
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
+        } catch (JwtException e) {
+            // Expired, malformed or wrongly signed: routine, the request just stays unauthenticated
+            logger.debug("Ignoring invalid token: {}", e.getMessage());
         } catch (Exception e) {
-            logger.error("Cannot set user authentication: {}", e);
+            logger.error("Cannot set user authentication", e);
         }
 
         filterChain.doFilter(request, response);
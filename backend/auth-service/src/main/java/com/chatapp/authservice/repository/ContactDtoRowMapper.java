@@ -0,0 +1,42 @@
+package com.chatapp.authservice.repository;
+
+import com.chatapp.authservice.dto.ContactDto;
+import com.chatapp.authservice.dto.UserDto;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class ContactDtoRowMapper implements RowMapper<ContactDto> {
+
+    @Override
+    public ContactDto mapRow(ResultSet rs, int rowNum) throws SQLException {
+        UserDto contactUser = null;
+        long contactUserId = rs.getLong("contact_user_id");
+        if (!rs.wasNull()) {
+            contactUser = UserDto.builder()
+                    .id(contactUserId)
+                    .username(rs.getString("contact_username"))
+                    .profilePictureUrl(rs.getString("contact_profile_picture_url"))
+                    .about(rs.getString("contact_about"))
+                    .phoneNumber(rs.getString("contact_phone_number"))
+                    .build();
+        }
+        String phoneNumber = rs.getString("phone_number");
+        return ContactDto.builder()
+                .id(rs.getLong("id"))
+                .user(UserDto.builder()
+                        .id(rs.getLong("user_id"))
+                        .username(rs.getString("user_username"))
+                        .profilePictureUrl(rs.getString("user_profile_picture_url"))
+                        .about(rs.getString("user_about"))
+                        .build())
+                .contact(contactUser)
+                .invite(rs.getBoolean("invite"))
+                .identifier(rs.getString("identifier"))
+                .inviteUsername(rs.getString("invite_username"))
+                .inviteEmail(rs.getString("invite_email"))
+                .phoneNumber(phoneNumber != null ? phoneNumber : (contactUser != null ? contactUser.getPhoneNumber() : null))
+                .build();
+    }
+}
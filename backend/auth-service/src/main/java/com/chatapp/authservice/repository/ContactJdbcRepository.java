@@ -0,0 +1,106 @@
+package com.chatapp.authservice.repository;
+
+import com.chatapp.authservice.dto.ContactDto;
+import com.chatapp.authservice.model.Contact;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+public class ContactJdbcRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO contacts (user_id, contact_id, invite, identifier, invite_username, invite_email, phone_number) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // Only the columns ContactDto needs, in one joined query (no entity graph, no password hashes)
+    private static final String CONTACT_DTO_COLUMNS = "c.id, c.invite, c.identifier, c.invite_username, c.invite_email, c.phone_number, "
+            + "u.id AS user_id, u.username AS user_username, u.profile_picture_url AS user_profile_picture_url, u.about AS user_about, "
+            + "cu.id AS contact_user_id, cu.username AS contact_username, cu.profile_picture_url AS contact_profile_picture_url, "
+            + "cu.about AS contact_about, cu.phone_number AS contact_phone_number";
+    private static final String CONTACTS_OF_USER = " FROM contacts c JOIN users u ON u.id = c.user_id "
+            + "LEFT JOIN users cu ON cu.id = c.contact_id WHERE c.user_id = ?";
+    private static final String SELECT_CONTACT_DTO_SQL = "SELECT " + CONTACT_DTO_COLUMNS + CONTACTS_OF_USER;
+    // The search index also matches on the contact's email, which ContactDto leaves out
+    private static final String SELECT_CONTACT_SEARCH_SQL = "SELECT " + CONTACT_DTO_COLUMNS + ", cu.email AS contact_email"
+            + CONTACTS_OF_USER + " ORDER BY c.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ContactJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // JDBC batch insert; JPA cannot batch IDENTITY inserts
+    public void batchInsert(List<Contact> contacts) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, contacts, 500, (ps, contact) -> {
+            ps.setLong(1, contact.getUser().getId());
+            if (contact.getContact() != null) {
+                ps.setLong(2, contact.getContact().getId());
+            } else {
+                ps.setNull(2, Types.BIGINT);
+            }
+            ps.setBoolean(3, Boolean.TRUE.equals(contact.getInvite()));
+            ps.setString(4, contact.getIdentifier());
+            ps.setString(5, contact.getInviteUsername());
+            ps.setString(6, contact.getInviteEmail());
+            ps.setString(7, contact.getPhoneNumber());
+        });
+    }
+
+    public Page<ContactDto> findContactPage(Long userId, Boolean invite, Pageable pageable) {
+        StringBuilder sql = new StringBuilder(SELECT_CONTACT_DTO_SQL);
+        List<Object> args = new ArrayList<>();
+        args.add(userId);
+        if (invite != null) {
+            sql.append(" AND c.invite = ?");
+            args.add(invite);
+        }
+        sql.append(" ORDER BY c.id");
+        if (pageable.isPaged()) {
+            sql.append(" LIMIT ? OFFSET ?");
+            args.add(pageable.getPageSize());
+            args.add(pageable.getOffset());
+        }
+        List<ContactDto> content = jdbcTemplate.query(sql.toString(), new ContactDtoRowMapper(), args.toArray());
+        return PageableExecutionUtils.getPage(content, pageable, () -> countContacts(userId, invite));
+    }
+
+    // Every contact of the user with what the search index matches on, in one joined query
+    public List<ContactSearchRow> findSearchRows(Long userId) {
+        ContactDtoRowMapper contactMapper = new ContactDtoRowMapper();
+        return jdbcTemplate.query(SELECT_CONTACT_SEARCH_SQL,
+                (rs, rowNum) -> new ContactSearchRow(contactMapper.mapRow(rs, rowNum), rs.getString("contact_email")),
+                userId);
+    }
+
+    // Users who have this user in their contacts, i.e. whose conversation list shows their profile
+    public List<Long> findUserIdsByContactId(Long contactId) {
+        return jdbcTemplate.queryForList("SELECT user_id FROM contacts WHERE contact_id = ?", Long.class, contactId);
+    }
+
+    // Just what contact sync dedupes against, instead of loading every Contact with its users
+    public List<ContactKey> findContactKeys(Long userId) {
+        return jdbcTemplate.query("SELECT contact_id, identifier FROM contacts WHERE user_id = ?",
+                (rs, rowNum) -> new ContactKey(rs.getObject("contact_id", Long.class), rs.getString("identifier")),
+                userId);
+    }
+
+    private long countContacts(Long userId, Boolean invite) {
+        Long count = invite != null
+                ? jdbcTemplate.queryForObject("SELECT COUNT(*) FROM contacts WHERE user_id = ? AND invite = ?", Long.class, userId, invite)
+                : jdbcTemplate.queryForObject("SELECT COUNT(*) FROM contacts WHERE user_id = ?", Long.class, userId);
+        return count != null ? count : 0L;
+    }
+
+    public record ContactKey(Long contactId, String identifier) {
+    }
+
+    public record ContactSearchRow(ContactDto contact, String contactEmail) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.chatapp.authservice.repository;
+
+import com.chatapp.authservice.model.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    boolean existsByToEmailAndStatusIn(String toEmail, Collection<EmailOutbox.Status> statuses);
+
+    boolean existsByToEmailAndStatusAndSentAtAfter(String toEmail, EmailOutbox.Status status, LocalDateTime sentAfter);
+
+    // Rows are locked for the claiming transaction only; other instances skip them instead of waiting
+    @Query(value = "SELECT * FROM email_outbox WHERE status IN ('PENDING', 'SENDING') AND next_attempt_at <= :now "
+            + "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EmailOutbox> lockDueBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+}
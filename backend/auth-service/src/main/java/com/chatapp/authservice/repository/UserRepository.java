@@ -4,6 +4,8 @@ import com.chatapp.authservice.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +16,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
     Optional<User> findByPhoneNumber(String phoneNumber);
+
+    List<User> findByUsernameIn(Collection<String> usernames);
+
+    List<User> findByEmailIn(Collection<String> emails);
+
+    List<User> findByPhoneNumberIn(Collection<String> phoneNumbers);
 }
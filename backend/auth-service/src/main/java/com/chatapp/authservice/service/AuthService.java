@@ -3,6 +3,7 @@ package com.chatapp.authservice.service;
 import com.chatapp.authservice.dto.AuthRequest;
 import com.chatapp.authservice.dto.AuthResponse;
 import com.chatapp.authservice.dto.ProfileUpdateRequest;
+import com.chatapp.authservice.dto.RefreshTokenRequest;
 import com.chatapp.authservice.dto.RegisterRequest;
 import com.chatapp.authservice.model.User;
 
@@ -12,6 +13,10 @@ public interface AuthService {
 
     AuthResponse login(AuthRequest authRequest);
 
+    AuthResponse refresh(RefreshTokenRequest refreshTokenRequest);
+
+    void logout(RefreshTokenRequest refreshTokenRequest);
+
     User getUserById(Long id);
 
     User updateProfile(Long userId, ProfileUpdateRequest profileUpdateRequest);
@@ -3,35 +3,45 @@ package com.chatapp.authservice.service;
 import com.chatapp.authservice.dto.AuthRequest;
 import com.chatapp.authservice.dto.AuthResponse;
 import com.chatapp.authservice.dto.ProfileUpdateRequest;
+import com.chatapp.authservice.dto.RefreshTokenRequest;
 import com.chatapp.authservice.dto.RegisterRequest;
 import com.chatapp.authservice.exception.UsernameAlreadyExistsException;
 import com.chatapp.authservice.model.Role;
 import com.chatapp.authservice.model.User;
+import com.chatapp.authservice.repository.ContactJdbcRepository;
 import com.chatapp.authservice.repository.UserRepository;
 import com.chatapp.authservice.util.JwtUtil;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.List;
+
 @Service
 @Slf4j
 public class AuthServiceImpl implements AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
-    private final AuthenticationManager authenticationManager;
+    private final PasswordHashingService passwordHashingService;
     private final JwtUtil jwtUtil;
+    private final TokenVersionService tokenVersionService;
+    private final RefreshTokenService refreshTokenService;
+    private final ResourceVersionService resourceVersionService;
+    private final ContactJdbcRepository contactJdbcRepository;
+    private final ContactSearchIndex contactSearchIndex;
 
-    public AuthServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder,
-                           AuthenticationManager authenticationManager, JwtUtil jwtUtil) {
+    public AuthServiceImpl(UserRepository userRepository, PasswordHashingService passwordHashingService,
+                           JwtUtil jwtUtil, TokenVersionService tokenVersionService,
+                           RefreshTokenService refreshTokenService, ResourceVersionService resourceVersionService,
+                           ContactJdbcRepository contactJdbcRepository, ContactSearchIndex contactSearchIndex) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
-        this.authenticationManager = authenticationManager;
+        this.passwordHashingService = passwordHashingService;
         this.jwtUtil = jwtUtil;
+        this.tokenVersionService = tokenVersionService;
+        this.refreshTokenService = refreshTokenService;
+        this.resourceVersionService = resourceVersionService;
+        this.contactJdbcRepository = contactJdbcRepository;
+        this.contactSearchIndex = contactSearchIndex;
     }
 
     @Override
@@ -48,7 +58,7 @@ public class AuthServiceImpl implements AuthService {
         User user = User.builder()
                 .username(registerRequest.getUsername())
                 .email(registerRequest.getEmail())
-                .password(passwordEncoder.encode(registerRequest.getPassword()))
+                .password(passwordHashingService.encode(registerRequest.getPassword()))
                 .phoneNumber(registerRequest.getPhoneNumber())
                 .role(Role.USER)
                 .build();
@@ -61,15 +71,51 @@ public class AuthServiceImpl implements AuthService {
     @Override
     public AuthResponse login(AuthRequest authRequest) {
         log.info("AuthService.login username={} ", authRequest.getUsername());
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(authRequest.getUsername(), authRequest.getPassword()));
+        User user = userRepository.findByUsername(authRequest.getUsername()).orElse(null);
+        if (user == null) {
+            // Same BCrypt cost as a wrong password, so response time does not reveal which usernames exist
+            passwordHashingService.matchesNoUser(authRequest.getPassword());
+            throw new BadCredentialsException("Bad credentials");
+        }
+        if (!passwordHashingService.matches(authRequest.getPassword(), user.getPassword())) {
+            throw new BadCredentialsException("Bad credentials");
+        }
 
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        User user = userRepository.findByUsername(userDetails.getUsername()).get();
-        String jwt = jwtUtil.generateToken(user);
+        // Transparently upgrade hashes created with an older BCrypt cost
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            user.setPassword(passwordHashingService.encode(authRequest.getPassword()));
+            userRepository.save(user);
+            log.info("AuthService.login rehashed password for userId={}", user.getId());
+        }
+
+        String refreshToken = refreshTokenService.createSession(user.getId());
         log.debug("AuthService.login token generated for userId={} ", user.getId());
-        return AuthResponse.builder().token(jwt).build();
+        return buildAuthResponse(user, refreshToken);
+    }
+
+    @Override
+    public AuthResponse refresh(RefreshTokenRequest refreshTokenRequest) {
+        RefreshTokenService.RotatedToken rotated = refreshTokenService.rotate(refreshTokenRequest.getRefreshToken());
+        User user = getUserById(rotated.userId());
+        log.debug("AuthService.refresh rotated session for userId={}", user.getId());
+        return buildAuthResponse(user, rotated.refreshToken());
+    }
+
+    @Override
+    public void logout(RefreshTokenRequest refreshTokenRequest) {
+        Long userId = refreshTokenService.revokeSession(refreshTokenRequest.getRefreshToken());
+        // Outstanding access tokens are cut off too; other sessions recover through refresh
+        tokenVersionService.revokeTokens(userId);
+        log.info("AuthService.logout userId={}", userId);
+    }
+
+    private AuthResponse buildAuthResponse(User user, String refreshToken) {
+        String jwt = jwtUtil.generateToken(user, tokenVersionService.getTokenVersion(user.getId()));
+        return AuthResponse.builder()
+                .token(jwt)
+                .refreshToken(refreshToken)
+                .expiresIn(jwtUtil.getAccessTokenTtlMillis() / 1000)
+                .build();
     }
 
     @Override
@@ -86,6 +132,10 @@ public class AuthServiceImpl implements AuthService {
         user.setProfilePictureUrl(profileUpdateRequest.getProfilePictureUrl());
         user.setAbout(profileUpdateRequest.getAbout());
         User updated = userRepository.save(user);
+        // The picture and about text also show in contacts' conversation lists and contact search results
+        List<Long> audience = contactJdbcRepository.findUserIdsByContactId(userId);
+        resourceVersionService.profileChanged(userId, audience);
+        contactSearchIndex.invalidateAll(audience);
         log.debug("AuthService.updateProfile updated userId={}", updated.getId());
         return updated;
     }
@@ -0,0 +1,357 @@
+package com.chatapp.authservice.service;
+
+import com.chatapp.authservice.dto.ContactDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Per-user trigram index over contact username, identifier, email and phone number.
+ * A user's index is built on first search, kept in sync by the contact mutations and
+ * dropped after it has been idle for a while. Mutations are broadcast on a Redis channel
+ * so other instances drop their copy, and no index outlives max-age-ms however busy it is.
+ * Entries embed the contacts' profiles, so a profile update invalidates the indexes of everyone
+ * who has that user as a contact.
+ */
+@Component
+@Slf4j
+public class ContactSearchIndex {
+
+    private static final String INVALIDATIONS_CHANNEL = "contact-index-invalidations";
+
+    private final Map<Long, UserIndex> indexes = new ConcurrentHashMap<>();
+    // Bumped on every mutation so a build that raced with a write is discarded. The map's
+    // per-key compute is the per-user lock: bumps, installs and evictions all go through it
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final RedisTemplate<String, String> redisTemplate;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final long idleMillis;
+    private final long maxAgeMillis;
+
+    public ContactSearchIndex(RedisTemplate<String, String> redisTemplate,
+                              RedisMessageListenerContainer listenerContainer,
+                              @Value("${contacts.search-index.idle-ms:600000}") long idleMillis,
+                              @Value("${contacts.search-index.max-age-ms:1800000}") long maxAgeMillis) {
+        if (maxAgeMillis <= idleMillis) {
+            throw new IllegalArgumentException("contacts.search-index.max-age-ms must be above idle-ms, "
+                    + "or idle indexes are never the ones evicted");
+        }
+        this.redisTemplate = redisTemplate;
+        this.idleMillis = idleMillis;
+        this.maxAgeMillis = maxAgeMillis;
+        listenerContainer.addMessageListener((message, pattern) ->
+                onInvalidation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(INVALIDATIONS_CHANNEL));
+    }
+
+    public Page<ContactDto> search(Long userId, String query, boolean invite, Pageable pageable,
+                                   Supplier<List<Entry>> loader) {
+        UserIndex index = indexes.get(userId);
+        if (index != null && index.builtAt < System.currentTimeMillis() - maxAgeMillis) {
+            drop(userId, index);
+            index = null;
+        }
+        if (index == null) {
+            index = build(userId, loader);
+        }
+        List<ContactDto> matches = index.search(query.trim().toLowerCase(Locale.ROOT), invite);
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(matches, pageable, matches.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        return new PageImpl<>(matches.subList(from, to), pageable, matches.size());
+    }
+
+    public void put(Long userId, Entry entry) {
+        bump(userId);
+        UserIndex index = indexes.get(userId);
+        if (index != null) {
+            index.put(entry);
+        }
+        publish(userId);
+    }
+
+    public void remove(Long userId, Long contactId) {
+        bump(userId);
+        UserIndex index = indexes.get(userId);
+        if (index != null) {
+            index.remove(contactId);
+        }
+        publish(userId);
+    }
+
+    public void invalidate(Long userId) {
+        invalidateLocal(userId);
+        publish(userId);
+    }
+
+    // For a change that shows in other users' indexes, such as a contact's profile; one message for all
+    public void invalidateAll(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        userIds.forEach(this::invalidateLocal);
+        publish(userIds.stream().map(String::valueOf).collect(Collectors.joining(",")));
+    }
+
+    @Scheduled(fixedDelayString = "${contacts.search-index.sweep-ms:60000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        indexes.forEach((userId, index) -> {
+            if (index.lastAccess < now - idleMillis || index.builtAt < now - maxAgeMillis) {
+                drop(userId, index);
+            }
+        });
+        // Counters of users without an index; an in-flight build then just isn't installed
+        generations.keySet().forEach(userId ->
+                generations.computeIfPresent(userId, (id, counter) -> indexes.containsKey(id) ? counter : null));
+    }
+
+    // Payload is "<instanceId>:<userId>[,<userId>...]"
+    void onInvalidation(String payload) {
+        int separator = payload.lastIndexOf(':');
+        if (separator < 0 || payload.substring(0, separator).equals(instanceId)) {
+            return;
+        }
+        try {
+            for (String userId : payload.substring(separator + 1).split(",")) {
+                invalidateLocal(Long.parseLong(userId));
+            }
+        } catch (NumberFormatException e) {
+            log.warn("ContactSearchIndex.onInvalidation unparseable payload={}", payload);
+        }
+    }
+
+    private UserIndex build(Long userId, Supplier<List<Entry>> loader) {
+        AtomicLong counter = generations.compute(userId, (id, current) -> current != null ? current : new AtomicLong());
+        long generation = counter.get();
+        UserIndex built = new UserIndex(loader.get());
+        UserIndex[] result = {built};
+        // Only install if no mutation or eviction happened while loading
+        generations.computeIfPresent(userId, (id, current) -> {
+            if (current == counter && current.get() == generation) {
+                UserIndex existing = indexes.putIfAbsent(id, built);
+                if (existing != null) {
+                    result[0] = existing;
+                }
+            }
+            return current;
+        });
+        log.debug("ContactSearchIndex.build userId={} size={}", userId, result[0].size());
+        return result[0];
+    }
+
+    private void bump(Long userId) {
+        generations.compute(userId, (id, current) -> {
+            AtomicLong counter = current != null ? current : new AtomicLong();
+            counter.incrementAndGet();
+            return counter;
+        });
+    }
+
+    private void invalidateLocal(Long userId) {
+        generations.compute(userId, (id, current) -> {
+            AtomicLong counter = current != null ? current : new AtomicLong();
+            counter.incrementAndGet();
+            indexes.remove(id);
+            return counter;
+        });
+    }
+
+    // Dropping the counter together with the index means an in-flight build sees a different counter
+    private void drop(Long userId, UserIndex index) {
+        generations.computeIfPresent(userId, (id, current) -> indexes.remove(id, index) ? null : current);
+    }
+
+    // Sent after commit so another instance never rebuilds from rows that are not visible yet
+    private void publish(Long userId) {
+        publish(String.valueOf(userId));
+    }
+
+    private void publish(String userIds) {
+        String payload = instanceId + ":" + userIds;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(payload);
+                }
+            });
+        } else {
+            send(payload);
+        }
+    }
+
+    private void send(String payload) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATIONS_CHANNEL, payload);
+        } catch (RuntimeException e) {
+            // Other instances fall back to max-age-ms
+            log.warn("ContactSearchIndex.publish failed payload={}", payload, e);
+        }
+    }
+
+    /**
+     * One searchable contact. Fields are ordered by ranking weight.
+     */
+    public record Entry(ContactDto contact, boolean invite, String username, String identifier,
+                        String email, String phoneNumber) {
+
+        String[] fields() {
+            return new String[]{lower(username), lower(identifier), lower(email), lower(phoneNumber)};
+        }
+
+        String sortKey() {
+            return username != null ? username.toLowerCase(Locale.ROOT)
+                    : identifier != null ? identifier.toLowerCase(Locale.ROOT) : "";
+        }
+
+        private static String lower(String value) {
+            return value != null ? value.toLowerCase(Locale.ROOT) : null;
+        }
+    }
+
+    private static final class UserIndex {
+
+        private final Map<Long, Entry> entries = new HashMap<>();
+        private final Map<Long, String[]> fields = new HashMap<>();
+        private final Map<String, Set<Long>> postings = new HashMap<>();
+        private final long builtAt = System.currentTimeMillis();
+        private volatile long lastAccess = builtAt;
+
+        UserIndex(Collection<Entry> initial) {
+            initial.forEach(this::put);
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        synchronized void put(Entry entry) {
+            Long id = entry.contact().getId();
+            remove(id);
+            String[] values = entry.fields();
+            entries.put(id, entry);
+            fields.put(id, values);
+            for (String value : values) {
+                for (String gram : trigrams(value)) {
+                    postings.computeIfAbsent(gram, g -> new HashSet<>()).add(id);
+                }
+            }
+        }
+
+        synchronized void remove(Long id) {
+            String[] values = fields.remove(id);
+            entries.remove(id);
+            if (values == null) {
+                return;
+            }
+            for (String value : values) {
+                for (String gram : trigrams(value)) {
+                    Set<Long> ids = postings.get(gram);
+                    if (ids != null) {
+                        ids.remove(id);
+                        if (ids.isEmpty()) {
+                            postings.remove(gram);
+                        }
+                    }
+                }
+            }
+        }
+
+        synchronized List<ContactDto> search(String query, boolean invite) {
+            lastAccess = System.currentTimeMillis();
+            Collection<Long> candidates = query.length() >= 3 ? candidates(query) : entries.keySet();
+            List<Scored> scored = new ArrayList<>();
+            for (Long id : candidates) {
+                Entry entry = entries.get(id);
+                if (entry.invite() != invite) {
+                    continue;
+                }
+                int score = score(fields.get(id), query);
+                if (score > 0) {
+                    scored.add(new Scored(entry, score));
+                }
+            }
+            scored.sort(Comparator.comparingInt(Scored::score).reversed()
+                    .thenComparing(s -> s.entry().sortKey()));
+            List<ContactDto> result = new ArrayList<>(scored.size());
+            scored.forEach(s -> result.add(s.entry().contact()));
+            return result;
+        }
+
+        private Collection<Long> candidates(String query) {
+            Set<String> grams = trigrams(query);
+            List<Set<Long>> lists = new ArrayList<>(grams.size());
+            for (String gram : grams) {
+                Set<Long> ids = postings.get(gram);
+                if (ids == null) {
+                    return List.of();
+                }
+                lists.add(ids);
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+            Set<Long> result = new HashSet<>(lists.get(0));
+            for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+                result.retainAll(lists.get(i));
+            }
+            return result;
+        }
+
+        // Exact match beats prefix beats substring; ties go to the higher-weighted field
+        private static int score(String[] values, String query) {
+            int best = 0;
+            for (int i = 0; i < values.length; i++) {
+                String value = values[i];
+                if (value == null) {
+                    continue;
+                }
+                int match = value.equals(query) ? 3 : value.startsWith(query) ? 2 : value.contains(query) ? 1 : 0;
+                if (match > 0) {
+                    best = Math.max(best, match * 10 + (values.length - i));
+                }
+            }
+            return best;
+        }
+
+        private static Set<String> trigrams(String value) {
+            if (value == null || value.length() < 3) {
+                return Set.of();
+            }
+            Set<String> grams = new HashSet<>();
+            for (int i = 0; i + 3 <= value.length(); i++) {
+                grams.add(value.substring(i, i + 3));
+            }
+            return grams;
+        }
+
+        private record Scored(Entry entry, int score) {
+        }
+    }
+}
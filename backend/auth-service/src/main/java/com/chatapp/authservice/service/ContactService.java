@@ -3,6 +3,8 @@ package com.chatapp.authservice.service;
 import com.chatapp.authservice.dto.ContactDto;
 import com.chatapp.authservice.dto.AddContactResponse;
 import com.chatapp.authservice.dto.AddContactRequest;
+import com.chatapp.authservice.dto.ContactSyncRequest;
+import com.chatapp.authservice.dto.ContactSyncResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -12,6 +14,8 @@ public interface ContactService {
 
     AddContactResponse addContactByIdentifier(Long userId, AddContactRequest request);
 
+    ContactSyncResponse syncContacts(Long userId, ContactSyncRequest request);
+
     void removeContact(Long userId, Long contactId);
 
     Page<ContactDto> getContacts(Long userId, Pageable pageable);
@@ -3,26 +3,61 @@ package com.chatapp.authservice.service;
 import com.chatapp.authservice.dto.ContactDto;
 import com.chatapp.authservice.dto.AddContactResponse;
 import com.chatapp.authservice.dto.AddContactRequest;
+import com.chatapp.authservice.dto.ContactSyncRequest;
+import com.chatapp.authservice.dto.ContactSyncResponse;
 import com.chatapp.authservice.dto.UserDto;
 import com.chatapp.authservice.model.Contact;
 import com.chatapp.authservice.model.User;
+import com.chatapp.authservice.repository.ContactJdbcRepository;
 import com.chatapp.authservice.repository.ContactRepository;
 import com.chatapp.authservice.repository.UserRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import lombok.extern.slf4j.Slf4j;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
 @Service
 @Slf4j
 public class ContactServiceImpl implements ContactService {
 
+    private static final String CONTACT_SYNC_KEY_PREFIX = "contact-sync:";
+    private static final Duration CONTACT_SYNC_HASH_TTL = Duration.ofDays(1);
+    private static final int SYNC_QUERY_CHUNK = 1000;
+
     private final ContactRepository contactRepository;
+    private final ContactJdbcRepository contactJdbcRepository;
     private final UserRepository userRepository;
+    private final ContactSearchIndex contactSearchIndex;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ResourceVersionService resourceVersionService;
 
-    public ContactServiceImpl(ContactRepository contactRepository, UserRepository userRepository) {
+    public ContactServiceImpl(ContactRepository contactRepository, ContactJdbcRepository contactJdbcRepository,
+                              UserRepository userRepository, ContactSearchIndex contactSearchIndex,
+                              RedisTemplate<String, String> redisTemplate, ResourceVersionService resourceVersionService) {
         this.contactRepository = contactRepository;
+        this.contactJdbcRepository = contactJdbcRepository;
         this.userRepository = userRepository;
+        this.contactSearchIndex = contactSearchIndex;
+        this.redisTemplate = redisTemplate;
+        this.resourceVersionService = resourceVersionService;
     }
 
     @Override
@@ -36,6 +71,9 @@ public class ContactServiceImpl implements ContactService {
                 .invite(false) // Explicitly set to false for existing users
                 .build();
         contactRepository.save(contact);
+        contactSearchIndex.put(userId, toSearchEntry(contact));
+        // chat-service lists conversations per contact
+        resourceVersionService.conversationsChanged(userId);
         log.debug("ContactService.addContact saved contact id={}", contact.getId());
         return convertToDto(contact);
     }
@@ -46,38 +84,38 @@ public class ContactServiceImpl implements ContactService {
         Contact contact = contactRepository.findByUserIdAndContactId(userId, contactId)
                 .orElseThrow(() -> new RuntimeException("Contact not found"));
         contactRepository.delete(contact);
+        contactSearchIndex.remove(userId, contact.getId());
+        resourceVersionService.conversationsChanged(userId);
     }
 
     @Override
     public Page<ContactDto> getContacts(Long userId, Pageable pageable) {
         log.debug("ContactService.getContacts userId={} page={} size={}", userId, pageable.getPageNumber(), pageable.getPageSize());
-        return contactRepository.findByUserId(userId, pageable).map(this::convertToDto);
+        return contactJdbcRepository.findContactPage(userId, null, pageable);
     }
 
     @Override
     public Page<ContactDto> getInviteContacts(Long userId, Pageable pageable) {
         log.debug("ContactService.getInviteContacts userId={} page={} size={}", userId, pageable.getPageNumber(), pageable.getPageSize());
-        return contactRepository.findByUserIdAndInvite(userId, true, pageable).map(this::convertToDto);
+        return contactJdbcRepository.findContactPage(userId, true, pageable);
     }
 
     @Override
     public Page<ContactDto> getUserContacts(Long userId, Pageable pageable) {
         log.debug("ContactService.getUserContacts userId={} page={} size={}", userId, pageable.getPageNumber(), pageable.getPageSize());
-        return contactRepository.findByUserIdAndInvite(userId, false, pageable).map(this::convertToDto);
+        return contactJdbcRepository.findContactPage(userId, false, pageable);
     }
 
     @Override
     public Page<ContactDto> searchUserContacts(Long userId, String query, Pageable pageable) {
         log.debug("ContactService.searchUserContacts userId={} query={}", userId, query);
-        return contactRepository.findByUserIdAndContact_UsernameContainingIgnoreCase(userId, query, pageable)
-                .map(this::convertToDto);
+        return contactSearchIndex.search(userId, query, false, pageable, () -> loadSearchEntries(userId));
     }
 
     @Override
     public Page<ContactDto> searchInviteContacts(Long userId, String query, Pageable pageable) {
         log.debug("ContactService.searchInviteContacts userId={} query={}", userId, query);
-        return contactRepository.findByUserIdAndInviteTrueAndIdentifierContainingIgnoreCase(userId, query, pageable)
-                .map(this::convertToDto);
+        return contactSearchIndex.search(userId, query, true, pageable, () -> loadSearchEntries(userId));
     }
 
     @Override
@@ -131,6 +169,8 @@ public class ContactServiceImpl implements ContactService {
                     contactEntity.setInviteUsername(null);
                     contactEntity.setInviteEmail(null);
                     contactRepository.save(contactEntity);
+                    contactSearchIndex.put(userId, toSearchEntry(contactEntity));
+                    resourceVersionService.conversationsChanged(userId);
                 }
                 added = false;
             } else {
@@ -144,6 +184,8 @@ public class ContactServiceImpl implements ContactService {
                         .inviteEmail(null)
                         .build();
                 contactRepository.save(contactEntity);
+                contactSearchIndex.put(userId, toSearchEntry(contactEntity));
+                resourceVersionService.conversationsChanged(userId);
                 added = true;
             }
 
@@ -176,6 +218,7 @@ public class ContactServiceImpl implements ContactService {
                 .phoneNumber(request != null ? request.getPhoneNumber() : null)
                 .build();
         contactRepository.save(placeholder);
+        contactSearchIndex.put(userId, toSearchEntry(placeholder));
         log.debug("ContactService.addContactByIdentifier created invite placeholder id={}", placeholder.getId());
 
         ContactDto contactDto = ContactDto.builder()
@@ -196,6 +239,186 @@ public class ContactServiceImpl implements ContactService {
                 .build();
     }
 
+    @Override
+    @Transactional
+    public ContactSyncResponse syncContacts(Long userId, ContactSyncRequest request) {
+        Set<String> identifiers = new TreeSet<>();
+        for (String raw : request.getIdentifiers()) {
+            String normalized = normalizeIdentifier(raw);
+            if (normalized != null) {
+                identifiers.add(normalized);
+            }
+        }
+        log.info("ContactService.syncContacts userId={} identifiers={}", userId, identifiers.size());
+
+        // Identical address book as last time: nothing to match or insert
+        String syncKey = CONTACT_SYNC_KEY_PREFIX + userId;
+        String bookHash = hashIdentifiers(identifiers);
+        if (bookHash.equals(redisTemplate.opsForValue().get(syncKey))) {
+            log.debug("ContactService.syncContacts unchanged userId={}", userId);
+            return ContactSyncResponse.builder().unchanged(true).added(List.of()).invited(List.of()).build();
+        }
+
+        User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
+
+        List<String> emails = new ArrayList<>();
+        List<String> phones = new ArrayList<>();
+        List<String> usernames = new ArrayList<>();
+        for (String identifier : identifiers) {
+            if (identifier.indexOf('@') >= 0) {
+                emails.add(identifier);
+            } else if (isPhoneNumber(identifier)) {
+                phones.add(identifier);
+            } else {
+                usernames.add(identifier);
+            }
+        }
+        Map<String, User> matches = new HashMap<>();
+        matchUsers(usernames, userRepository::findByUsernameIn, User::getUsername, matches);
+        matchUsers(emails, userRepository::findByEmailIn, User::getEmail, matches);
+        matchUsers(phones, userRepository::findByPhoneNumberIn, User::getPhoneNumber, matches);
+
+        Set<Long> existingContactIds = new HashSet<>();
+        Set<String> existingInvites = new HashSet<>();
+        for (ContactJdbcRepository.ContactKey key : contactJdbcRepository.findContactKeys(userId)) {
+            if (key.contactId() != null) {
+                existingContactIds.add(key.contactId());
+            } else if (key.identifier() != null) {
+                existingInvites.add(key.identifier().toLowerCase(Locale.ROOT));
+            }
+        }
+
+        Map<Long, User> newUsers = new LinkedHashMap<>();
+        List<String> newInvites = new ArrayList<>();
+        int alreadyPresent = 0;
+        for (String identifier : identifiers) {
+            User match = matches.get(identifier);
+            if (match != null) {
+                if (match.getId().equals(userId) || existingContactIds.contains(match.getId())
+                        || newUsers.containsKey(match.getId())) {
+                    alreadyPresent++;
+                } else {
+                    newUsers.put(match.getId(), match);
+                }
+            } else if (existingInvites.contains(identifier)) {
+                alreadyPresent++;
+            } else {
+                newInvites.add(identifier);
+            }
+        }
+
+        List<Contact> inserts = new ArrayList<>(newUsers.size() + newInvites.size());
+        newUsers.values().forEach(contactUser -> inserts.add(Contact.builder()
+                .user(user)
+                .contact(contactUser)
+                .invite(false)
+                .build()));
+        newInvites.forEach(identifier -> inserts.add(Contact.builder()
+                .user(user)
+                .invite(true)
+                .identifier(identifier)
+                .inviteEmail(identifier.indexOf('@') >= 0 ? identifier : null)
+                .build()));
+        if (!inserts.isEmpty()) {
+            contactJdbcRepository.batchInsert(inserts);
+            contactSearchIndex.invalidate(userId);
+        }
+        if (!newUsers.isEmpty()) {
+            resourceVersionService.conversationsChanged(userId);
+        }
+        redisTemplate.opsForValue().set(syncKey, bookHash, CONTACT_SYNC_HASH_TTL);
+        log.debug("ContactService.syncContacts userId={} added={} invited={} alreadyPresent={}",
+                userId, newUsers.size(), newInvites.size(), alreadyPresent);
+
+        return ContactSyncResponse.builder()
+                .unchanged(false)
+                .added(newUsers.values().stream()
+                        .map(contactUser -> UserDto.builder()
+                                .id(contactUser.getId())
+                                .username(contactUser.getUsername())
+                                .profilePictureUrl(contactUser.getProfilePictureUrl())
+                                .about(contactUser.getAbout())
+                                .build())
+                        .toList())
+                .invited(newInvites)
+                .alreadyPresent(alreadyPresent)
+                .build();
+    }
+
+    private void matchUsers(List<String> identifiers, Function<List<String>, List<User>> finder,
+                            Function<User, String> key, Map<String, User> matches) {
+        for (int i = 0; i < identifiers.size(); i += SYNC_QUERY_CHUNK) {
+            List<String> chunk = identifiers.subList(i, Math.min(i + SYNC_QUERY_CHUNK, identifiers.size()));
+            for (User user : finder.apply(chunk)) {
+                String value = key.apply(user);
+                if (value != null) {
+                    matches.putIfAbsent(normalizeIdentifier(value), user);
+                }
+            }
+        }
+    }
+
+    // Emails and usernames compare case-insensitively; phone numbers drop formatting characters
+    private static String normalizeIdentifier(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return null;
+        }
+        String value = raw.trim();
+        String compact = value.replaceAll("[\\s().-]", "");
+        if (isPhoneNumber(compact)) {
+            return compact;
+        }
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isPhoneNumber(String value) {
+        return value.matches("\\+?\\d{6,15}");
+    }
+
+    private static String hashIdentifiers(Set<String> identifiers) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String identifier : identifiers) {
+                digest.update(identifier.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Same projection as the contact listing: no entity graph, no per-row user selects
+    private List<ContactSearchIndex.Entry> loadSearchEntries(Long userId) {
+        return contactJdbcRepository.findSearchRows(userId).stream()
+                .map(ContactServiceImpl::toSearchEntry)
+                .toList();
+    }
+
+    private static ContactSearchIndex.Entry toSearchEntry(ContactJdbcRepository.ContactSearchRow row) {
+        ContactDto contact = row.contact();
+        UserDto contactUser = contact.getContact();
+        return new ContactSearchIndex.Entry(
+                contact,
+                Boolean.TRUE.equals(contact.getInvite()),
+                contactUser != null ? contactUser.getUsername() : contact.getInviteUsername(),
+                contact.getIdentifier(),
+                contactUser != null ? row.contactEmail() : contact.getInviteEmail(),
+                contact.getPhoneNumber());
+    }
+
+    private ContactSearchIndex.Entry toSearchEntry(Contact contact) {
+        User contactUser = contact.getContact();
+        return new ContactSearchIndex.Entry(
+                convertToDto(contact),
+                Boolean.TRUE.equals(contact.getInvite()),
+                contactUser != null ? contactUser.getUsername() : contact.getInviteUsername(),
+                contact.getIdentifier(),
+                contactUser != null ? contactUser.getEmail() : contact.getInviteEmail(),
+                contact.getPhoneNumber() != null ? contact.getPhoneNumber()
+                        : (contactUser != null ? contactUser.getPhoneNumber() : null));
+    }
+
     private ContactDto convertToDto(Contact contact) {
         UserDto contactUserDto = null;
         if (contact.getContact() != null) {
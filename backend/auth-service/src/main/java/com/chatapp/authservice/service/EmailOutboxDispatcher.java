@@ -0,0 +1,138 @@
+package com.chatapp.authservice.service;
+
+import com.chatapp.authservice.model.EmailOutbox;
+import com.chatapp.authservice.repository.EmailOutboxRepository;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drains the invite email outbox. Each tick claims at most one batch (which paces delivery
+ * to batch-size per interval), sends it over a single SMTP connection and reschedules
+ * failures with exponential backoff.
+ */
+@Component
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailService emailService;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long leaseMillis;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository, EmailService emailService,
+                                 JavaMailSender mailSender, TransactionTemplate transactionTemplate,
+                                 @Value("${mail.outbox.batch-size:20}") int batchSize,
+                                 @Value("${mail.outbox.max-attempts:5}") int maxAttempts,
+                                 @Value("${mail.outbox.backoff-ms:30000}") long backoffMillis,
+                                 @Value("${mail.outbox.lease-ms:300000}") long leaseMillis) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailService = emailService;
+        this.mailSender = mailSender;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.leaseMillis = leaseMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.interval-ms:1000}")
+    public void dispatch() {
+        List<EmailOutbox> batch = claimBatch();
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<MimeMessage, EmailOutbox> messages = new IdentityHashMap<>();
+        for (EmailOutbox outbox : batch) {
+            try {
+                messages.put(emailService.buildInviteMessage(outbox), outbox);
+            } catch (Exception e) {
+                markFailed(outbox, e);
+            }
+        }
+
+        Map<Object, Exception> failures = Collections.emptyMap();
+        if (!messages.isEmpty()) {
+            try {
+                mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                failures = e.getFailedMessages();
+                if (failures.isEmpty()) {
+                    // Connection-level failure: nothing in the batch went out
+                    failures = allFailed(messages, e);
+                }
+            } catch (MailException e) {
+                failures = allFailed(messages, e);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<MimeMessage, EmailOutbox> entry : messages.entrySet()) {
+            EmailOutbox outbox = entry.getValue();
+            Exception failure = failures.get(entry.getKey());
+            if (failure != null) {
+                markFailed(outbox, failure);
+            } else {
+                outbox.setStatus(EmailOutbox.Status.SENT);
+                outbox.setSentAt(now);
+                outbox.setLastError(null);
+            }
+        }
+        emailOutboxRepository.saveAll(batch);
+        log.info("EmailOutboxDispatcher.dispatch batch={} failed={}", batch.size(), failures.size());
+    }
+
+    // Claims due rows under SKIP LOCKED and leases them so concurrent instances don't double-send
+    private List<EmailOutbox> claimBatch() {
+        List<EmailOutbox> batch = transactionTemplate.execute(status -> {
+            List<EmailOutbox> due = emailOutboxRepository.lockDueBatch(LocalDateTime.now(), batchSize);
+            LocalDateTime leaseExpiry = LocalDateTime.now().plusNanos(leaseMillis * 1_000_000);
+            for (EmailOutbox outbox : due) {
+                outbox.setStatus(EmailOutbox.Status.SENDING);
+                outbox.setNextAttemptAt(leaseExpiry);
+            }
+            return emailOutboxRepository.saveAll(due);
+        });
+        return batch != null ? batch : new ArrayList<>();
+    }
+
+    private void markFailed(EmailOutbox outbox, Exception e) {
+        int attempts = outbox.getAttempts() + 1;
+        outbox.setAttempts(attempts);
+        outbox.setLastError(e.getMessage() != null && e.getMessage().length() > 255
+                ? e.getMessage().substring(0, 255) : e.getMessage());
+        if (attempts >= maxAttempts) {
+            outbox.setStatus(EmailOutbox.Status.FAILED);
+            log.error("Invite email to {} failed permanently after {} attempts: {}", outbox.getToEmail(), attempts, e.getMessage());
+        } else {
+            long delay = backoffMillis << Math.min(attempts - 1, 10);
+            outbox.setStatus(EmailOutbox.Status.PENDING);
+            outbox.setNextAttemptAt(LocalDateTime.now().plusNanos(delay * 1_000_000));
+            log.warn("Invite email to {} failed (attempt {}), retrying in {} ms: {}", outbox.getToEmail(), attempts, delay, e.getMessage());
+        }
+    }
+
+    private static Map<Object, Exception> allFailed(Map<MimeMessage, EmailOutbox> messages, Exception e) {
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        messages.keySet().forEach(message -> failures.put(message, e));
+        return failures;
+    }
+}
@@ -1,43 +1,30 @@
 package com.chatapp.authservice.service;
 
+import com.chatapp.authservice.model.EmailOutbox;
+import com.chatapp.authservice.repository.EmailOutboxRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
 
-import jakarta.mail.AuthenticationFailedException;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 
+import java.io.UnsupportedEncodingException;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.List;
+
 @Service
 public class EmailService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
-    private final JavaMailSender mailSender;
-    private final String fromEmail;
 
-    public EmailService(JavaMailSender mailSender, @Value("${spring.mail.username:}") String fromEmail) {
-        this.mailSender = mailSender;
-        this.fromEmail = fromEmail;
-    }
-
-    public void sendInviteEmail(String toEmail, String inviterUsername) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            helper.setTo(toEmail);
-            helper.setSubject("%s invited you to join ChatApp".formatted(inviterUsername != null ? inviterUsername : "A friend"));
-
-            // Use the configured email as From address (required by Gmail)
-            if (fromEmail != null && !fromEmail.isBlank()) {
-                helper.setFrom(fromEmail, "ChatApp Invites");
-            } else {
-                helper.setFrom("noreply@chatapp.local", "ChatApp Invites");
-            }
-
-            String html = ("""
+    // Split once at the placeholders (inviter, year) so rendering is plain concatenation
+    private static final String[] INVITE_TEMPLATE = ("""
                 <table role='presentation' width='100%%' cellspacing='0' cellpadding='0' border='0' style='background:#f5f7fb;padding:24px;'>
                   <tr>
                     <td align='center'>
@@ -95,25 +82,65 @@ public class EmailService {
                     </td>
                   </tr>
                 </table>
-            """).formatted(inviterUsername != null ? inviterUsername : "A friend", java.time.Year.now());
+            """).replace("%%", "%").split("%s", -1);
 
-            helper.setText(html, true);
-            logger.info("Attempting to send invite email to: {}", toEmail);
-            mailSender.send(message);
-            logger.info("Invite email sent successfully to: {}", toEmail);
-        } catch (AuthenticationFailedException e) {
-            logger.error("SMTP Authentication failed. Please check your email credentials in application.yml. " +
-                    "For Gmail, ensure you're using an App Password (not your regular password) if 2FA is enabled.", e);
-            throw new RuntimeException("Email authentication failed. Please check your SMTP credentials. " +
-                    "For Gmail with 2FA enabled, use an App Password. Error: " + e.getMessage(), e);
-        } catch (MessagingException e) {
-            logger.error("Failed to send invite email to: {}. Error: {}", toEmail, e.getMessage(), e);
-            throw new RuntimeException("Failed to send invite email: " + e.getMessage(), e);
-        } catch (Exception e) {
-            logger.error("Unexpected error sending invite email to: {}. Error: {}", toEmail, e.getMessage(), e);
-            throw new RuntimeException("Failed to send invite email: " + e.getMessage(), e);
+    private final JavaMailSender mailSender;
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final String fromEmail;
+    private final long dedupeHours;
+
+    public EmailService(JavaMailSender mailSender, EmailOutboxRepository emailOutboxRepository,
+                        @Value("${spring.mail.username:}") String fromEmail,
+                        @Value("${mail.outbox.dedupe-hours:24}") long dedupeHours) {
+        this.mailSender = mailSender;
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.fromEmail = fromEmail;
+        this.dedupeHours = dedupeHours;
+    }
+
+    /**
+     * Queues an invite for the outbox dispatcher. Returns false when an invite to the same
+     * address is already queued or was sent within the dedupe window.
+     */
+    public boolean queueInviteEmail(String toEmail, String inviterUsername) {
+        String normalized = toEmail.trim().toLowerCase();
+        LocalDateTime now = LocalDateTime.now();
+        if (emailOutboxRepository.existsByToEmailAndStatusIn(normalized,
+                List.of(EmailOutbox.Status.PENDING, EmailOutbox.Status.SENDING))
+                || emailOutboxRepository.existsByToEmailAndStatusAndSentAtAfter(normalized,
+                EmailOutbox.Status.SENT, now.minusHours(dedupeHours))) {
+            logger.info("Skipping duplicate invite email to: {}", normalized);
+            return false;
         }
+        emailOutboxRepository.save(EmailOutbox.builder()
+                .toEmail(normalized)
+                .inviterUsername(inviterUsername)
+                .status(EmailOutbox.Status.PENDING)
+                .attempts(0)
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build());
+        logger.info("Queued invite email to: {}", normalized);
+        return true;
     }
-}
 
+    public MimeMessage buildInviteMessage(EmailOutbox outbox) throws MessagingException, UnsupportedEncodingException {
+        String inviter = outbox.getInviterUsername() != null ? outbox.getInviterUsername() : "A friend";
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setTo(outbox.getToEmail());
+        helper.setSubject("%s invited you to join ChatApp".formatted(inviter));
+
+        // Use the configured email as From address (required by Gmail)
+        if (fromEmail != null && !fromEmail.isBlank()) {
+            helper.setFrom(fromEmail, "ChatApp Invites");
+        } else {
+            helper.setFrom("noreply@chatapp.local", "ChatApp Invites");
+        }
 
+        String html = INVITE_TEMPLATE[0] + HtmlUtils.htmlEscape(inviter) + INVITE_TEMPLATE[1]
+                + Year.now() + INVITE_TEMPLATE[2];
+        helper.setText(html, true);
+        return message;
+    }
+}
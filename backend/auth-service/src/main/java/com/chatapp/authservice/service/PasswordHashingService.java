@@ -0,0 +1,17 @@
+package com.chatapp.authservice.service;
+
+public interface PasswordHashingService {
+
+    String encode(String rawPassword);
+
+    boolean matches(String rawPassword, String encodedPassword);
+
+    boolean needsRehash(String encodedPassword);
+
+    /**
+     * Does the work of {@link #matches} against a fixed hash and returns false, so a login for an
+     * unknown username takes as long as one with a wrong password.
+     */
+    boolean matchesNoUser(String rawPassword);
+
+}
@@ -0,0 +1,14 @@
+package com.chatapp.authservice.service;
+
+public interface RefreshTokenService {
+
+    String createSession(Long userId);
+
+    RotatedToken rotate(String refreshToken);
+
+    Long revokeSession(String refreshToken);
+
+    record RotatedToken(Long userId, String refreshToken) {
+    }
+
+}
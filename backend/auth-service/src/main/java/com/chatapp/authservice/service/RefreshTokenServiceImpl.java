@@ -0,0 +1,127 @@
+package com.chatapp.authservice.service;
+
+import com.chatapp.authservice.exception.InvalidRefreshTokenException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Opaque refresh tokens stored in Redis by hash. Every login starts a token family;
+ * each refresh rotates the family to a new token. Presenting a token that is no longer
+ * the family's current one is treated as theft and revokes the whole family, except
+ * within a short grace window after its rotation: browser tabs share one refresh token
+ * and refresh at the same moment, so the losers of that race get the winner's token.
+ * Rotation is a Lua script, so concurrent refreshes cannot both rotate.
+ */
+@Service
+@Slf4j
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final String REFRESH_TOKEN_KEY_PREFIX = "refresh-token:";
+    private static final String REFRESH_FAMILY_KEY_PREFIX = "refresh-family:";
+    private static final String REFRESH_GRACE_KEY_PREFIX = "refresh-grace:";
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ROTATE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/refresh_rotate.lua"), List.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final Duration refreshTokenTtl;
+    private final long graceMillis;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public RefreshTokenServiceImpl(RedisTemplate<String, String> redisTemplate,
+                                   @Value("${jwt.refresh-token-ttl-days:14}") long refreshTokenTtlDays,
+                                   @Value("${jwt.refresh-grace-ms:10000}") long graceMillis) {
+        this.redisTemplate = redisTemplate;
+        this.refreshTokenTtl = Duration.ofDays(refreshTokenTtlDays);
+        this.graceMillis = graceMillis;
+    }
+
+    @Override
+    public String createSession(Long userId) {
+        String familyId = UUID.randomUUID().toString();
+        String refreshToken = issue(userId, familyId);
+        log.debug("RefreshTokenService.createSession userId={} familyId={}", userId, familyId);
+        return refreshToken;
+    }
+
+    @Override
+    public RotatedToken rotate(String refreshToken) {
+        String tokenHash = hash(refreshToken);
+        String[] session = lookup(tokenHash);
+        Long userId = Long.valueOf(session[0]);
+        String familyId = session[1];
+
+        String nextToken = newToken();
+        String nextHash = hash(nextToken);
+        @SuppressWarnings("unchecked")
+        List<String> result = redisTemplate.execute(ROTATE_SCRIPT,
+                List.of(REFRESH_FAMILY_KEY_PREFIX + familyId, REFRESH_TOKEN_KEY_PREFIX + nextHash,
+                        REFRESH_GRACE_KEY_PREFIX + tokenHash),
+                tokenHash, nextHash, nextToken, userId + ":" + familyId,
+                String.valueOf(refreshTokenTtl.toMillis()), String.valueOf(graceMillis));
+        if (result == null || result.size() < 2) {
+            log.warn("RefreshTokenService.rotate reuse detected userId={} familyId={}", userId, familyId);
+            throw new InvalidRefreshTokenException("Refresh token has been revoked");
+        }
+        if ("grace".equals(result.get(0))) {
+            log.debug("RefreshTokenService.rotate concurrent refresh userId={} familyId={}", userId, familyId);
+        }
+        return new RotatedToken(userId, result.get(1));
+    }
+
+    @Override
+    public Long revokeSession(String refreshToken) {
+        String tokenHash = hash(refreshToken);
+        String[] session = lookup(tokenHash);
+        redisTemplate.delete(REFRESH_FAMILY_KEY_PREFIX + session[1]);
+        redisTemplate.delete(REFRESH_TOKEN_KEY_PREFIX + tokenHash);
+        log.debug("RefreshTokenService.revokeSession userId={} familyId={}", session[0], session[1]);
+        return Long.valueOf(session[0]);
+    }
+
+    private String issue(Long userId, String familyId) {
+        String refreshToken = newToken();
+        String tokenHash = hash(refreshToken);
+        // Rotated tokens stay resolvable until they expire so replays can be traced to their family
+        redisTemplate.opsForValue().set(REFRESH_TOKEN_KEY_PREFIX + tokenHash, userId + ":" + familyId, refreshTokenTtl);
+        redisTemplate.opsForValue().set(REFRESH_FAMILY_KEY_PREFIX + familyId, tokenHash, refreshTokenTtl);
+        return refreshToken;
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private String[] lookup(String tokenHash) {
+        String value = redisTemplate.opsForValue().get(REFRESH_TOKEN_KEY_PREFIX + tokenHash);
+        if (value == null) {
+            throw new InvalidRefreshTokenException("Refresh token is invalid or expired");
+        }
+        return value.split(":", 2);
+    }
+
+    private String hash(String refreshToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(refreshToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
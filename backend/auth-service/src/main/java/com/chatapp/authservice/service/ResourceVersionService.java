@@ -0,0 +1,18 @@
+package com.chatapp.authservice.service;
+
+import java.util.Collection;
+
+/**
+ * Version counters behind ETags, shared with chat-service through Redis. Auth bumps the ones its
+ * writes invalidate: profiles, and the conversation lists that show contacts' profiles.
+ */
+public interface ResourceVersionService {
+
+    /** ETag for the user's own profile, or null when no ETag can be given. */
+    String profileETag(Long userId);
+
+    void profileChanged(Long userId, Collection<Long> audienceUserIds);
+
+    void conversationsChanged(Long userId);
+
+}
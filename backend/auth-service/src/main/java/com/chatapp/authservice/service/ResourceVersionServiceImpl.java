@@ -0,0 +1,109 @@
+package com.chatapp.authservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Same key layout as chat-service's ResourceVersionServiceImpl: an ETag is
+ * {@code "<resource>-<epoch>-<version>"}, and the epoch only changes if Redis loses its data.
+ * Counters are bumped after the write commits.
+ * {@code resource-version.replica-guard-ms} should match chat-service's replica lag bound when it
+ * reads from replicas; resources bumped within it are served without an ETag.
+ */
+@Service
+@Slf4j
+public class ResourceVersionServiceImpl implements ResourceVersionService {
+
+    private static final String EPOCH_KEY = "resource-version:epoch";
+    private static final String PROFILE_KEY_PREFIX = "resource-version:profile:";
+    private static final String CONVERSATIONS_KEY_PREFIX = "resource-version:conversations:";
+    private static final String CHANGED_AT_SUFFIX = ":changed";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final long replicaGuardMs;
+
+    public ResourceVersionServiceImpl(RedisTemplate<String, String> redisTemplate,
+                                      @Value("${resource-version.replica-guard-ms:0}") long replicaGuardMs) {
+        this.redisTemplate = redisTemplate;
+        this.replicaGuardMs = replicaGuardMs;
+    }
+
+    @Override
+    public String profileETag(Long userId) {
+        String key = PROFILE_KEY_PREFIX + userId;
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(List.of(EPOCH_KEY, key));
+            if (values == null) {
+                return null;
+            }
+            String epoch = values.get(0);
+            if (epoch == null) {
+                redisTemplate.opsForValue().setIfAbsent(EPOCH_KEY, Long.toString(System.currentTimeMillis()));
+                epoch = redisTemplate.opsForValue().get(EPOCH_KEY);
+            }
+            String version = values.get(1) != null ? values.get(1) : "0";
+            return "\"profile-" + userId + "-" + epoch + "-" + version + "\"";
+        } catch (RuntimeException e) {
+            log.warn("ResourceVersionService.profileETag userId={} failed: {}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void profileChanged(Long userId, Collection<Long> audienceUserIds) {
+        List<String> keys = new ArrayList<>(audienceUserIds.size() + 1);
+        keys.add(PROFILE_KEY_PREFIX + userId);
+        audienceUserIds.forEach(id -> keys.add(CONVERSATIONS_KEY_PREFIX + id));
+        afterCommit(keys);
+    }
+
+    @Override
+    public void conversationsChanged(Long userId) {
+        afterCommit(List.of(CONVERSATIONS_KEY_PREFIX + userId));
+    }
+
+    private void afterCommit(List<String> keys) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(keys);
+                }
+            });
+        } else {
+            increment(keys);
+        }
+    }
+
+    private void increment(List<String> keys) {
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                keys.forEach(key -> bump(connection, key));
+                return null;
+            });
+            log.trace("ResourceVersionService.increment keys={}", keys.size());
+        } catch (RuntimeException e) {
+            log.error("ResourceVersionService.increment failed keys={}: {}", keys.size(), e.getMessage());
+        }
+    }
+
+    private void bump(RedisConnection connection, String key) {
+        connection.stringCommands().incr(key.getBytes(StandardCharsets.UTF_8));
+        // The profile itself is read from the primary; only chat-service's reads need the guard
+        if (replicaGuardMs > 0 && !key.startsWith(PROFILE_KEY_PREFIX)) {
+            connection.stringCommands().pSetEx((key + CHANGED_AT_SUFFIX).getBytes(StandardCharsets.UTF_8),
+                    replicaGuardMs, new byte[]{'1'});
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.chatapp.authservice.service;
+
+public interface TokenVersionService {
+
+    long getTokenVersion(Long userId);
+
+    long revokeTokens(Long userId);
+
+}
@@ -0,0 +1,115 @@
+package com.chatapp.authservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user token version counter. Tokens carry the version they were issued with;
+ * bumping the counter invalidates every token issued before it. The counter lives
+ * in Redis and is cached locally for a short TTL so the request path stays in memory.
+ * Revocations are also recorded in a small hash and published so the gateway can
+ * reject revoked access tokens without calling back into this service. Every auth-service instance
+ * also listens on that channel and drops its cached version, so a revocation made on one instance
+ * is seen by the others right away instead of after the cache TTL. A revocation is dropped
+ * from the hash once the access-token TTL has passed, as no token it rejects can still be valid.
+ * Expired cache entries are swept periodically, so the cache holds only recently active users.
+ */
+@Service
+@Slf4j
+public class TokenVersionServiceImpl implements TokenVersionService {
+
+    private static final String TOKEN_VERSION_KEY_PREFIX = "token-version:";
+    private static final String TOKEN_REVOCATIONS_KEY = "token-revocations";
+    private static final RedisScript<Long> PRUNE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/revocations_prune.lua"), Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final long cacheTtlMillis;
+    private final long accessTokenTtlMillis;
+    private final Map<Long, CachedVersion> cache = new ConcurrentHashMap<>();
+
+    public TokenVersionServiceImpl(RedisTemplate<String, String> redisTemplate,
+                                   RedisMessageListenerContainer listenerContainer,
+                                   @Value("${jwt.version-cache-ttl-ms:30000}") long cacheTtlMillis,
+                                   @Value("${jwt.access-token-ttl-ms:900000}") long accessTokenTtlMillis) {
+        this.redisTemplate = redisTemplate;
+        this.cacheTtlMillis = cacheTtlMillis;
+        this.accessTokenTtlMillis = accessTokenTtlMillis;
+        listenerContainer.addMessageListener((message, pattern) ->
+                onRevocation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(TOKEN_REVOCATIONS_KEY));
+    }
+
+    @Override
+    public long getTokenVersion(Long userId) {
+        long now = System.currentTimeMillis();
+        CachedVersion cached = cache.get(userId);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.version;
+        }
+        String value = redisTemplate.opsForValue().get(TOKEN_VERSION_KEY_PREFIX + userId);
+        long version = value != null ? Long.parseLong(value) : 0L;
+        cache.put(userId, new CachedVersion(version, now + cacheTtlMillis));
+        return version;
+    }
+
+    @Override
+    public long revokeTokens(Long userId) {
+        Long version = redisTemplate.opsForValue().increment(TOKEN_VERSION_KEY_PREFIX + userId);
+        cache.remove(userId);
+        String revocation = version + ":" + System.currentTimeMillis();
+        redisTemplate.opsForHash().put(TOKEN_REVOCATIONS_KEY, String.valueOf(userId), revocation);
+        redisTemplate.convertAndSend(TOKEN_REVOCATIONS_KEY, userId + ":" + revocation);
+        log.info("TokenVersionService.revokeTokens userId={} version={}", userId, version);
+        return version != null ? version : 0L;
+    }
+
+    // Entries are only replaced on lookup, so drop expired ones or every user ever seen stays cached
+    @Scheduled(fixedDelayString = "${jwt.version-cache-sweep-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        int before = cache.size();
+        // entrySet().removeIf removes an entry only if it still maps to the expired value
+        cache.entrySet().removeIf(entry -> entry.getValue().expiresAt <= now);
+        log.debug("TokenVersionService.evictExpired removed={}", before - cache.size());
+    }
+
+    // Conditional delete in one script, so a revocation recorded meanwhile is never removed
+    @Scheduled(fixedDelayString = "${jwt.revocation-prune-ms:60000}")
+    public void pruneRevocations() {
+        long cutoff = System.currentTimeMillis() - accessTokenTtlMillis;
+        Long removed = redisTemplate.execute(PRUNE_SCRIPT, List.of(TOKEN_REVOCATIONS_KEY), String.valueOf(cutoff));
+        if (removed != null && removed > 0) {
+            log.debug("TokenVersionService.pruneRevocations removed={}", removed);
+        }
+    }
+
+    // Payload is "<userId>:<version>:<revokedAtMillis>", as published by revokeTokens
+    private void onRevocation(String payload) {
+        int separator = payload.indexOf(':');
+        try {
+            Long userId = Long.valueOf(separator > 0 ? payload.substring(0, separator) : payload);
+            cache.remove(userId);
+            log.debug("TokenVersionService.onRevocation evicted userId={}", userId);
+        } catch (NumberFormatException e) {
+            // Drop the whole cache rather than keep a possibly revoked version around
+            cache.clear();
+            log.warn("TokenVersionService.onRevocation unparseable payload={}", payload);
+        }
+    }
+
+    private record CachedVersion(long version, long expiresAt) {
+    }
+}
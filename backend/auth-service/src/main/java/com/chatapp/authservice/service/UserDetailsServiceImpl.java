@@ -1,29 +0,0 @@
-package com.chatapp.authservice.service;
-
-import com.chatapp.authservice.model.User;
-import com.chatapp.authservice.repository.UserRepository;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.stereotype.Service;
-import lombok.extern.slf4j.Slf4j;
-
-@Service
-@Slf4j
-public class UserDetailsServiceImpl implements UserDetailsService {
-
-    private final UserRepository userRepository;
-
-    public UserDetailsServiceImpl(UserRepository userRepository) {
-        this.userRepository = userRepository;
-    }
-
-    @Override
-    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        log.debug("UserDetailsService.loadUserByUsername {}", username);
-        com.chatapp.authservice.model.User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        return UserDetailsImpl.build(user);
-    }
-}
@@ -19,25 +19,33 @@ public class JwtUtil {
     @Value("${jwt.secret}")
     private String secret;
 
+    @Value("${jwt.access-token-ttl-ms:900000}")
+    private long accessTokenTtlMillis;
+
     private Key getKey() {
         byte[] keyBytes = secret.getBytes();
         return Keys.hmacShaKeyFor(keyBytes);
     }
 
-    public String generateToken(User user) {
+    public String generateToken(User user, long tokenVersion) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("id", user.getId());
         claims.put("role", user.getRole());
+        claims.put("ver", tokenVersion);
 
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(user.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10))
+                .setExpiration(new Date(System.currentTimeMillis() + accessTokenTtlMillis))
                 .signWith(getKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    public long getAccessTokenTtlMillis() {
+        return accessTokenTtlMillis;
+    }
+
     public boolean validateJwtToken(String authToken) {
         try {
             Jwts.parserBuilder().setSigningKey(getKey()).build().parseClaimsJws(authToken);
@@ -47,6 +55,10 @@ public class JwtUtil {
         }
     }
 
+    public Claims parseClaims(String token) {
+        return Jwts.parserBuilder().setSigningKey(getKey()).build().parseClaimsJws(token).getBody();
+    }
+
     public String getUserNameFromJwtToken(String token) {
         return Jwts.parserBuilder().setSigningKey(getKey()).build().parseClaimsJws(token).getBody().getSubject();
     }
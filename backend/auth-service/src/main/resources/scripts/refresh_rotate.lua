@@ -0,0 +1,28 @@
+-- Rotates a refresh-token family in one step.
+-- KEYS: family key, token key of the new token, grace key of the presented token.
+-- ARGV: presented hash, new hash, new token, "<userId>:<familyId>", token TTL millis, grace millis.
+-- Returns {'rotated', new token}, {'grace', current token} or {'reuse'}.
+local current = redis.call('GET', KEYS[1])
+
+if current == ARGV[1] then
+  redis.call('SET', KEYS[2], ARGV[4], 'PX', ARGV[5])
+  redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[5])
+  -- Lets another tab that raced with this rotation pick up its result instead of tripping reuse
+  redis.call('SET', KEYS[3], ARGV[2] .. ':' .. ARGV[3], 'PX', ARGV[6])
+  return {'rotated', ARGV[3]}
+end
+
+if current then
+  local successor = redis.call('GET', KEYS[3])
+  if successor then
+    local separator = string.find(successor, ':', 1, true)
+    -- Only while that successor is still the family's current token
+    if string.sub(successor, 1, separator - 1) == current then
+      return {'grace', string.sub(successor, separator + 1)}
+    end
+  end
+end
+
+-- Revoked family, or an already-rotated token replayed outside the grace window
+redis.call('DEL', KEYS[1])
+return {'reuse'}
@@ -0,0 +1,13 @@
+-- Removes revocations older than ARGV[1] (epoch millis) from the hash in KEYS[1].
+-- Values are "<version>:<revokedAtMillis>". Returns the number of entries removed.
+local entries = redis.call('HGETALL', KEYS[1])
+local cutoff = tonumber(ARGV[1])
+local removed = 0
+for i = 1, #entries, 2 do
+  local revoked_at = tonumber(string.match(entries[i + 1], ':(%d+)$'))
+  if revoked_at and revoked_at < cutoff then
+    redis.call('HDEL', KEYS[1], entries[i])
+    removed = removed + 1
+  end
+end
+return removed
@@ -0,0 +1,201 @@
+package com.chatapp.authservice.repository;
+
+import com.chatapp.authservice.dto.ContactDto;
+import com.chatapp.authservice.model.Contact;
+import com.chatapp.authservice.model.Role;
+import com.chatapp.authservice.model.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query-count regression test for contact listing: the entity path issues one select per contact
+ * user, the JDBC projection must stay at one page query plus one count whatever the page size.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import(ContactListingQueryCountTest.CountingConfig.class)
+class ContactListingQueryCountTest {
+
+    private static final int CONTACTS = 25;
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private ContactJdbcRepository contactJdbcRepository;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    private Statistics statistics;
+    private Long ownerId;
+
+    @BeforeEach
+    void setUp() {
+        User owner = entityManager.persist(user("owner"));
+        for (int i = 0; i < CONTACTS; i++) {
+            User contactUser = entityManager.persist(user("contact" + i));
+            entityManager.persist(Contact.builder().user(owner).contact(contactUser).invite(false).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        ownerId = owner.getId();
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void entityPathSelectsEveryContactUserSeparately() {
+        statistics.clear();
+
+        Page<Contact> page = contactRepository.findByUserId(ownerId, PageRequest.of(0, PAGE_SIZE));
+        page.forEach(contact -> contact.getContact().getUsername());
+
+        // Baseline the JDBC path is measured against: grows with the page size
+        assertThat(statistics.getPrepareStatementCount()).isGreaterThan(PAGE_SIZE);
+    }
+
+    @Test
+    void jdbcPathIsOnePageQueryPlusCount() {
+        for (int pageSize : new int[]{5, PAGE_SIZE}) {
+            statistics.clear();
+            statementCounter.reset();
+
+            Page<ContactDto> page = contactJdbcRepository.findContactPage(ownerId, null, PageRequest.of(0, pageSize));
+
+            assertThat(page.getContent()).hasSize(pageSize);
+            assertThat(page.getTotalElements()).isEqualTo(CONTACTS);
+            assertThat(page.getContent()).allSatisfy(contact -> assertThat(contact.getContact().getUsername()).startsWith("contact"));
+            assertThat(statementCounter.count()).as("statements for page size %d", pageSize).isEqualTo(2);
+            assertThat(statistics.getEntityLoadCount()).isZero();
+        }
+    }
+
+    @Test
+    void lastPageSkipsTheCountQuery() {
+        statementCounter.reset();
+
+        Page<ContactDto> page = contactJdbcRepository.findContactPage(ownerId, null, PageRequest.of(1, PAGE_SIZE));
+
+        assertThat(page.getContent()).hasSize(CONTACTS - PAGE_SIZE);
+        assertThat(page.getTotalElements()).isEqualTo(CONTACTS);
+        assertThat(statementCounter.count()).isEqualTo(1);
+    }
+
+    @Test
+    void searchRowsAreOneQueryWithContactEmails() {
+        statementCounter.reset();
+
+        List<ContactJdbcRepository.ContactSearchRow> rows = contactJdbcRepository.findSearchRows(ownerId);
+
+        assertThat(rows).hasSize(CONTACTS);
+        assertThat(rows).allSatisfy(row -> assertThat(row.contactEmail())
+                .isEqualTo(row.contact().getContact().getUsername() + "@example.com"));
+        assertThat(statementCounter.count()).isEqualTo(1);
+    }
+
+    private static User user(String username) {
+        return User.builder().username(username).email(username + "@example.com").password("x").role(Role.USER).build();
+    }
+
+    static final class StatementCounter {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        void reset() {
+            count.set(0);
+        }
+
+        int count() {
+            return count.get();
+        }
+    }
+
+    @TestConfiguration
+    static class CountingConfig {
+
+        @Bean
+        StatementCounter statementCounter() {
+            return new StatementCounter();
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+
+        @Bean
+        ContactJdbcRepository contactJdbcRepository(JdbcTemplate jdbcTemplate) {
+            return new ContactJdbcRepository(jdbcTemplate);
+        }
+
+        // Counts every statement prepared on the test DataSource, whether by Hibernate or JdbcTemplate
+        @Bean
+        static BeanPostProcessor countingDataSourcePostProcessor(ObjectProvider<StatementCounter> counter) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource)) {
+                        return bean;
+                    }
+                    return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                        Object result = method.invoke(target, args);
+                        if (result instanceof Connection connection) {
+                            return proxy(Connection.class, connection, (conn, connMethod, connArgs) -> {
+                                if (connMethod.getName().startsWith("prepare") || connMethod.getName().equals("createStatement")) {
+                                    counter.getObject().count.incrementAndGet();
+                                }
+                                return connMethod.invoke(conn, connArgs);
+                            });
+                        }
+                        return result;
+                    });
+                }
+            };
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, Handler<T> handler) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+                try {
+                    return handler.invoke(target, method, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        }
+
+        private interface Handler<T> {
+            Object invoke(T target, Method method, Object[] args) throws Throwable;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.chatapp.authservice.service;
+
+import com.chatapp.authservice.dto.AuthRequest;
+import com.chatapp.authservice.exception.ServiceBusyException;
+import com.chatapp.authservice.model.Role;
+import com.chatapp.authservice.model.User;
+import com.chatapp.authservice.repository.ContactJdbcRepository;
+import com.chatapp.authservice.repository.GroupMembershipJdbcRepository;
+import com.chatapp.authservice.repository.UserRepository;
+import com.chatapp.authservice.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Login storm against the real BCrypt hashing pool: logins beyond what the pool and its queue
+ * hold must be shed with a fast ServiceBusyException (503) instead of parking every caller behind
+ * CPU-bound hashing.
+ */
+class LoginStormTest {
+
+    // Cost 12 makes one hash take long enough (~250 ms) to tell rejections and hashing apart
+    private static final int BCRYPT_COST = 12;
+    private static final int HASH_THREADS = 2;
+    private static final int QUEUE_CAPACITY = 4;
+    private static final int CONCURRENT_LOGINS = 64;
+
+    private PasswordHashingServiceImpl hashingService;
+    private UserRepository userRepository;
+    private AuthServiceImpl authService;
+
+    @BeforeEach
+    void setUp() {
+        PasswordEncoder encoder = new BCryptPasswordEncoder(BCRYPT_COST);
+        hashingService = new PasswordHashingServiceImpl(encoder, HASH_THREADS, QUEUE_CAPACITY, 60_000);
+        User user = User.builder().id(1L).username("alice").password(encoder.encode("secret")).role(Role.USER).build();
+
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+        when(userRepository.findByUsername("nobody")).thenReturn(Optional.empty());
+        JwtUtil jwtUtil = mock(JwtUtil.class);
+        when(jwtUtil.generateToken(any(User.class), anyLong())).thenReturn("access-token");
+        RefreshTokenService refreshTokenService = mock(RefreshTokenService.class);
+        when(refreshTokenService.createSession(anyLong())).thenReturn("refresh-token");
+
+        authService = new AuthServiceImpl(userRepository, hashingService, jwtUtil, mock(TokenVersionService.class),
+                refreshTokenService, mock(ResourceVersionService.class), mock(ContactJdbcRepository.class),
+                mock(GroupMembershipJdbcRepository.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        hashingService.shutdown();
+    }
+
+    @Test
+    void stormBeyondPoolAndQueueIsRejectedFast() throws Exception {
+        authService.login(request("alice", "secret"));
+        long singleLoginNanos = timeNanos(() -> authService.login(request("alice", "secret")));
+
+        ExecutorService callers = Executors.newFixedThreadPool(CONCURRENT_LOGINS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Outcome>> outcomes = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_LOGINS; i++) {
+            outcomes.add(callers.submit(() -> {
+                start.await();
+                long begin = System.nanoTime();
+                try {
+                    authService.login(request("alice", "secret"));
+                    return new Outcome(true, System.nanoTime() - begin);
+                } catch (ServiceBusyException e) {
+                    return new Outcome(false, System.nanoTime() - begin);
+                }
+            }));
+        }
+        start.countDown();
+
+        int accepted = 0;
+        long slowestRejection = 0;
+        for (Future<Outcome> future : outcomes) {
+            Outcome outcome = future.get(2, TimeUnit.MINUTES);
+            if (outcome.accepted()) {
+                accepted++;
+            } else {
+                slowestRejection = Math.max(slowestRejection, outcome.nanos());
+            }
+        }
+        callers.shutdown();
+
+        assertThat(accepted).isGreaterThanOrEqualTo(HASH_THREADS);
+        assertThat(CONCURRENT_LOGINS - accepted).as("rejected logins").isPositive();
+        assertThat(slowestRejection).as("slowest rejection vs one login").isLessThan(singleLoginNanos);
+    }
+
+    @Test
+    void loginLoadsTheUserOnce() {
+        authService.login(request("alice", "secret"));
+
+        verify(userRepository, times(1)).findByUsername("alice");
+    }
+
+    @Test
+    void unknownUsernameTakesAsLongAsWrongPassword() {
+        authService.login(request("alice", "secret"));
+
+        long wrongPassword = medianNanos(() -> assertThrows(BadCredentialsException.class,
+                () -> authService.login(request("alice", "wrong"))));
+        long unknownUser = medianNanos(() -> assertThrows(BadCredentialsException.class,
+                () -> authService.login(request("nobody", "wrong"))));
+
+        // Without the dummy comparison an unknown user answers in microseconds
+        assertThat(unknownUser).isGreaterThan(wrongPassword / 2);
+    }
+
+    private static AuthRequest request(String username, String password) {
+        return AuthRequest.builder().username(username).password(password).build();
+    }
+
+    private static long timeNanos(Runnable action) {
+        long begin = System.nanoTime();
+        action.run();
+        return System.nanoTime() - begin;
+    }
+
+    private static long medianNanos(Runnable action) {
+        long[] samples = new long[5];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = timeNanos(action);
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2];
+    }
+
+    private record Outcome(boolean accepted, long nanos) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.chatapp.chatservice.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis key building in WebSocketEventListener; a connect builds two keys and a disconnect up
+ * to four, all from the same username and session id.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PresenceKeyBenchmark {
+
+    private String username = "alice.wonderland";
+    private String sessionId = "k3j2h4g5-1a2b-3c4d-5e6f-7a8b9c0d1e2f";
+
+    @Benchmark
+    public void connectKeys(Blackhole blackhole) {
+        blackhole.consume(WebSocketEventListener.sessionUserKey(sessionId));
+        blackhole.consume(WebSocketEventListener.userSessionKey(username));
+        blackhole.consume(WebSocketEventListener.lastSeenKey(username));
+    }
+
+    @Benchmark
+    public void disconnectKeys(Blackhole blackhole) {
+        blackhole.consume(WebSocketEventListener.sessionUserKey(sessionId));
+        blackhole.consume(WebSocketEventListener.userSessionKey(username));
+        blackhole.consume(WebSocketEventListener.userSessionKey(username));
+        blackhole.consume(WebSocketEventListener.lastSeenKey(username));
+        blackhole.consume(WebSocketEventListener.userSessionKey(username));
+    }
+}
@@ -0,0 +1,83 @@
+package com.chatapp.chatservice.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.DefaultSubscriptionRegistry;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MultiValueMap;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Subscription lookup in the simple broker's DefaultSubscriptionRegistry, with the destinations
+ * the frontend subscribes to: per-group topics, typing topics and the user reply/read queues.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StompDestinationBenchmark {
+
+    @Param({"100", "10000"})
+    public int sessions;
+
+    private DefaultSubscriptionRegistry registry;
+    private Message<byte[]> groupMessage;
+    private Message<byte[]> userMessage;
+
+    @Setup
+    public void setUp() {
+        registry = new DefaultSubscriptionRegistry();
+        for (int i = 0; i < sessions; i++) {
+            String sessionId = "session-" + i;
+            // Every user sits in a handful of groups; groups are shared between users
+            for (int g = 0; g < 5; g++) {
+                long groupId = (i * 7L + g) % Math.max(1, sessions / 4);
+                registry.registerSubscription(subscribe(sessionId, "group-" + g, "/topic/" + groupId));
+                registry.registerSubscription(subscribe(sessionId, "typing-" + g, "/topic/" + groupId + "/typing"));
+            }
+            registry.registerSubscription(subscribe(sessionId, "reply", "/queue/reply-user" + sessionId));
+            registry.registerSubscription(subscribe(sessionId, "read", "/queue/read-user" + sessionId));
+        }
+        groupMessage = message("/topic/3");
+        userMessage = message("/queue/reply-user" + "session-" + (sessions / 2));
+    }
+
+    @Benchmark
+    public MultiValueMap<String, String> groupTopic() {
+        return registry.findSubscriptions(groupMessage);
+    }
+
+    @Benchmark
+    public MultiValueMap<String, String> userQueue() {
+        return registry.findSubscriptions(userMessage);
+    }
+
+    private static Message<byte[]> subscribe(String sessionId, String subscriptionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<byte[]> message(String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,95 @@
+package com.chatapp.chatservice.kafka;
+
+import com.chatapp.chatservice.dto.MessageDto;
+import com.chatapp.chatservice.dto.ReadReceipt;
+import com.chatapp.chatservice.dto.UserDto;
+import com.chatapp.chatservice.model.MessageStatus;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MessageDto / ReadReceipt through the JsonSerializer and JsonDeserializer as application.yml
+ * configures them: no-arg instances (Spring Kafka's enhanced ObjectMapper), type info in headers
+ * and trusted packages restricted to the dto package.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class KafkaJsonBenchmark {
+
+    private JsonSerializer<Object> serializer;
+    private JsonDeserializer<Object> deserializer;
+    private MessageDto message;
+    private ReadReceipt receipt;
+    private byte[] messageBytes;
+    private RecordHeaders messageHeaders;
+    private byte[] receiptBytes;
+    private RecordHeaders receiptHeaders;
+
+    @Setup
+    public void setUp() {
+        serializer = new JsonSerializer<>();
+        deserializer = new JsonDeserializer<>();
+        deserializer.configure(Map.of(JsonDeserializer.TRUSTED_PACKAGES, "com.chatapp.chatservice.dto"), false);
+
+        message = MessageDto.builder()
+                .id(58_012_345_678_912L)
+                .sender(UserDto.builder().id(1L).username("alice").build())
+                .receiver(UserDto.builder().id(2L).username("bob").build())
+                .content("Hey, are we still on for lunch tomorrow?")
+                .timestamp(LocalDateTime.now())
+                .status(MessageStatus.Status.DELIVERED)
+                .build();
+        receipt = ReadReceipt.builder().messageId(58_012_345_678_912L).sender("alice").receiver("bob").build();
+
+        messageHeaders = new RecordHeaders();
+        messageBytes = serializer.serialize(KafkaTopicConfig.MESSAGES_TOPIC, messageHeaders, message);
+        receiptHeaders = new RecordHeaders();
+        receiptBytes = serializer.serialize(KafkaTopicConfig.READ_RECEIPTS_TOPIC, receiptHeaders, receipt);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serializeMessage() {
+        return serializer.serialize(KafkaTopicConfig.MESSAGES_TOPIC, new RecordHeaders(), message);
+    }
+
+    @Benchmark
+    public Object deserializeMessage() {
+        return deserializer.deserialize(KafkaTopicConfig.MESSAGES_TOPIC, messageHeaders, messageBytes);
+    }
+
+    @Benchmark
+    public byte[] serializeReadReceipt() {
+        return serializer.serialize(KafkaTopicConfig.READ_RECEIPTS_TOPIC, new RecordHeaders(), receipt);
+    }
+
+    @Benchmark
+    public Object deserializeReadReceipt() {
+        return deserializer.deserialize(KafkaTopicConfig.READ_RECEIPTS_TOPIC, receiptHeaders, receiptBytes);
+    }
+}
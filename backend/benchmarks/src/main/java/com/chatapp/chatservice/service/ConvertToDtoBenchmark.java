@@ -0,0 +1,73 @@
+package com.chatapp.chatservice.service;
+
+import com.chatapp.chatservice.dao.UserDao;
+import com.chatapp.chatservice.dto.MessageDto;
+import com.chatapp.chatservice.model.Message;
+import com.chatapp.chatservice.model.MessageStatus;
+import com.chatapp.chatservice.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MessageServiceImpl.convertToDto with an in-memory UserDao, so the numbers cover the mapping
+ * and allocation cost rather than the JDBC lookups it makes in production.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConvertToDtoBenchmark {
+
+    private MessageServiceImpl service;
+    private Message privateMessage;
+    private Message groupMessage;
+
+    @Setup
+    public void setUp() {
+        Map<Long, User> users = Map.of(
+                1L, User.builder().id(1L).username("alice").build(),
+                2L, User.builder().id(2L).username("bob").build());
+        UserDao userDao = (UserDao) Proxy.newProxyInstance(UserDao.class.getClassLoader(), new Class<?>[]{UserDao.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findById")) {
+                        return Optional.ofNullable(users.get((Long) args[0]));
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        service = new MessageServiceImpl(null, null, userDao, null, null, null, null, null, null, null, null,
+                null, null, null, null, "direct", 5000);
+
+        privateMessage = Message.builder().id(1L).senderId(1L).receiverId(2L)
+                .content("Hey, are we still on for lunch tomorrow?")
+                .timestamp(LocalDateTime.now()).status(MessageStatus.Status.DELIVERED).build();
+        groupMessage = Message.builder().id(2L).senderId(1L).groupId(10L)
+                .content("Standup moved to 10:30")
+                .timestamp(LocalDateTime.now()).status(MessageStatus.Status.DELIVERED).build();
+    }
+
+    @Benchmark
+    public MessageDto privateMessage() {
+        return service.convertToDto(privateMessage);
+    }
+
+    @Benchmark
+    public MessageDto groupMessage() {
+        return service.convertToDto(groupMessage);
+    }
+}
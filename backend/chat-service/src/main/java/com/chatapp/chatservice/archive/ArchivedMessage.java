@@ -0,0 +1,13 @@
+package com.chatapp.chatservice.archive;
+
+import com.chatapp.chatservice.model.Message;
+import com.chatapp.chatservice.model.MessageStatus;
+
+import java.util.List;
+
+/**
+ * An archived message together with its group delivery/read receipts as they stood when it was
+ * archived. Private messages carry their status on the message and have no receipts.
+ */
+public record ArchivedMessage(Message message, List<MessageStatus> receipts) {
+}
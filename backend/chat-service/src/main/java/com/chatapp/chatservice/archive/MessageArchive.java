@@ -0,0 +1,384 @@
+package com.chatapp.chatservice.archive;
+
+import com.chatapp.chatservice.model.Message;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Catalog and reader for archived (cold) messages. Each conversation owns a directory of
+ * immutable {@link MessageSegment}s; the catalog is rebuilt from file names at startup and
+ * re-scanned periodically so instances sharing the archive directory see each other's segments.
+ * A new segment is announced on {@link #CHANGED_CHANNEL} before its rows are deleted, and a
+ * conversation whose directory changed since its last scan is re-scanned on read, so history
+ * never loses messages between the delete and the next periodic refresh.
+ * <p>
+ * The archiver {@link #compact compacts} runs of small adjacent segments into one. The merged
+ * file is written before the old ones are deleted, so a listing may briefly show both; segments
+ * whose id range lies inside another segment's are left out of the catalog.
+ */
+@Component
+@Slf4j
+public class MessageArchive {
+
+    static final String CHANGED_CHANNEL = "message-archive-changed";
+
+    private final Path root;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final long idleReleaseNanos;
+
+    // conversation key -> segments, id ascending; lists are replaced, never mutated
+    private final Map<String, List<MessageSegment>> catalog = new ConcurrentHashMap<>();
+    // conversation key -> directory mtime as of the last scan
+    private final Map<String, FileTime> scannedAt = new ConcurrentHashMap<>();
+
+    public MessageArchive(@Value("${chat.archive.dir:./data/message-archive}") String dir,
+                          @Value("${chat.archive.idle-release-ms:300000}") long idleReleaseMillis,
+                          RedisTemplate<String, String> redisTemplate,
+                          RedisMessageListenerContainer listenerContainer) {
+        this.root = Paths.get(dir).toAbsolutePath();
+        this.redisTemplate = redisTemplate;
+        this.idleReleaseNanos = TimeUnit.MILLISECONDS.toNanos(idleReleaseMillis);
+        refresh();
+        listenerContainer.addMessageListener((message, pattern) ->
+                onChanged(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(CHANGED_CHANNEL));
+    }
+
+    public static String privateKey(Long userId1, Long userId2) {
+        return "private-" + Math.min(userId1, userId2) + "-" + Math.max(userId1, userId2);
+    }
+
+    public static String groupKey(Long groupId) {
+        return "group-" + groupId;
+    }
+
+    public static String keyOf(Message message) {
+        return message.getGroupId() != null
+                ? groupKey(message.getGroupId())
+                : privateKey(message.getSenderId(), message.getReceiverId());
+    }
+
+    public long count(String conversationKey) {
+        return segments(conversationKey).stream().mapToLong(MessageSegment::getCount).sum();
+    }
+
+    /** Highest archived id for the conversation, or -1 when nothing is archived. */
+    public long lastArchivedId(String conversationKey) {
+        List<MessageSegment> segments = segments(conversationKey);
+        return segments.isEmpty() ? -1L : segments.get(segments.size() - 1).getLastId();
+    }
+
+    /**
+     * Archived messages newest-first, skipping the {@code offset} newest archived messages.
+     */
+    public List<Message> readNewestFirst(String conversationKey, long offset, int limit) {
+        return withRescan(conversationKey, segments -> readNewestFirst(segments, offset, limit));
+    }
+
+    private static List<Message> readNewestFirst(List<MessageSegment> segments, long offset, int limit) {
+        List<Message> result = new ArrayList<>(limit);
+        long skip = offset;
+        for (int i = segments.size() - 1; i >= 0 && result.size() < limit; i--) {
+            MessageSegment segment = segments.get(i);
+            if (skip >= segment.getCount()) {
+                skip -= segment.getCount();
+                continue;
+            }
+            result.addAll(segment.readNewestFirst((int) skip, limit - result.size()));
+            skip = 0;
+        }
+        return result;
+    }
+
+    /**
+     * Looks the id up in the given conversations only; callers pass the conversations the
+     * requesting user takes part in, which keeps the lookup to a handful of block reads.
+     */
+    public Optional<ArchivedMessage> find(Collection<String> conversationKeys, long messageId) {
+        for (String key : conversationKeys) {
+            ArchivedMessage found = withRescan(key, segments -> {
+                for (MessageSegment segment : segments) {
+                    ArchivedMessage message = segment.find(messageId);
+                    if (message != null) {
+                        return message;
+                    }
+                }
+                return null;
+            });
+            if (found != null) {
+                return Optional.of(found);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /** Archived private conversations of this user, as known to the catalog. */
+    public List<String> privateKeysOf(Long userId) {
+        String id = String.valueOf(userId);
+        return catalog.keySet().stream()
+                .filter(key -> {
+                    String[] parts = key.split("-");
+                    return parts.length == 3 && parts[0].equals("private") && (parts[1].equals(id) || parts[2].equals(id));
+                })
+                .toList();
+    }
+
+    public Collection<String> conversationKeys() {
+        return List.copyOf(catalog.keySet());
+    }
+
+    /**
+     * Persists {@code messages} (one conversation, id ascending) as a new segment.
+     */
+    public void append(String conversationKey, List<ArchivedMessage> messages) throws IOException {
+        Path dir = root.resolve(conversationKey);
+        Files.createDirectories(dir);
+        MessageSegment segment = MessageSegment.write(dir, messages);
+        catalog.compute(conversationKey, (key, existing) -> {
+            List<MessageSegment> updated = existing != null ? new ArrayList<>(existing) : new ArrayList<>();
+            updated.add(segment);
+            updated.sort(Comparator.comparingLong(MessageSegment::getFirstId));
+            return List.copyOf(updated);
+        });
+        log.debug("MessageArchive.append key={} firstId={} lastId={} count={}", conversationKey,
+                segment.getFirstId(), segment.getLastId(), segment.getCount());
+    }
+
+    /**
+     * Merges runs of at least {@code minSegments} adjacent segments, each under
+     * {@code targetCount} messages, into one segment of at most {@code targetCount}, and swaps it
+     * into the local catalog. Returns the replaced segments, plus any left behind by an earlier
+     * interrupted compaction; the caller announces the change and then {@link #delete}s them.
+     */
+    public List<MessageSegment> compact(String conversationKey, int targetCount, int minSegments) throws IOException {
+        Path dir = root.resolve(conversationKey);
+        List<MessageSegment> segments = segments(conversationKey);
+        List<MessageSegment> replaced = new ArrayList<>(leftovers(dir, segments));
+        List<MessageSegment> run = new ArrayList<>();
+        long runCount = 0;
+        for (MessageSegment segment : segments) {
+            if (segment.getCount() >= targetCount || runCount + segment.getCount() > targetCount) {
+                replaced.addAll(merge(conversationKey, dir, run, minSegments));
+                run = new ArrayList<>();
+                runCount = 0;
+            }
+            if (segment.getCount() < targetCount) {
+                run.add(segment);
+                runCount += segment.getCount();
+            }
+        }
+        replaced.addAll(merge(conversationKey, dir, run, minSegments));
+        return replaced;
+    }
+
+    private List<MessageSegment> merge(String conversationKey, Path dir, List<MessageSegment> run,
+                                       int minSegments) throws IOException {
+        if (run.size() < Math.max(2, minSegments)) {
+            return List.of();
+        }
+        List<ArchivedMessage> messages = new ArrayList<>();
+        for (MessageSegment segment : run) {
+            messages.addAll(segment.readAll());
+        }
+        MessageSegment merged = MessageSegment.write(dir, messages);
+        catalog.compute(conversationKey, (key, existing) -> {
+            List<MessageSegment> updated = existing != null ? new ArrayList<>(existing) : new ArrayList<>();
+            // A rescan since the write may already have picked the merged file up
+            updated.removeIf(segment -> run.contains(segment) || segment.getPath().equals(merged.getPath()));
+            updated.add(merged);
+            updated.sort(Comparator.comparingLong(MessageSegment::getFirstId));
+            return List.copyOf(updated);
+        });
+        log.debug("MessageArchive.merge key={} segments={} firstId={} lastId={} count={}", conversationKey,
+                run.size(), merged.getFirstId(), merged.getLastId(), merged.getCount());
+        return run;
+    }
+
+    // Segment files an interrupted compaction did not get to delete
+    private static List<MessageSegment> leftovers(Path dir, List<MessageSegment> live) throws IOException {
+        Set<Path> livePaths = new HashSet<>();
+        live.forEach(segment -> livePaths.add(segment.getPath()));
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> !livePaths.contains(path))
+                    .map(MessageSegment::fromPath)
+                    .filter(Objects::nonNull)
+                    .filter(segment -> live.stream().anyMatch(other -> covers(other, segment)))
+                    .toList();
+        } catch (NoSuchFileException e) {
+            return List.of();
+        }
+    }
+
+    /**
+     * Deletes segment files replaced by {@link #compact}. Instances that already mapped them
+     * keep reading until they rescan; one that has not retries after a rescan.
+     */
+    public void delete(Collection<MessageSegment> segments) {
+        for (MessageSegment segment : segments) {
+            segment.release();
+            try {
+                Files.deleteIfExists(segment.getPath());
+            } catch (IOException e) {
+                log.warn("MessageArchive.delete path={} failed: {}", segment.getPath(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Tells every instance sharing the archive to re-scan these conversations. Called by the
+     * archiver after writing segments and before deleting their rows.
+     */
+    public void publishChanged(Collection<String> conversationKeys) {
+        if (conversationKeys.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(CHANGED_CHANNEL, String.join(",", conversationKeys));
+        } catch (RuntimeException e) {
+            // Readers still notice the new segment through the directory mtime
+            log.warn("MessageArchive.publishChanged failed keys={}: {}", conversationKeys.size(), e.getMessage());
+        }
+    }
+
+    void onChanged(String payload) {
+        for (String key : payload.split(",")) {
+            Path dir = root.resolve(key).normalize();
+            if (!key.isBlank() && dir.getParent().equals(root) && Files.isDirectory(dir)) {
+                refreshConversation(dir);
+            }
+        }
+    }
+
+    // Directory mtime check as the fallback for a missed notification: one stat per read
+    private List<MessageSegment> segments(String conversationKey) {
+        Path dir = root.resolve(conversationKey);
+        try {
+            FileTime modified = Files.getLastModifiedTime(dir);
+            if (!modified.equals(scannedAt.get(conversationKey))) {
+                refreshConversation(dir);
+            }
+        } catch (NoSuchFileException e) {
+            // Nothing archived for this conversation
+        } catch (IOException e) {
+            log.warn("MessageArchive.segments key={} stat failed: {}", conversationKey, e.getMessage());
+        }
+        return catalog.getOrDefault(conversationKey, List.of());
+    }
+
+    // A segment deleted by compaction after our last scan: rescan the conversation and read again
+    private <T> T withRescan(String conversationKey, Function<List<MessageSegment>, T> read) {
+        try {
+            return read.apply(segments(conversationKey));
+        } catch (UncheckedIOException e) {
+            if (!(e.getCause() instanceof NoSuchFileException)) {
+                throw e;
+            }
+            refreshConversation(root.resolve(conversationKey));
+            return read.apply(segments(conversationKey));
+        }
+    }
+
+    /**
+     * Drops the memory mappings of segments nobody read for {@code chat.archive.idle-release-ms},
+     * so mapped regions track the conversations in use rather than everything ever read.
+     */
+    @Scheduled(fixedDelayString = "${chat.archive.idle-release-ms:300000}", initialDelayString = "${chat.archive.idle-release-ms:300000}")
+    public void releaseIdle() {
+        long idleSince = System.nanoTime() - idleReleaseNanos;
+        int released = 0;
+        for (List<MessageSegment> segments : catalog.values()) {
+            for (MessageSegment segment : segments) {
+                if (segment.releaseIfIdle(idleSince)) {
+                    released++;
+                }
+            }
+        }
+        if (released > 0) {
+            log.debug("MessageArchive.releaseIdle released={}", released);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${chat.archive.refresh-ms:60000}", initialDelayString = "${chat.archive.refresh-ms:60000}")
+    public void refresh() {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        try (Stream<Path> dirs = Files.list(root)) {
+            dirs.filter(Files::isDirectory).forEach(this::refreshConversation);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot scan message archive " + root, e);
+        }
+    }
+
+    private void refreshConversation(Path dir) {
+        String key = dir.getFileName().toString();
+        // Taken before listing, so a segment added during the scan triggers another one
+        try {
+            scannedAt.put(key, Files.getLastModifiedTime(dir));
+        } catch (IOException e) {
+            scannedAt.remove(key);
+        }
+        // Keep already-known segments so their memory mappings survive the rescan
+        Map<Path, MessageSegment> known = new HashMap<>();
+        catalog.getOrDefault(key, List.of()).forEach(segment -> known.put(segment.getPath(), segment));
+        try (Stream<Path> files = Files.list(dir)) {
+            List<MessageSegment> segments = withoutCovered(files
+                    .map(path -> known.containsKey(path) ? known.get(path) : MessageSegment.fromPath(path))
+                    .filter(Objects::nonNull)
+                    .toList());
+            if (!segments.isEmpty()) {
+                catalog.put(key, segments);
+            } else {
+                catalog.remove(key);
+            }
+        } catch (IOException e) {
+            log.warn("MessageArchive.refreshConversation key={} failed: {}", key, e.getMessage());
+        }
+    }
+
+    // Id ascending, dropping segments a compacted segment already covers
+    private static List<MessageSegment> withoutCovered(List<MessageSegment> segments) {
+        List<MessageSegment> sorted = new ArrayList<>(segments);
+        sorted.sort(Comparator.comparingLong(MessageSegment::getFirstId)
+                .thenComparing(Comparator.comparingLong(MessageSegment::getLastId).reversed()));
+        List<MessageSegment> result = new ArrayList<>(sorted.size());
+        for (MessageSegment segment : sorted) {
+            if (result.isEmpty() || !covers(result.get(result.size() - 1), segment)) {
+                result.add(segment);
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    private static boolean covers(MessageSegment outer, MessageSegment inner) {
+        return outer != inner && outer.getFirstId() <= inner.getFirstId() && outer.getLastId() >= inner.getLastId();
+    }
+}
@@ -0,0 +1,154 @@
+package com.chatapp.chatservice.archive;
+
+import com.chatapp.chatservice.model.Message;
+import com.chatapp.chatservice.model.MessageStatus;
+import com.chatapp.chatservice.repository.MessageRepository;
+import com.chatapp.chatservice.repository.MessageStatusRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Moves messages older than {@code chat.archive.max-age-days} out of the messages table into
+ * per-conversation segments, each group message together with its message_status rows. Segments are written, synced and announced to the other instances
+ * (publish-grace-ms ahead) before rows are deleted; if a run dies in between, the next run skips
+ * ids at or below the conversation's last archived id, so nothing is archived twice. Run it on one instance only (chat.archive.enabled).
+ * <p>
+ * Every run appends one segment per touched conversation, so each run ends with a compaction
+ * pass: runs of {@code compact-min-segments} or more small adjacent segments are merged into one
+ * of at most {@code segment-target-count} messages, which bounds the files (and mappings) per
+ * conversation. Replaced files are deleted only after the merged ones have been announced.
+ */
+@Component
+@Slf4j
+public class MessageArchiver {
+
+    private final MessageRepository messageRepository;
+    private final MessageStatusRepository messageStatusRepository;
+    private final MessageArchive messageArchive;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxAgeDays;
+    private final int batchSize;
+    private final long publishGraceMillis;
+    private final int segmentTargetCount;
+    private final int compactMinSegments;
+
+    public MessageArchiver(MessageRepository messageRepository, MessageStatusRepository messageStatusRepository,
+                           MessageArchive messageArchive, TransactionTemplate transactionTemplate,
+                           @Value("${chat.archive.enabled:false}") boolean enabled,
+                           @Value("${chat.archive.max-age-days:90}") int maxAgeDays,
+                           @Value("${chat.archive.batch-size:5000}") int batchSize,
+                           @Value("${chat.archive.publish-grace-ms:1000}") long publishGraceMillis,
+                           @Value("${chat.archive.segment-target-count:50000}") int segmentTargetCount,
+                           @Value("${chat.archive.compact-min-segments:8}") int compactMinSegments) {
+        if (segmentTargetCount <= 0 || compactMinSegments < 2) {
+            throw new IllegalArgumentException("chat.archive.segment-target-count must be positive and "
+                    + "chat.archive.compact-min-segments at least 2");
+        }
+        this.messageRepository = messageRepository;
+        this.messageStatusRepository = messageStatusRepository;
+        this.messageArchive = messageArchive;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.maxAgeDays = maxAgeDays;
+        this.batchSize = batchSize;
+        this.publishGraceMillis = publishGraceMillis;
+        this.segmentTargetCount = segmentTargetCount;
+        this.compactMinSegments = compactMinSegments;
+    }
+
+    @Scheduled(fixedDelayString = "${chat.archive.interval-ms:3600000}")
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(maxAgeDays);
+        long archived = 0;
+        try {
+            List<Message> batch;
+            do {
+                batch = messageRepository.findArchivable(cutoff, PageRequest.of(0, batchSize));
+                if (!batch.isEmpty()) {
+                    archiveBatch(batch);
+                    archived += batch.size();
+                }
+            } while (batch.size() == batchSize);
+        } catch (IOException e) {
+            log.error("MessageArchiver.archive stopped after {} messages: {}", archived, e.getMessage(), e);
+            return;
+        }
+        if (archived > 0) {
+            log.info("MessageArchiver.archive archived={} cutoff={}", archived, cutoff);
+        }
+        compact();
+    }
+
+    private void compact() {
+        Map<String, List<MessageSegment>> replaced = new LinkedHashMap<>();
+        for (String key : messageArchive.conversationKeys()) {
+            try {
+                List<MessageSegment> segments = messageArchive.compact(key, segmentTargetCount, compactMinSegments);
+                if (!segments.isEmpty()) {
+                    replaced.put(key, segments);
+                }
+            } catch (IOException | UncheckedIOException e) {
+                log.warn("MessageArchiver.compact key={} failed: {}", key, e.getMessage());
+            }
+        }
+        if (replaced.isEmpty()) {
+            return;
+        }
+        // Same order as archiving: readers switch to the merged segments before the old files go
+        messageArchive.publishChanged(replaced.keySet());
+        sleepQuietly(publishGraceMillis);
+        replaced.values().forEach(messageArchive::delete);
+        log.info("MessageArchiver.compact conversations={} segmentsReplaced={}", replaced.size(),
+                replaced.values().stream().mapToInt(List::size).sum());
+    }
+
+    private void archiveBatch(List<Message> batch) throws IOException {
+        List<Long> ids = batch.stream().map(Message::getId).toList();
+        // Receipts are read once per batch; a status change after this point is not archived
+        Map<Long, List<MessageStatus>> receipts = messageStatusRepository.findByMessageIdIn(ids).stream()
+                .collect(Collectors.groupingBy(MessageStatus::getMessageId));
+        Map<String, List<Message>> byConversation = batch.stream()
+                .collect(Collectors.groupingBy(MessageArchive::keyOf, LinkedHashMap::new, Collectors.toList()));
+        for (Map.Entry<String, List<Message>> entry : byConversation.entrySet()) {
+            long lastArchivedId = messageArchive.lastArchivedId(entry.getKey());
+            List<ArchivedMessage> pending = entry.getValue().stream()
+                    .filter(message -> message.getId() > lastArchivedId)
+                    .map(message -> new ArchivedMessage(message, receipts.getOrDefault(message.getId(), List.of())))
+                    .toList();
+            if (!pending.isEmpty()) {
+                messageArchive.append(entry.getKey(), pending);
+            }
+        }
+        // Other instances must see the segments before the rows disappear from their history
+        messageArchive.publishChanged(byConversation.keySet());
+        sleepQuietly(publishGraceMillis);
+        transactionTemplate.executeWithoutResult(status -> {
+            messageStatusRepository.deleteByMessageIdIn(ids);
+            messageRepository.deleteByIdIn(ids);
+        });
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
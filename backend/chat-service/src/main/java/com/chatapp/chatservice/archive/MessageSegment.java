@@ -0,0 +1,405 @@
+package com.chatapp.chatservice.archive;
+
+import com.chatapp.chatservice.model.Message;
+import com.chatapp.chatservice.model.MessageStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * One immutable archive file holding a contiguous, id-ascending run of a conversation's messages
+ * and, for group messages, their receipts.
+ * <p>
+ * Layout: deflate-compressed blocks of {@link #BLOCK_SIZE} records, then a sparse index with one
+ * entry per block (first id, offset, compressed length, raw length, record count), then a fixed
+ * footer. Files are named {@code <firstId>-<lastId>-<count>.seg} so the catalog can be rebuilt
+ * from a directory listing without opening them. Reads go through a read-only memory mapping that
+ * is dropped again once the segment sits idle, and the block index turns an id lookup into one
+ * binary search plus one block inflate.
+ */
+public final class MessageSegment {
+
+    static final int BLOCK_SIZE = 128;
+    static final String SUFFIX = ".seg";
+
+    private static final int MAGIC_V1 = 0x4D534731; // "MSG1": records without receipts
+    private static final int MAGIC = 0x4D534732;    // "MSG2": each record followed by its receipts
+    private static final int INDEX_ENTRY_BYTES = 8 + 8 + 4 + 4 + 4;
+    private static final int FOOTER_BYTES = 4 + 8 + 4 + 4;
+
+    private final Path path;
+    private final long firstId;
+    private final long lastId;
+    private final int count;
+
+    private volatile Mapped mapped;
+    private volatile long lastUsedNanos;
+
+    private MessageSegment(Path path, long firstId, long lastId, int count) {
+        this.path = path;
+        this.firstId = firstId;
+        this.lastId = lastId;
+        this.count = count;
+    }
+
+    public long getFirstId() {
+        return firstId;
+    }
+
+    public long getLastId() {
+        return lastId;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Parses a segment from its file name; returns null for anything that is not a finished segment.
+     */
+    static MessageSegment fromPath(Path path) {
+        String name = path.getFileName().toString();
+        if (!name.endsWith(SUFFIX)) {
+            return null;
+        }
+        String[] parts = name.substring(0, name.length() - SUFFIX.length()).split("-");
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            return new MessageSegment(path, Long.parseLong(parts[0]), Long.parseLong(parts[1]), Integer.parseInt(parts[2]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes {@code messages} (id ascending) into a new segment under {@code dir}. The file is
+     * fsynced under a temporary name and then renamed, so readers never see a partial segment.
+     */
+    static MessageSegment write(Path dir, List<ArchivedMessage> messages) throws IOException {
+        long firstId = messages.get(0).message().getId();
+        long lastId = messages.get(messages.size() - 1).message().getId();
+        Path target = dir.resolve(firstId + "-" + lastId + "-" + messages.size() + SUFFIX);
+        Path temp = dir.resolve(target.getFileName() + ".tmp");
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer index = ByteBuffer.allocate(((messages.size() + BLOCK_SIZE - 1) / BLOCK_SIZE) * INDEX_ENTRY_BYTES);
+            long offset = 0;
+            for (int start = 0; start < messages.size(); start += BLOCK_SIZE) {
+                List<ArchivedMessage> block = messages.subList(start, Math.min(start + BLOCK_SIZE, messages.size()));
+                byte[] raw = encode(block);
+                byte[] compressed = deflate(deflater, raw);
+                channel.write(ByteBuffer.wrap(compressed));
+                index.putLong(block.get(0).message().getId()).putLong(offset).putInt(compressed.length).putInt(raw.length).putInt(block.size());
+                offset += compressed.length;
+            }
+            index.flip();
+            int entries = index.remaining() / INDEX_ENTRY_BYTES;
+            channel.write(index);
+            ByteBuffer footer = ByteBuffer.allocate(FOOTER_BYTES);
+            footer.putInt(entries).putLong(offset).putInt(messages.size()).putInt(MAGIC).flip();
+            channel.write(footer);
+            channel.force(true);
+        } finally {
+            deflater.end();
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        return new MessageSegment(target, firstId, lastId, messages.size());
+    }
+
+    /**
+     * Reads up to {@code limit} messages newest-first, after skipping the {@code skip} newest ones.
+     */
+    List<Message> readNewestFirst(int skip, int limit) {
+        int to = count - skip;                 // exclusive, in ascending position order
+        int from = Math.max(0, to - limit);
+        if (to <= 0 || from >= to) {
+            return List.of();
+        }
+        Mapped m = map();
+        List<Message> result = new ArrayList<>(to - from);
+        for (int block = from / BLOCK_SIZE; block <= (to - 1) / BLOCK_SIZE; block++) {
+            List<ArchivedMessage> records = m.readBlock(block);
+            int blockStart = block * BLOCK_SIZE;
+            for (int i = Math.max(from, blockStart); i < Math.min(to, blockStart + records.size()); i++) {
+                result.add(records.get(i - blockStart).message());
+            }
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * The archived message with this id, or null when the segment does not hold it.
+     */
+    ArchivedMessage find(long id) {
+        if (id < firstId || id > lastId) {
+            return null;
+        }
+        Mapped m = map();
+        int block = m.blockOf(id);
+        if (block < 0) {
+            return null;
+        }
+        List<ArchivedMessage> records = m.readBlock(block);
+        int low = 0;
+        int high = records.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = records.get(mid).message().getId();
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return records.get(mid);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Every message in the segment, id ascending; used when compacting segments into one.
+     */
+    List<ArchivedMessage> readAll() {
+        Mapped m = map();
+        List<ArchivedMessage> result = new ArrayList<>(count);
+        for (int block = 0; block < m.blockFirstIds.length; block++) {
+            result.addAll(m.readBlock(block));
+        }
+        return result;
+    }
+
+    /**
+     * Drops the mapping if the segment was not read since {@code idleSinceNanos}. The JDK has no
+     * explicit unmap, so the region goes away once the collector reclaims the buffer; readers
+     * still holding it finish normally and the next read maps the file again.
+     */
+    boolean releaseIfIdle(long idleSinceNanos) {
+        if (mapped == null || lastUsedNanos - idleSinceNanos > 0) {
+            return false;
+        }
+        mapped = null;
+        return true;
+    }
+
+    void release() {
+        mapped = null;
+    }
+
+    private Mapped map() {
+        lastUsedNanos = System.nanoTime();
+        Mapped m = mapped;
+        if (m == null) {
+            synchronized (this) {
+                m = mapped;
+                if (m == null) {
+                    m = new Mapped(path);
+                    mapped = m;
+                }
+            }
+        }
+        return m;
+    }
+
+    private static byte[] encode(List<ArchivedMessage> block) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(block.size() * 96);
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (ArchivedMessage archived : block) {
+            Message message = archived.message();
+            out.writeLong(message.getId());
+            writeNullableLong(out, message.getSenderId());
+            writeNullableLong(out, message.getReceiverId());
+            writeNullableLong(out, message.getGroupId());
+            writeNullableTime(out, message.getTimestamp());
+            out.writeByte(message.getStatus() != null ? message.getStatus().ordinal() : -1);
+            if (message.getContent() == null) {
+                out.writeInt(-1);
+            } else {
+                byte[] content = message.getContent().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(content.length);
+                out.write(content);
+            }
+            out.writeInt(archived.receipts().size());
+            for (MessageStatus receipt : archived.receipts()) {
+                out.writeLong(receipt.getUserId());
+                out.writeByte(receipt.getStatus().ordinal());
+                writeNullableTime(out, receipt.getUpdatedAt());
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static List<ArchivedMessage> decode(byte[] raw, int records, boolean withReceipts) {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+        List<ArchivedMessage> messages = new ArrayList<>(records);
+        try {
+            for (int i = 0; i < records; i++) {
+                Message message = new Message();
+                message.setId(in.readLong());
+                message.setSenderId(readNullableLong(in));
+                message.setReceiverId(readNullableLong(in));
+                message.setGroupId(readNullableLong(in));
+                message.setTimestamp(readNullableTime(in));
+                byte status = in.readByte();
+                message.setStatus(status >= 0 ? MessageStatus.Status.values()[status] : null);
+                int length = in.readInt();
+                if (length >= 0) {
+                    byte[] content = new byte[length];
+                    in.readFully(content);
+                    message.setContent(new String(content, StandardCharsets.UTF_8));
+                }
+                messages.add(new ArchivedMessage(message, withReceipts ? readReceipts(in, message.getId()) : List.of()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt archive block", e);
+        }
+        return messages;
+    }
+
+    private static List<MessageStatus> readReceipts(DataInputStream in, Long messageId) throws IOException {
+        int size = in.readInt();
+        List<MessageStatus> receipts = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            receipts.add(MessageStatus.builder()
+                    .messageId(messageId)
+                    .userId(in.readLong())
+                    .status(MessageStatus.Status.values()[in.readByte()])
+                    .updatedAt(readNullableTime(in))
+                    .build());
+        }
+        return receipts;
+    }
+
+    private static byte[] deflate(Deflater deflater, byte[] raw) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 64);
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            int n = deflater.deflate(buffer);
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeNullableLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readNullableLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static void writeNullableTime(DataOutputStream out, LocalDateTime time) throws IOException {
+        out.writeBoolean(time != null);
+        if (time != null) {
+            out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(time.getNano());
+        }
+    }
+
+    private static LocalDateTime readNullableTime(DataInputStream in) throws IOException {
+        return in.readBoolean() ? LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC) : null;
+    }
+
+    /**
+     * Memory mapping plus the decoded block index. Only absolute reads and slices are used on
+     * the shared buffer, so concurrent readers need no locking.
+     */
+    private static final class Mapped {
+
+        private final MappedByteBuffer buffer;
+        private final long[] blockFirstIds;
+        private final int[] blockOffsets;
+        private final int[] compressedLengths;
+        private final int[] rawLengths;
+        private final int[] recordCounts;
+        private final boolean withReceipts;
+
+        Mapped(Path path) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot map archive segment " + path, e);
+            }
+            int footer = buffer.capacity() - FOOTER_BYTES;
+            int magic = buffer.getInt(footer + 16);
+            if (magic != MAGIC && magic != MAGIC_V1) {
+                throw new IllegalStateException("Not an archive segment: " + path);
+            }
+            withReceipts = magic == MAGIC;
+            int entries = buffer.getInt(footer);
+            int indexOffset = (int) buffer.getLong(footer + 4);
+            blockFirstIds = new long[entries];
+            blockOffsets = new int[entries];
+            compressedLengths = new int[entries];
+            rawLengths = new int[entries];
+            recordCounts = new int[entries];
+            for (int i = 0; i < entries; i++) {
+                int entry = indexOffset + i * INDEX_ENTRY_BYTES;
+                blockFirstIds[i] = buffer.getLong(entry);
+                blockOffsets[i] = (int) buffer.getLong(entry + 8);
+                compressedLengths[i] = buffer.getInt(entry + 16);
+                rawLengths[i] = buffer.getInt(entry + 20);
+                recordCounts[i] = buffer.getInt(entry + 24);
+            }
+        }
+
+        // Block that would hold the id: the last one starting at or below it, or -1
+        int blockOf(long id) {
+            int found = Arrays.binarySearch(blockFirstIds, id);
+            return found >= 0 ? found : -found - 2;
+        }
+
+        List<ArchivedMessage> readBlock(int block) {
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(buffer.slice(blockOffsets[block], compressedLengths[block]));
+                byte[] raw = new byte[rawLengths[block]];
+                int read = 0;
+                while (read < raw.length && !inflater.finished()) {
+                    read += inflater.inflate(raw, read, raw.length - read);
+                }
+                return decode(raw, recordCounts[block], withReceipts);
+            } catch (DataFormatException e) {
+                throw new IllegalStateException("Corrupt archive block " + block + " (first id " + blockFirstIds[block] + ")", e);
+            } finally {
+                inflater.end();
+            }
+        }
+    }
+}
@@ -47,12 +47,12 @@ public class WebSocketEventListener {
         
         // Track session-to-user mapping for cleanup purposes
         if (sessionId != null) {
-            redisTemplate.opsForValue().set(SESSION_USER_KEY_PREFIX + sessionId, username, java.time.Duration.ofMinutes(30));
-            redisTemplate.opsForSet().add(USER_SESSION_KEY_PREFIX + username, sessionId);
+            redisTemplate.opsForValue().set(sessionUserKey(sessionId), username, java.time.Duration.ofMinutes(30));
+            redisTemplate.opsForSet().add(userSessionKey(username), sessionId);
         }
         
         redisTemplate.opsForSet().add(ONLINE_USERS_KEY, username);
-        redisTemplate.delete(LAST_SEEN_KEY_PREFIX + username);
+        redisTemplate.delete(lastSeenKey(username));
         
         // Safely handle session attributes
         if (headerAccessor.getSessionAttributes() != null) {
@@ -94,7 +94,7 @@ public class WebSocketEventListener {
         } else {
             // Try to get username from session tracking
             if (sessionId != null) {
-                String trackedUsername = redisTemplate.opsForValue().get(SESSION_USER_KEY_PREFIX + sessionId);
+                String trackedUsername = redisTemplate.opsForValue().get(sessionUserKey(sessionId));
                 if (trackedUsername != null) {
                     logger.info("User Disconnected (from session tracking): " + trackedUsername + " (Session: " + sessionId + ")");
                     handleUserDisconnect(trackedUsername, sessionId);
@@ -114,23 +114,23 @@ public class WebSocketEventListener {
         try {
             // Clean up session tracking
             if (sessionId != null) {
-                redisTemplate.delete(SESSION_USER_KEY_PREFIX + sessionId);
+                redisTemplate.delete(sessionUserKey(sessionId));
             }
             
             // Remove session from user's session set
             if (sessionId != null) {
-                redisTemplate.opsForSet().remove(USER_SESSION_KEY_PREFIX + username, sessionId);
+                redisTemplate.opsForSet().remove(userSessionKey(username), sessionId);
             }
             
             // Check if user has any remaining active sessions
-            Set<String> remainingSessions = redisTemplate.opsForSet().members(USER_SESSION_KEY_PREFIX + username);
+            Set<String> remainingSessions = redisTemplate.opsForSet().members(userSessionKey(username));
             if (remainingSessions == null || remainingSessions.isEmpty()) {
                 // No more active sessions, mark user as offline
             redisTemplate.opsForSet().remove(ONLINE_USERS_KEY, username);
-            redisTemplate.opsForValue().set(LAST_SEEN_KEY_PREFIX + username, String.valueOf(Instant.now().toEpochMilli()));
+            redisTemplate.opsForValue().set(lastSeenKey(username), String.valueOf(Instant.now().toEpochMilli()));
                 
                 // Clean up user session tracking key
-                redisTemplate.delete(USER_SESSION_KEY_PREFIX + username);
+                redisTemplate.delete(userSessionKey(username));
 
             ChatMessage chatMessage = new ChatMessage();
             chatMessage.setType(MessageType.LEAVE);
@@ -146,6 +146,18 @@ public class WebSocketEventListener {
         }
     }
 
+    static String sessionUserKey(String sessionId) {
+        return SESSION_USER_KEY_PREFIX + sessionId;
+    }
+
+    static String userSessionKey(String username) {
+        return USER_SESSION_KEY_PREFIX + username;
+    }
+
+    static String lastSeenKey(String username) {
+        return LAST_SEEN_KEY_PREFIX + username;
+    }
+
     public Set<String> getOnlineUsers() {
         return redisTemplate.opsForSet().members(ONLINE_USERS_KEY);
     }
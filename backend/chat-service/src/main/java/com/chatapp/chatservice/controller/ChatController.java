@@ -2,20 +2,29 @@ package com.chatapp.chatservice.controller;
 
 import com.chatapp.chatservice.config.WebSocketEventListener;
 import com.chatapp.chatservice.dto.ChatMessage;
+import com.chatapp.chatservice.dto.CompactMessagePage;
 import com.chatapp.chatservice.dto.MessageDto;
 import com.chatapp.chatservice.dto.MessageInfoDto;
+import com.chatapp.chatservice.dto.MessageReceiptDto;
 import com.chatapp.chatservice.dto.TypingNotification;
+import com.chatapp.chatservice.model.MessageStatus;
 import com.chatapp.chatservice.service.MessageService;
+import com.chatapp.chatservice.service.ResourceVersionService;
 import com.chatapp.chatservice.util.JwtUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.Set;
 
@@ -23,17 +32,23 @@ import java.util.Set;
 @RequestMapping("/api/chat")
 public class ChatController {
 
+    // Opt-in compact format for history and search; see CompactMessagePage
+    private static final MediaType COMPACT_JSON = MediaType.parseMediaType("application/vnd.chatapp.compact+json");
+
     private final MessageService messageService;
     private final SimpMessageSendingOperations messagingTemplate;
     private final WebSocketEventListener webSocketEventListener;
     private final JwtUtil jwtUtil;
+    private final ResourceVersionService resourceVersionService;
 
     public ChatController(MessageService messageService, SimpMessageSendingOperations messagingTemplate,
-                          WebSocketEventListener webSocketEventListener, JwtUtil jwtUtil) {
+                          WebSocketEventListener webSocketEventListener, JwtUtil jwtUtil,
+                          ResourceVersionService resourceVersionService) {
         this.messageService = messageService;
         this.messagingTemplate = messagingTemplate;
         this.webSocketEventListener = webSocketEventListener;
         this.jwtUtil = jwtUtil;
+        this.resourceVersionService = resourceVersionService;
     }
 
     private Long getUserIdFromRequest(HttpServletRequest request) {
@@ -42,6 +57,26 @@ public class ChatController {
         return jwtUtil.getUserIdFromToken(token);
     }
 
+    // Only an explicit Accept selects the compact format, so */* and application/json keep the Page JSON
+    private static boolean acceptsCompact(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return false;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream().anyMatch(COMPACT_JSON::equalsTypeAndSubtype);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    private static ResponseEntity<?> messagePage(HttpServletRequest request, Page<MessageDto> page) {
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT);
+        return acceptsCompact(request)
+                ? ok.contentType(COMPACT_JSON).body(CompactMessagePage.of(page))
+                : ok.body(page);
+    }
+
     @MessageMapping("/chat.sendMessage")
     public void sendMessage(@Payload ChatMessage chatMessage) {
         if (chatMessage.getGroupId() != null) {
@@ -72,14 +107,15 @@ public class ChatController {
     }
 
     @GetMapping("/messages/{userId1}/{userId2}")
-    public ResponseEntity<Page<MessageDto>> getChatHistory(@PathVariable Long userId1, @PathVariable Long userId2,
-                                                              Pageable pageable) {
-        return ResponseEntity.ok(messageService.getChatHistory(userId1, userId2, pageable));
+    public ResponseEntity<?> getChatHistory(HttpServletRequest request, @PathVariable Long userId1,
+                                            @PathVariable Long userId2, Pageable pageable) {
+        return messagePage(request, messageService.getChatHistory(userId1, userId2, pageable));
     }
 
     @GetMapping("/messages/{groupId}")
-    public ResponseEntity<Page<MessageDto>> getGroupChatHistory(@PathVariable Long groupId, Pageable pageable) {
-        return ResponseEntity.ok(messageService.getGroupChatHistory(groupId, pageable));
+    public ResponseEntity<?> getGroupChatHistory(HttpServletRequest request, @PathVariable Long groupId,
+                                                 Pageable pageable) {
+        return messagePage(request, messageService.getGroupChatHistory(groupId, pageable));
     }
 
     @PostMapping("/messages/{messageId}/read")
@@ -90,22 +126,39 @@ public class ChatController {
     }
 
     @GetMapping("/messages/{messageId}/info")
-    public ResponseEntity<MessageInfoDto> getMessageInfo(@PathVariable Long messageId) {
-        return ResponseEntity.ok(messageService.getMessageInfo(messageId));
+    public ResponseEntity<MessageInfoDto> getMessageInfo(HttpServletRequest request, @PathVariable Long messageId) {
+        return ResponseEntity.ok(messageService.getMessageInfo(getUserIdFromRequest(request), messageId));
+    }
+
+    // Paged reader/deliverer list for a group message, ordered by status time
+    @GetMapping("/messages/{messageId}/receipts")
+    public ResponseEntity<Page<MessageReceiptDto>> getMessageReceipts(HttpServletRequest request,
+                                                                      @PathVariable Long messageId,
+                                                                      @RequestParam MessageStatus.Status status,
+                                                                      Pageable pageable) {
+        return ResponseEntity.ok(messageService.getMessageReceipts(getUserIdFromRequest(request), messageId, status, pageable));
     }
 
     @GetMapping("/conversations")
-    public ResponseEntity<java.util.List<com.chatapp.chatservice.dto.ConversationDto>> getConversations(HttpServletRequest request) {
+    public ResponseEntity<java.util.List<com.chatapp.chatservice.dto.ConversationDto>> getConversations(HttpServletRequest request,
+                                                                                                       WebRequest webRequest) {
         Long userId = getUserIdFromRequest(request);
-        return ResponseEntity.ok(messageService.getConversations(userId));
+        // Answered from the version counter before any query; checkNotModified also sets the ETag header
+        String eTag = resourceVersionService.conversationsETag(userId);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(messageService.getConversations(userId));
     }
 
     @GetMapping("/messages/search")
-    public ResponseEntity<Page<MessageDto>> searchMessages(HttpServletRequest request,
-                                                           @RequestParam String query,
-                                                           Pageable pageable) {
+    public ResponseEntity<?> searchMessages(HttpServletRequest request,
+                                            @RequestParam String query,
+                                            Pageable pageable) {
         Long userId = getUserIdFromRequest(request);
-        return ResponseEntity.ok(messageService.searchMessages(userId, query, pageable));
+        return messagePage(request, messageService.searchMessages(userId, query, pageable));
     }
 
 }
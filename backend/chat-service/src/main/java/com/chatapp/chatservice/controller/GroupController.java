@@ -1,11 +1,23 @@
 package com.chatapp.chatservice.controller;
 
 import com.chatapp.chatservice.dto.GroupDto;
+import com.chatapp.chatservice.dto.GroupMembershipRequest;
+import com.chatapp.chatservice.dto.GroupMembershipResult;
+import com.chatapp.chatservice.dto.GroupSummaryDto;
+import com.chatapp.chatservice.dto.UserDto;
 import com.chatapp.chatservice.service.GroupService;
+import com.chatapp.chatservice.service.ResourceVersionService;
 import com.chatapp.chatservice.util.JwtUtil;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/groups")
@@ -13,10 +25,12 @@ public class GroupController {
 
     private final GroupService groupService;
     private final JwtUtil jwtUtil;
+    private final ResourceVersionService resourceVersionService;
 
-    public GroupController(GroupService groupService, JwtUtil jwtUtil) {
+    public GroupController(GroupService groupService, JwtUtil jwtUtil, ResourceVersionService resourceVersionService) {
         this.groupService = groupService;
         this.jwtUtil = jwtUtil;
+        this.resourceVersionService = resourceVersionService;
     }
 
     private Long getUserIdFromRequest(HttpServletRequest request) {
@@ -26,7 +40,7 @@ public class GroupController {
     }
 
     @PostMapping
-    public ResponseEntity<GroupDto> createGroup(HttpServletRequest request, @RequestBody GroupDto groupDto) {
+    public ResponseEntity<GroupDto> createGroup(HttpServletRequest request, @Valid @RequestBody GroupDto groupDto) {
         Long creatorId = getUserIdFromRequest(request);
         groupDto.setCreatedBy(creatorId);
         return ResponseEntity.ok(groupService.createGroup(groupDto));
@@ -37,14 +51,38 @@ public class GroupController {
         return ResponseEntity.ok(groupService.addUserToGroup(groupId, userId));
     }
 
+    // Bulk add/remove; returns a membership summary instead of the hydrated group
+    @PostMapping("/{groupId}/members")
+    public ResponseEntity<GroupMembershipResult> updateMembers(@PathVariable Long groupId,
+                                                               @Valid @RequestBody GroupMembershipRequest request) {
+        return ResponseEntity.ok(groupService.updateMembers(groupId, request));
+    }
+
     @DeleteMapping("/{groupId}/users/{userId}")
     public ResponseEntity<GroupDto> removeUserFromGroup(@PathVariable Long groupId, @PathVariable Long userId) {
         return ResponseEntity.ok(groupService.removeUserFromGroup(groupId, userId));
     }
 
+    // Lightweight id/name/image/memberCount for up to 100 groups at once (sidebar avatars); 400 above that
+    @GetMapping("/summary")
+    public ResponseEntity<List<GroupSummaryDto>> getGroupSummaries(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(groupService.getGroupSummaries(ids));
+    }
+
+    @GetMapping("/{groupId}/members")
+    public ResponseEntity<Page<UserDto>> getGroupMembers(@PathVariable Long groupId, Pageable pageable) {
+        return ResponseEntity.ok(groupService.getGroupMembers(groupId, pageable));
+    }
+
     @GetMapping("/{groupId}")
-    public ResponseEntity<GroupDto> getGroup(@PathVariable Long groupId) {
-        return ResponseEntity.ok(groupService.getGroup(groupId));
+    public ResponseEntity<GroupDto> getGroup(@PathVariable Long groupId, WebRequest webRequest) {
+        String eTag = resourceVersionService.groupETag(groupId);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(groupService.getGroup(groupId));
     }
 
     @PutMapping("/{groupId}")
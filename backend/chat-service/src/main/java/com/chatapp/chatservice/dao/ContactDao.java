@@ -2,6 +2,7 @@ package com.chatapp.chatservice.dao;
 
 import com.chatapp.chatservice.model.Contact;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +12,6 @@ public interface ContactDao {
 
     List<Contact> findByUserId(Long userId);
 
+    List<Long> findContactIdsIn(Long userId, Collection<Long> contactIds);
+
 }
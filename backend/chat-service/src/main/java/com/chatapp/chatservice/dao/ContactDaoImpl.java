@@ -4,6 +4,9 @@ import com.chatapp.chatservice.model.Contact;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,4 +30,17 @@ public class ContactDaoImpl implements ContactDao {
         String sql = "SELECT * FROM contacts WHERE user_id = ?";
         return jdbcTemplate.query(sql, new ContactRowMapper(), userId);
     }
+
+    @Override
+    public List<Long> findContactIdsIn(Long userId, Collection<Long> contactIds) {
+        if (contactIds.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(",", Collections.nCopies(contactIds.size(), "?"));
+        String sql = "SELECT contact_id FROM contacts WHERE user_id = ? AND contact_id IN (" + placeholders + ")";
+        List<Object> args = new ArrayList<>(contactIds.size() + 1);
+        args.add(userId);
+        args.addAll(contactIds);
+        return jdbcTemplate.queryForList(sql, Long.class, args.toArray());
+    }
 }
@@ -1,10 +1,16 @@
 package com.chatapp.chatservice.dao;
 
+import com.chatapp.chatservice.dto.GroupSummaryDto;
 import com.chatapp.chatservice.model.Group;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface GroupDao {
     List<Group> findByUserId(Long userId);
     Group findByGroupId(Long groupId);
+    List<GroupSummaryDto> findSummariesByIds(Collection<Long> groupIds);
+    void addMembers(Long groupId, Collection<Long> userIds);
+    List<Long> lockMemberIdsIn(Long groupId, Collection<Long> userIds);
+    int removeMembers(Long groupId, Collection<Long> userIds);
 }
@@ -1,9 +1,13 @@
 package com.chatapp.chatservice.dao;
 
+import com.chatapp.chatservice.dto.GroupSummaryDto;
 import com.chatapp.chatservice.model.Group;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 @Repository
@@ -26,4 +30,61 @@ public class GroupDaoImpl implements GroupDao {
         String sql = "SELECT * FROM `groups` WHERE id = ?";
         return jdbcTemplate.queryForObject(sql, new GroupRowMapper(), groupId);
     }
+
+    @Override
+    public List<GroupSummaryDto> findSummariesByIds(Collection<Long> groupIds) {
+        if (groupIds.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(",", Collections.nCopies(groupIds.size(), "?"));
+        String sql = "SELECT g.id, g.name, g.image_url, COUNT(gu.user_id) AS member_count FROM `groups` g "
+                + "LEFT JOIN group_users gu ON gu.group_id = g.id WHERE g.id IN (" + placeholders + ") "
+                + "GROUP BY g.id, g.name, g.image_url";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> GroupSummaryDto.builder()
+                .id(rs.getLong("id"))
+                .name(rs.getString("name"))
+                .imageUrl(rs.getString("image_url"))
+                .memberCount(rs.getLong("member_count"))
+                .build(), groupIds.toArray());
+    }
+
+    @Override
+    public void addMembers(Long groupId, Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        // INSERT IGNORE keeps the call idempotent for users that are already members
+        jdbcTemplate.batchUpdate("INSERT IGNORE INTO group_users (group_id, user_id) VALUES (?, ?)",
+                userIds, 500, (ps, userId) -> {
+                    ps.setLong(1, groupId);
+                    ps.setLong(2, userId);
+                });
+    }
+
+    // Locks the membership rows so the ids reported as removed are the rows this transaction deletes
+    @Override
+    public List<Long> lockMemberIdsIn(Long groupId, Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(",", Collections.nCopies(userIds.size(), "?"));
+        List<Object> args = new ArrayList<>(userIds.size() + 1);
+        args.add(groupId);
+        args.addAll(userIds);
+        return jdbcTemplate.queryForList("SELECT user_id FROM group_users WHERE group_id = ? AND user_id IN (" + placeholders
+                + ") FOR UPDATE", Long.class, args.toArray());
+    }
+
+    @Override
+    public int removeMembers(Long groupId, Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(",", Collections.nCopies(userIds.size(), "?"));
+        List<Object> args = new ArrayList<>(userIds.size() + 1);
+        args.add(groupId);
+        args.addAll(userIds);
+        return jdbcTemplate.update("DELETE FROM group_users WHERE group_id = ? AND user_id IN (" + placeholders + ")",
+                args.toArray());
+    }
 }
@@ -0,0 +1,15 @@
+package com.chatapp.chatservice.dao;
+
+import com.chatapp.chatservice.model.Message;
+
+import java.util.List;
+
+public interface MessageDao {
+
+    // Messages must already carry their ids
+    void insertAll(List<Message> messages);
+
+    // INSERT IGNORE: replaying already-stored ids is a no-op
+    void insertAllIgnoringDuplicates(List<Message> messages);
+
+}
@@ -0,0 +1,46 @@
+package com.chatapp.chatservice.dao;
+
+import com.chatapp.chatservice.model.Message;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+@Repository
+public class MessageDaoImpl implements MessageDao {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MessageDaoImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<Message> messages) {
+        insert("INSERT", messages);
+    }
+
+    @Override
+    public void insertAllIgnoringDuplicates(List<Message> messages) {
+        insert("INSERT IGNORE", messages);
+    }
+
+    private void insert(String verb, List<Message> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(verb + " INTO messages (id, sender_id, receiver_id, group_id, content, timestamp, status) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                messages, 500, (ps, message) -> {
+                    ps.setLong(1, message.getId());
+                    ps.setLong(2, message.getSenderId());
+                    ps.setObject(3, message.getReceiverId(), Types.BIGINT);
+                    ps.setObject(4, message.getGroupId(), Types.BIGINT);
+                    ps.setString(5, message.getContent());
+                    ps.setTimestamp(6, Timestamp.valueOf(message.getTimestamp()));
+                    ps.setString(7, message.getStatus() != null ? message.getStatus().name() : null);
+                });
+    }
+}
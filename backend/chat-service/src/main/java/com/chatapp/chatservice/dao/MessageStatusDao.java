@@ -0,0 +1,20 @@
+package com.chatapp.chatservice.dao;
+
+import com.chatapp.chatservice.dto.MessageReceiptDto;
+import com.chatapp.chatservice.model.MessageStatus;
+
+import java.util.List;
+import java.util.Map;
+
+public interface MessageStatusDao {
+
+    void insertAll(List<MessageStatus> statuses);
+
+    // INSERT IGNORE: keeps an existing row (and a READ status) when a write is replayed
+    void insertAllIgnoringDuplicates(List<MessageStatus> statuses);
+
+    Map<MessageStatus.Status, Long> countByMessageId(Long messageId);
+
+    List<MessageReceiptDto> findReceipts(Long messageId, MessageStatus.Status status, int limit, long offset);
+
+}
@@ -0,0 +1,70 @@
+package com.chatapp.chatservice.dao;
+
+import com.chatapp.chatservice.dto.MessageReceiptDto;
+import com.chatapp.chatservice.model.MessageStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public class MessageStatusDaoImpl implements MessageStatusDao {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MessageStatusDaoImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<MessageStatus> statuses) {
+        insert("INSERT", statuses);
+    }
+
+    @Override
+    public void insertAllIgnoringDuplicates(List<MessageStatus> statuses) {
+        insert("INSERT IGNORE", statuses);
+    }
+
+    private void insert(String verb, List<MessageStatus> statuses) {
+        if (statuses.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(verb + " INTO message_status (message_id, user_id, status, updated_at) VALUES (?, ?, ?, ?)",
+                statuses, 500, (ps, status) -> {
+                    ps.setLong(1, status.getMessageId());
+                    ps.setLong(2, status.getUserId());
+                    ps.setString(3, status.getStatus().name());
+                    ps.setTimestamp(4, status.getUpdatedAt() != null ? Timestamp.valueOf(status.getUpdatedAt()) : null);
+                });
+    }
+
+    @Override
+    public Map<MessageStatus.Status, Long> countByMessageId(Long messageId) {
+        String sql = "SELECT status, COUNT(*) AS cnt FROM message_status WHERE message_id = ? GROUP BY status";
+        Map<MessageStatus.Status, Long> counts = new EnumMap<>(MessageStatus.Status.class);
+        jdbcTemplate.query(sql, rs -> {
+            counts.put(MessageStatus.Status.valueOf(rs.getString("status")), rs.getLong("cnt"));
+        }, messageId);
+        return counts;
+    }
+
+    @Override
+    public List<MessageReceiptDto> findReceipts(Long messageId, MessageStatus.Status status, int limit, long offset) {
+        String sql = "SELECT u.id, u.username, u.profile_picture_url, ms.updated_at FROM message_status ms "
+                + "JOIN users u ON u.id = ms.user_id WHERE ms.message_id = ? AND ms.status = ? "
+                + "ORDER BY ms.updated_at, ms.user_id LIMIT ? OFFSET ?";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            Timestamp updatedAt = rs.getTimestamp("updated_at");
+            return MessageReceiptDto.builder()
+                    .id(rs.getLong("id"))
+                    .username(rs.getString("username"))
+                    .profilePictureUrl(rs.getString("profile_picture_url"))
+                    .timestamp(updatedAt != null ? updatedAt.toLocalDateTime() : null)
+                    .build();
+        }, messageId, status.name(), limit, offset);
+    }
+}
@@ -0,0 +1,23 @@
+package com.chatapp.chatservice.dao;
+
+import com.chatapp.chatservice.model.MessageOutbox;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxDao {
+
+    void insertAll(List<MessageOutbox> records);
+
+    // Must run inside a transaction: locks unsent rows whose lease is free and leases them until leaseUntil
+    List<MessageOutbox> claimPending(int limit, LocalDateTime now, LocalDateTime leaseUntil);
+
+    void markSent(Collection<Long> ids, LocalDateTime sentAt);
+
+    // Ends the lease of rows that were not published, so the next poll picks them up again
+    void release(Collection<Long> ids);
+
+    int deleteSentBefore(LocalDateTime cutoff, int limit);
+
+}
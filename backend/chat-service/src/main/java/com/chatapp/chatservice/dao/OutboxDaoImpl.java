@@ -0,0 +1,82 @@
+package com.chatapp.chatservice.dao;
+
+import com.chatapp.chatservice.model.MessageOutbox;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+@Repository
+public class OutboxDaoImpl implements OutboxDao {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboxDaoImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<MessageOutbox> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO message_outbox (topic, record_key, payload_type, payload, created_at) VALUES (?, ?, ?, ?, ?)",
+                records, 500, (ps, record) -> {
+                    ps.setString(1, record.getTopic());
+                    ps.setString(2, record.getRecordKey());
+                    ps.setString(3, record.getPayloadType());
+                    ps.setString(4, record.getPayload());
+                    ps.setTimestamp(5, Timestamp.valueOf(record.getCreatedAt()));
+                });
+    }
+
+    @Override
+    public List<MessageOutbox> claimPending(int limit, LocalDateTime now, LocalDateTime leaseUntil) {
+        String sql = "SELECT id, topic, record_key, payload_type, payload, created_at FROM message_outbox "
+                + "WHERE sent_at IS NULL AND (lease_until IS NULL OR lease_until <= ?) ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+        List<MessageOutbox> rows = jdbcTemplate.query(sql, (rs, rowNum) -> MessageOutbox.builder()
+                .id(rs.getLong("id"))
+                .topic(rs.getString("topic"))
+                .recordKey(rs.getString("record_key"))
+                .payloadType(rs.getString("payload_type"))
+                .payload(rs.getString("payload"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .leaseUntil(leaseUntil)
+                .build(), Timestamp.valueOf(now), limit);
+        updateByIds("UPDATE message_outbox SET lease_until = ? WHERE id IN (", Timestamp.valueOf(leaseUntil),
+                rows.stream().map(MessageOutbox::getId).toList());
+        return rows;
+    }
+
+    @Override
+    public void markSent(Collection<Long> ids, LocalDateTime sentAt) {
+        updateByIds("UPDATE message_outbox SET sent_at = ? WHERE id IN (", Timestamp.valueOf(sentAt), ids);
+    }
+
+    @Override
+    public void release(Collection<Long> ids) {
+        updateByIds("UPDATE message_outbox SET lease_until = ? WHERE sent_at IS NULL AND id IN (", null, ids);
+    }
+
+    private void updateByIds(String sqlPrefix, Timestamp value, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        List<Object> args = new ArrayList<>(ids.size() + 1);
+        args.add(value);
+        args.addAll(ids);
+        jdbcTemplate.update(sqlPrefix + placeholders + ")", args.toArray());
+    }
+
+    @Override
+    public int deleteSentBefore(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update("DELETE FROM message_outbox WHERE sent_at IS NOT NULL AND sent_at < ? LIMIT ?",
+                Timestamp.valueOf(cutoff), limit);
+    }
+}
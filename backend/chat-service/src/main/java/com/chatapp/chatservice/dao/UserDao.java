@@ -2,10 +2,16 @@ package com.chatapp.chatservice.dao;
 
 import com.chatapp.chatservice.model.User;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserDao {
 
     Optional<User> findById(Long id);
 
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    List<User> findByGroupId(Long groupId, int limit, long offset);
+
 }
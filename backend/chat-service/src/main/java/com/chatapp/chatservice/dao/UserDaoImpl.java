@@ -4,6 +4,9 @@ import com.chatapp.chatservice.model.User;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -20,4 +23,21 @@ public class UserDaoImpl implements UserDao {
         String sql = "SELECT * FROM users WHERE id = ?";
         return jdbcTemplate.query(sql, new UserRowMapper(), id).stream().findFirst();
     }
+
+    @Override
+    public List<Long> findExistingIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        String sql = "SELECT id FROM users WHERE id IN (" + placeholders + ")";
+        return jdbcTemplate.queryForList(sql, Long.class, ids.toArray());
+    }
+
+    @Override
+    public List<User> findByGroupId(Long groupId, int limit, long offset) {
+        String sql = "SELECT u.* FROM group_users gu JOIN users u ON u.id = gu.user_id WHERE gu.group_id = ? "
+                + "ORDER BY u.id LIMIT ? OFFSET ?";
+        return jdbcTemplate.query(sql, new UserRowMapper(), groupId, limit, offset);
+    }
 }
@@ -0,0 +1,25 @@
+package com.chatapp.chatservice.datasource;
+
+/**
+ * Per-thread override that pins read-only transactions to the primary,
+ * set for the duration of a request that must see its own recent writes.
+ */
+public final class ReadRoutingContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private ReadRoutingContext() {
+    }
+
+    public static void forcePrimary() {
+        PRIMARY_ONLY.set(Boolean.TRUE);
+    }
+
+    public static boolean isPrimaryForced() {
+        return Boolean.TRUE.equals(PRIMARY_ONLY.get());
+    }
+
+    public static void clear() {
+        PRIMARY_ONLY.remove();
+    }
+}
@@ -0,0 +1,68 @@
+package com.chatapp.chatservice.datasource;
+
+import com.chatapp.chatservice.util.JwtUtil;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Pins a request's reads to the primary when its user wrote within the read-your-writes
+ * window. Any non-GET request opens that window when it starts and again once it succeeded,
+ * so the window runs from the commit rather than from the request.
+ */
+@Slf4j
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final ReadYourWritesTracker tracker;
+    private final JwtUtil jwtUtil;
+
+    public ReadYourWritesFilter(ReadYourWritesTracker tracker, JwtUtil jwtUtil) {
+        this.tracker = tracker;
+        this.jwtUtil = jwtUtil;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Long userId = resolveUserId(request);
+        boolean write = userId != null && isWrite(request);
+        if (write) {
+            // Opened up front as well: the client may read again before this filter unwinds
+            tracker.recordWrite(userId);
+            ReadRoutingContext.forcePrimary();
+        } else if (userId != null && tracker.isPinned(userId)) {
+            ReadRoutingContext.forcePrimary();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadRoutingContext.clear();
+        }
+        if (write && response.getStatus() < 400) {
+            tracker.recordWrite(userId);
+        }
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !"GET".equals(method) && !"HEAD".equals(method) && !"OPTIONS".equals(method);
+    }
+
+    private Long resolveUserId(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) {
+            return null;
+        }
+        try {
+            return jwtUtil.getUserIdFromToken(header.substring(7));
+        } catch (Exception e) {
+            log.trace("ReadYourWritesFilter.resolveUserId invalid token: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.chatapp.chatservice.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+
+/**
+ * Remembers which users wrote recently so their reads can be pinned to the primary
+ * until replicas have had time to apply the write. The marker is a Redis key
+ * ({@code ryw:<userId>}, expiring after the window) so a read that lands on another
+ * instance than the write is pinned too.
+ */
+@Slf4j
+public class ReadYourWritesTracker {
+
+    private static final String READ_YOUR_WRITES_KEY_PREFIX = "ryw:";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final Duration window;
+
+    public ReadYourWritesTracker(RedisTemplate<String, String> redisTemplate, long windowMs) {
+        this.redisTemplate = redisTemplate;
+        this.window = Duration.ofMillis(windowMs);
+    }
+
+    public void recordWrite(Long userId) {
+        try {
+            redisTemplate.opsForValue().set(READ_YOUR_WRITES_KEY_PREFIX + userId, "1", window);
+        } catch (RuntimeException e) {
+            log.warn("ReadYourWritesTracker.recordWrite failed userId={}", userId, e);
+        }
+    }
+
+    // Without Redis there is no telling whether the user just wrote, so stay on the primary
+    public boolean isPinned(Long userId) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(READ_YOUR_WRITES_KEY_PREFIX + userId));
+        } catch (RuntimeException e) {
+            log.warn("ReadYourWritesTracker.isPinned failed userId={}", userId, e);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.chatapp.chatservice.datasource;
+
+import com.chatapp.chatservice.util.JwtUtil;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured DataSource with primary + replica pools when
+ * {@code chat.datasource.replicas.enabled=true}. Without it the service keeps the single
+ * spring.datasource pool and @Transactional(readOnly = true) is only a hint to Hibernate.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "chat.datasource.replicas", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties({DataSourceProperties.class, ReplicaDataSourceProperties.class})
+public class ReplicaDataSourceConfig {
+
+    private final ReplicaDataSourceProperties replicaProperties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, DataSource> replicaPools = new LinkedHashMap<>();
+    private HikariDataSource primaryPool;
+
+    public ReplicaDataSourceConfig(ReplicaDataSourceProperties replicaProperties, MeterRegistry meterRegistry) {
+        this.replicaProperties = replicaProperties;
+        this.meterRegistry = meterRegistry;
+        List<ReplicaDataSourceProperties.Node> nodes = replicaProperties.getNodes();
+        for (int i = 0; i < nodes.size(); i++) {
+            ReplicaDataSourceProperties.Node node = nodes.get(i);
+            String route = "replica-" + i;
+            HikariDataSource pool = new HikariDataSource();
+            pool.setJdbcUrl(node.getUrl());
+            pool.setUsername(node.getUsername());
+            pool.setPassword(node.getPassword());
+            pool.setReadOnly(true);
+            pool.setMaximumPoolSize(replicaProperties.getMaximumPoolSize());
+            instrument(pool, route);
+            replicaPools.put(route, pool);
+        }
+    }
+
+    @Bean
+    public ReplicaHealthMonitor replicaHealthMonitor() {
+        return new ReplicaHealthMonitor(replicaPools, replicaProperties);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties dataSourceProperties, ReplicaHealthMonitor replicaHealthMonitor) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        instrument(primary, ReplicaRoutingDataSource.PRIMARY);
+        this.primaryPool = primary;
+
+        Map<Object, Object> targets = new HashMap<>(replicaPools);
+        targets.put(ReplicaRoutingDataSource.PRIMARY, primary);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(replicaHealthMonitor, meterRegistry);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(RedisTemplate<String, String> redisTemplate) {
+        return new ReadYourWritesTracker(redisTemplate, replicaProperties.getReadYourWritesMs());
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReadYourWritesTracker tracker, JwtUtil jwtUtil) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(tracker, jwtUtil));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    // The pools sit behind the routing proxy rather than being beans, so close them here
+    @PreDestroy
+    public void closePools() {
+        replicaPools.values().forEach(pool -> ((HikariDataSource) pool).close());
+        if (primaryPool != null) {
+            primaryPool.close();
+        }
+    }
+
+    // hikaricp.connections.* meters, tagged pool=chat-<route>
+    private void instrument(HikariDataSource pool, String route) {
+        pool.setPoolName("chat-" + route);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+    }
+}
@@ -0,0 +1,33 @@
+package com.chatapp.chatservice.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "chat.datasource.replicas")
+public class ReplicaDataSourceProperties {
+
+    private boolean enabled;
+
+    private List<Node> nodes = new ArrayList<>();
+
+    // Replicas further behind than this are skipped until they catch up
+    private long maxLagSeconds = 5;
+
+    // How long after a user's own write their reads stay on the primary
+    private long readYourWritesMs = 5000;
+
+    private long lagCheckMs = 2000;
+
+    private int maximumPoolSize = 10;
+
+    @Data
+    public static class Node {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
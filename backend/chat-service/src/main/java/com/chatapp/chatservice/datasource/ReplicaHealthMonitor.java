@@ -0,0 +1,84 @@
+package com.chatapp.chatservice.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Polls SHOW REPLICA STATUS on every replica and keeps the set of replicas whose lag is
+ * within {@code chat.datasource.replicas.max-lag-seconds}. A replica that cannot be reached,
+ * has replication stopped or has not been checked recently is treated as unavailable.
+ */
+@Slf4j
+public class ReplicaHealthMonitor {
+
+    private final Map<String, DataSource> replicas;
+    private final long maxLagSeconds;
+    private final long staleAfterMs;
+    private final Map<String, Long> healthyUntil = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastLagSeconds = new ConcurrentHashMap<>();
+
+    public ReplicaHealthMonitor(Map<String, DataSource> replicas, ReplicaDataSourceProperties properties) {
+        this.replicas = replicas;
+        this.maxLagSeconds = properties.getMaxLagSeconds();
+        this.staleAfterMs = properties.getLagCheckMs() * 3;
+    }
+
+    public boolean isHealthy(String route) {
+        Long until = healthyUntil.get(route);
+        return until != null && until > System.currentTimeMillis();
+    }
+
+    public List<String> healthyRoutes() {
+        return replicas.keySet().stream().filter(this::isHealthy).toList();
+    }
+
+    public Long getLagSeconds(String route) {
+        return lastLagSeconds.get(route);
+    }
+
+    @Scheduled(fixedDelayString = "${chat.datasource.replicas.lag-check-ms:2000}")
+    public void checkReplicas() {
+        replicas.forEach((route, dataSource) -> {
+            Long lag = readLagSeconds(route, dataSource);
+            if (lag != null && lag <= maxLagSeconds) {
+                lastLagSeconds.put(route, lag);
+                healthyUntil.put(route, System.currentTimeMillis() + staleAfterMs);
+            } else {
+                if (isHealthy(route)) {
+                    log.warn("ReplicaHealthMonitor.checkReplicas route={} lagSeconds={} falling back to primary", route, lag);
+                }
+                if (lag != null) {
+                    lastLagSeconds.put(route, lag);
+                } else {
+                    lastLagSeconds.remove(route);
+                }
+                healthyUntil.remove(route);
+            }
+        });
+    }
+
+    private Long readLagSeconds(String route, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+            if (!rs.next()) {
+                log.warn("ReplicaHealthMonitor.readLagSeconds route={} is not configured as a replica", route);
+                return null;
+            }
+            long lag = rs.getLong("Seconds_Behind_Source");
+            // NULL means the SQL or IO thread is not running
+            return rs.wasNull() ? null : lag;
+        } catch (Exception e) {
+            log.warn("ReplicaHealthMonitor.readLagSeconds route={} failed: {}", route, e.getMessage());
+            return null;
+        }
+    }
+}
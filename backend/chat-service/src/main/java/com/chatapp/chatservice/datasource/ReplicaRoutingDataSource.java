@@ -0,0 +1,58 @@
+package com.chatapp.chatservice.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions to a healthy replica (round robin) and
+ * everything else to the primary. Must sit behind a LazyConnectionDataSourceProxy so the
+ * lookup happens after the transaction's read-only flag has been set.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final ReplicaHealthMonitor healthMonitor;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter replicaReads;
+    private final Counter primaryReadsForced;
+    private final Counter primaryReadsNoReplica;
+
+    public ReplicaRoutingDataSource(ReplicaHealthMonitor healthMonitor, MeterRegistry meterRegistry) {
+        this.healthMonitor = healthMonitor;
+        this.replicaReads = readCounter(meterRegistry, "replica", "healthy");
+        this.primaryReadsForced = readCounter(meterRegistry, PRIMARY, "read_your_writes");
+        this.primaryReadsNoReplica = readCounter(meterRegistry, PRIMARY, "no_healthy_replica");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        if (ReadRoutingContext.isPrimaryForced()) {
+            primaryReadsForced.increment();
+            return PRIMARY;
+        }
+        List<String> healthy = healthMonitor.healthyRoutes();
+        if (healthy.isEmpty()) {
+            primaryReadsNoReplica.increment();
+            return PRIMARY;
+        }
+        replicaReads.increment();
+        return healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size()));
+    }
+
+    private static Counter readCounter(MeterRegistry registry, String route, String reason) {
+        return Counter.builder("chat.datasource.reads")
+                .description("Read-only transactions by routing decision")
+                .tag("route", route)
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
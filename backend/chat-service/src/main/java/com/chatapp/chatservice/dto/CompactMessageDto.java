@@ -0,0 +1,35 @@
+package com.chatapp.chatservice.dto;
+
+import com.chatapp.chatservice.model.MessageStatus;
+import com.chatapp.chatservice.model.MessageType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// MessageDto for the compact history format: users by id only, timestamp in epoch millis, no nulls
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CompactMessageDto {
+
+    private Long id;
+
+    private Long senderId;
+
+    private Long receiverId;
+
+    private Long groupId;
+
+    private String content;
+
+    private Long timestamp;
+
+    private MessageType type;
+
+    private MessageStatus.Status status;
+
+}
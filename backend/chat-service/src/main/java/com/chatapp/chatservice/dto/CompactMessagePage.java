@@ -0,0 +1,72 @@
+package com.chatapp.chatservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A page of messages in the compact history format. Each user referenced by the page appears once
+ * in {@code users}; paging is reduced to the page number, size, total and whether more follow.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompactMessagePage {
+
+    private List<CompactMessageDto> messages;
+
+    private Map<Long, UserDto> users;
+
+    private int page;
+
+    private int size;
+
+    private long total;
+
+    private boolean last;
+
+    public static CompactMessagePage of(Page<MessageDto> page) {
+        List<CompactMessageDto> messages = new ArrayList<>(page.getNumberOfElements());
+        Map<Long, UserDto> users = new LinkedHashMap<>();
+        for (MessageDto message : page.getContent()) {
+            messages.add(CompactMessageDto.builder()
+                    .id(message.getId())
+                    .senderId(register(message.getSender(), users))
+                    .receiverId(register(message.getReceiver(), users))
+                    .groupId(message.getGroupId())
+                    .content(message.getContent())
+                    // Stored as server-local LocalDateTime, like OutboxRelay's created-at timestamps
+                    .timestamp(message.getTimestamp() != null
+                            ? message.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                            : null)
+                    .type(message.getType())
+                    .status(message.getStatus())
+                    .build());
+        }
+        return CompactMessagePage.builder()
+                .messages(messages)
+                .users(users)
+                .page(page.getNumber())
+                .size(page.getSize())
+                .total(page.getTotalElements())
+                .last(page.isLast())
+                .build();
+    }
+
+    private static Long register(UserDto user, Map<Long, UserDto> users) {
+        if (user == null || user.getId() == null) {
+            return null;
+        }
+        users.putIfAbsent(user.getId(), user);
+        return user.getId();
+    }
+}
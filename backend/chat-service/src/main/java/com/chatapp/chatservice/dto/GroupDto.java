@@ -1,11 +1,12 @@
 package com.chatapp.chatservice.dto;
 
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.Set;
+import java.util.List;
 
 @Data
 @Builder
@@ -19,10 +20,15 @@ public class GroupDto {
 
     private Long createdBy;
 
-    private Set<UserDto> users;
+    // Members are paged through GET /api/groups/{groupId}/members
+    private long memberCount;
 
     private String description;
 
     private String imageUrl;
 
+    // Optional on create: initial members, validated against the creator's contacts
+    @Size(max = GroupMembershipRequest.MAX_IDS, message = "at most 100 initial members; add more through /members")
+    private List<Long> memberIds;
+
 }
@@ -0,0 +1,26 @@
+package com.chatapp.chatservice.dto;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupMembershipRequest {
+
+    // Same cap as /summary: every list ends up in one IN clause
+    public static final int MAX_IDS = 100;
+
+    @Size(max = MAX_IDS, message = "at most 100 ids to add per request")
+    private List<Long> add;
+
+    @Size(max = MAX_IDS, message = "at most 100 ids to remove per request")
+    private List<Long> remove;
+
+}
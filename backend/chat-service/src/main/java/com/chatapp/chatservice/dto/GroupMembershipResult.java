@@ -0,0 +1,32 @@
+package com.chatapp.chatservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupMembershipResult {
+
+    private Long groupId;
+
+    // Ids that became members with this request
+    private List<Long> added;
+
+    // Requested additions that were members already; nothing is written for them
+    private List<Long> alreadyMembers;
+
+    // Ids that were members and got removed; non-members in the request are left out
+    private List<Long> removed;
+
+    // Ids that are not registered users or not contacts of the group creator
+    private List<Long> rejected;
+
+    private long memberCount;
+
+}
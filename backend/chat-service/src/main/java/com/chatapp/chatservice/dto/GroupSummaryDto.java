@@ -0,0 +1,22 @@
+package com.chatapp.chatservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupSummaryDto {
+
+    private Long id;
+
+    private String name;
+
+    private String imageUrl;
+
+    private long memberCount;
+
+}
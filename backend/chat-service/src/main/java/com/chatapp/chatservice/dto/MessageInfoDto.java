@@ -13,7 +13,11 @@ import java.util.List;
 @AllArgsConstructor
 public class MessageInfoDto {
 
-    private List<UserDto> readBy;
-    private List<UserDto> deliveredTo;
+    private long readCount;
+    private long deliveredCount;
+
+    // First page of each list; the rest is served by /messages/{id}/receipts
+    private List<MessageReceiptDto> readBy;
+    private List<MessageReceiptDto> deliveredTo;
 
 }
@@ -0,0 +1,25 @@
+package com.chatapp.chatservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Record on the messages-ingest topic: the delivered message as clients will see it, plus the
+ * group members that need delivery rows. Carries everything the persister needs to write the
+ * message without further lookups.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageIngestEvent {
+
+    private MessageDto message;
+
+    private List<Long> recipientIds;
+
+}
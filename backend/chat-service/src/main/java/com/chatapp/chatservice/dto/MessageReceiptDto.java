@@ -0,0 +1,25 @@
+package com.chatapp.chatservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageReceiptDto {
+
+    private Long id;
+
+    private String username;
+
+    private String profilePictureUrl;
+
+    // When the status was last changed (read time for READ receipts)
+    private LocalDateTime timestamp;
+
+}
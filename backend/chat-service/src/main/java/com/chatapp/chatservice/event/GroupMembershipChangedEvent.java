@@ -0,0 +1,6 @@
+package com.chatapp.chatservice.event;
+
+import com.chatapp.chatservice.dto.GroupMembershipResult;
+
+public record GroupMembershipChangedEvent(GroupMembershipResult result) {
+}
@@ -0,0 +1,21 @@
+package com.chatapp.chatservice.event;
+
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class GroupMembershipEventListener {
+
+    private final SimpMessageSendingOperations messagingTemplate;
+
+    public GroupMembershipEventListener(SimpMessageSendingOperations messagingTemplate) {
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    // One broadcast per bulk change, after the membership rows are committed
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMembershipChanged(GroupMembershipChangedEvent event) {
+        messagingTemplate.convertAndSend("/topic/" + event.result().getGroupId() + "/members", event.result());
+    }
+}
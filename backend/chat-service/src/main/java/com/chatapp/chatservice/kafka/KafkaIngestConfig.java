@@ -0,0 +1,128 @@
+package com.chatapp.chatservice.kafka;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+public class KafkaIngestConfig {
+
+    public static final String MESSAGES_INGEST_TOPIC = "messages-ingest";
+    public static final String MESSAGES_INGEST_DLT = MESSAGES_INGEST_TOPIC + ".DLT";
+    static final int INGEST_PARTITIONS = 6;
+
+    // Keyed by conversation, so partitions spread persister load while keeping per-chat order
+    @Bean
+    public NewTopic messagesIngestTopic() {
+        return TopicBuilder.name(MESSAGES_INGEST_TOPIC)
+                .partitions(INGEST_PARTITIONS)
+                .build();
+    }
+
+    // Same partition count: the recoverer publishes to the failed record's partition
+    @Bean
+    public NewTopic messagesIngestDeadLetterTopic() {
+        return TopicBuilder.name(MESSAGES_INGEST_DLT)
+                .partitions(INGEST_PARTITIONS)
+                .build();
+    }
+
+    /**
+     * Batch listener for the persister. The persister reports the failing record with
+     * BatchListenerFailedException, so records before it are committed and only that record is
+     * retried. Transient database failures (MySQL down, lock timeouts) are retried forever, since
+     * the topic is the only copy until MySQL has it; anything else gets {@code max-attempts} and is
+     * then parked on {@value #MESSAGES_INGEST_DLT}, so one poison record can't stall its partition.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> ingestListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer, ConsumerFactory<Object, Object> kafkaConsumerFactory,
+            KafkaProperties kafkaProperties,
+            @Value("${chat.ingest.retry-interval-ms:1000}") long retryIntervalMs,
+            @Value("${chat.ingest.max-attempts:3}") int maxAttempts) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, kafkaConsumerFactory);
+        factory.setBatchListener(true);
+        factory.setCommonErrorHandler(ingestErrorHandler(deadLetterTemplate(kafkaProperties.buildProducerProperties()),
+                retryIntervalMs, maxAttempts));
+        return factory;
+    }
+
+    static DefaultErrorHandler ingestErrorHandler(KafkaOperations<Object, Object> deadLetterTemplate,
+                                                  long retryIntervalMs, int maxAttempts) {
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(deadLetterTemplate);
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(recoverer, new FixedBackOff(retryIntervalMs, maxAttempts - 1L));
+        errorHandler.setBackOffFunction((record, exception) -> backOffFor(exception, retryIntervalMs, maxAttempts));
+        return errorHandler;
+    }
+
+    static BackOff backOffFor(Exception exception, long retryIntervalMs, int maxAttempts) {
+        if (hasCause(exception, DeserializationException.class)) {
+            return new FixedBackOff(0L, 0L);
+        }
+        if (isTransient(exception)) {
+            return new FixedBackOff(retryIntervalMs, FixedBackOff.UNLIMITED_ATTEMPTS);
+        }
+        return new FixedBackOff(retryIntervalMs, maxAttempts - 1L);
+    }
+
+    static boolean isTransient(Throwable exception) {
+        return hasCause(exception, TransientDataAccessException.class)
+                || hasCause(exception, RecoverableDataAccessException.class)
+                || hasCause(exception, DataAccessResourceFailureException.class)
+                || hasCause(exception, CannotCreateTransactionException.class)
+                || hasCause(exception, SQLTransientException.class)
+                || hasCause(exception, SQLRecoverableException.class);
+    }
+
+    private static boolean hasCause(Throwable exception, Class<? extends Throwable> type) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Records that failed deserialization are republished as their original bytes, the rest as JSON
+    static KafkaTemplate<Object, Object> deadLetterTemplate(Map<String, Object> producerProperties) {
+        Map<Class<?>, Serializer<?>> valueSerializers = new LinkedHashMap<>();
+        valueSerializers.put(byte[].class, new ByteArraySerializer());
+        valueSerializers.put(Object.class, new JsonSerializer<>());
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(producerProperties,
+                castSerializer(new StringSerializer()), new DelegatingByTypeSerializer(valueSerializers, true)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Serializer<Object> castSerializer(Serializer<?> serializer) {
+        return (Serializer<Object>) serializer;
+    }
+}
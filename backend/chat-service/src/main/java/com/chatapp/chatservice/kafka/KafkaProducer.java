@@ -1,32 +1,88 @@
 package com.chatapp.chatservice.kafka;
 
-import com.chatapp.chatservice.dto.MessageDto;
-import com.chatapp.chatservice.dto.ReadReceipt;
+import com.chatapp.chatservice.dto.MessageIngestEvent;
+import com.chatapp.chatservice.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous sends with a bound on unacknowledged records. A caller that finds all
+ * {@code max-in-flight} slots taken waits up to {@code acquire-timeout-ms} and then gets a
+ * {@link ServiceBusyException}, so a slow broker pushes back on request threads instead of filling
+ * the producer buffer. Every send is timed per topic; failures are logged without the payload.
+ */
 @Component
 public class KafkaProducer {
 
     private static final Logger logger = LoggerFactory.getLogger(KafkaProducer.class);
-    private static final String MESSAGES_TOPIC = "messages";
-    private static final String READ_RECEIPTS_TOPIC = "read-receipts";
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final KafkaSendMetrics sendMetrics;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final long acquireTimeoutMs;
 
-    public KafkaProducer(KafkaTemplate<String, Object> kafkaTemplate) {
+    public KafkaProducer(KafkaTemplate<String, Object> kafkaTemplate, KafkaSendMetrics sendMetrics,
+                         KafkaProducerProperties producerProperties, MeterRegistry meterRegistry) {
         this.kafkaTemplate = kafkaTemplate;
+        this.sendMetrics = sendMetrics;
+        this.maxInFlight = producerProperties.getMaxInFlight();
+        this.acquireTimeoutMs = producerProperties.getAcquireTimeoutMs();
+        this.inFlight = new Semaphore(maxInFlight);
+        Gauge.builder("chat.kafka.producer.in.flight", inFlight, s -> maxInFlight - s.availablePermits())
+                .description("Sends awaiting a broker acknowledgement")
+                .register(meterRegistry);
+    }
+
+    // Keyed by conversation so one chat's messages stay ordered within a partition
+    public CompletableFuture<SendResult<String, Object>> sendIngest(String key, MessageIngestEvent event) {
+        logger.debug("#### -> Producing ingest record key={} id={}", key, event.getMessage().getId());
+        return send(KafkaIngestConfig.MESSAGES_INGEST_TOPIC, key, event);
     }
 
-    public void sendMessage(MessageDto messageDto) {
-        logger.info(String.format("#### -> Producing message -> %s", messageDto));
-        this.kafkaTemplate.send(MESSAGES_TOPIC, messageDto);
+    /**
+     * Sends one record; the future completes with the broker acknowledgement. Throws
+     * {@link ServiceBusyException} if no in-flight slot frees up in time.
+     */
+    public CompletableFuture<SendResult<String, Object>> send(String topic, String key, Object value) {
+        acquire(topic);
+        long start = System.nanoTime();
+        CompletableFuture<SendResult<String, Object>> future;
+        try {
+            future = kafkaTemplate.send(topic, key, value);
+        } catch (RuntimeException e) {
+            inFlight.release();
+            sendMetrics.record(topic, start, e);
+            logger.warn("#### -> Send failed topic={} key={}: {}", topic, key, e.toString());
+            throw e;
+        }
+        return future.whenComplete((result, error) -> {
+            inFlight.release();
+            sendMetrics.record(topic, start, error);
+            if (error != null) {
+                logger.warn("#### -> Send failed topic={} key={}: {}", topic, key, KafkaSendMetrics.rootCause(error).toString());
+            }
+        });
     }
 
-    public void sendReadReceipt(ReadReceipt readReceipt) {
-        logger.info(String.format("#### -> Producing read receipt -> %s", readReceipt));
-        this.kafkaTemplate.send(READ_RECEIPTS_TOPIC, readReceipt);
+    private void acquire(String topic) {
+        try {
+            if (!inFlight.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                logger.warn("#### -> Producer saturated topic={} inFlight={}", topic, maxInFlight);
+                throw new ServiceBusyException("Too many messages in flight, please retry");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Interrupted while waiting to publish");
+        }
     }
 }
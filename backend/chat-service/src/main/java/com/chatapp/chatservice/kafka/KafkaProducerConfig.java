@@ -0,0 +1,30 @@
+package com.chatapp.chatservice.kafka;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.MicrometerProducerListener;
+import org.springframework.kafka.core.ProducerFactory;
+
+/**
+ * Replaces the auto-configured producer factory so the shared KafkaTemplate picks up the
+ * chat.kafka.producer compression and batching settings.
+ */
+@Configuration
+@EnableConfigurationProperties(KafkaProducerProperties.class)
+public class KafkaProducerConfig {
+
+    @Bean
+    public ProducerFactory<String, Object> kafkaProducerFactory(KafkaProperties kafkaProperties,
+                                                                KafkaProducerProperties producerProperties,
+                                                                MeterRegistry meterRegistry) {
+        DefaultKafkaProducerFactory<String, Object> factory =
+                new DefaultKafkaProducerFactory<>(producerProperties.apply(kafkaProperties.buildProducerProperties()));
+        // Boot only binds kafka.producer.* client metrics on the factory it creates itself
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
+    }
+}
@@ -0,0 +1,37 @@
+package com.chatapp.chatservice.kafka;
+
+import lombok.Data;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "chat.kafka.producer")
+public class KafkaProducerProperties {
+
+    public enum Compression {
+        NONE, GZIP, SNAPPY, LZ4, ZSTD
+    }
+
+    private Compression compression = Compression.LZ4;
+
+    // How long the producer waits to fill a batch; trades a few ms of latency for fewer, larger requests
+    private int lingerMs = 5;
+
+    private int batchSizeBytes = 64 * 1024;
+
+    // Sends handed to KafkaProducer but not yet acknowledged; callers wait beyond this
+    private int maxInFlight = 1000;
+
+    // How long a caller waits for an in-flight slot before the send is rejected as busy
+    private long acquireTimeoutMs = 500;
+
+    /** Applies the batching and compression settings on top of spring.kafka.producer.* properties. */
+    public Map<String, Object> apply(Map<String, Object> config) {
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression.name().toLowerCase());
+        config.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSizeBytes);
+        return config;
+    }
+}
@@ -0,0 +1,58 @@
+package com.chatapp.chatservice.kafka;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-topic send latency ({@code chat.kafka.producer.send}, tagged with the outcome) and error
+ * counts ({@code chat.kafka.producer.errors}, tagged with the exception type).
+ */
+@Component
+public class KafkaSendMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> successTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> errorTimers = new ConcurrentHashMap<>();
+
+    public KafkaSendMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** Records a send that started at {@code startNanos}; {@code error} is null on success. */
+    public void record(String topic, long startNanos, Throwable error) {
+        long elapsed = System.nanoTime() - startNanos;
+        if (error == null) {
+            successTimers.computeIfAbsent(topic, t -> timer(t, "success")).record(elapsed, TimeUnit.NANOSECONDS);
+            return;
+        }
+        errorTimers.computeIfAbsent(topic, t -> timer(t, "error")).record(elapsed, TimeUnit.NANOSECONDS);
+        Counter.builder("chat.kafka.producer.errors")
+                .tag("topic", topic)
+                .tag("exception", rootCause(error).getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    static Throwable rootCause(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private Timer timer(String topic, String outcome) {
+        return Timer.builder("chat.kafka.producer.send")
+                .description("Time from send to broker acknowledgement")
+                .tag("topic", topic)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
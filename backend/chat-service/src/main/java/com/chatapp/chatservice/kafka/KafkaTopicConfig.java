@@ -8,15 +8,18 @@ import org.springframework.kafka.config.TopicBuilder;
 @Configuration
 public class KafkaTopicConfig {
 
+    public static final String MESSAGES_TOPIC = "messages";
+    public static final String READ_RECEIPTS_TOPIC = "read-receipts";
+
     @Bean
     public NewTopic messagesTopic() {
-        return TopicBuilder.name("messages")
+        return TopicBuilder.name(MESSAGES_TOPIC)
                 .build();
     }
 
     @Bean
     public NewTopic readReceiptsTopic() {
-        return TopicBuilder.name("read-receipts")
+        return TopicBuilder.name(READ_RECEIPTS_TOPIC)
                 .build();
     }
 }
@@ -0,0 +1,132 @@
+package com.chatapp.chatservice.kafka;
+
+import com.chatapp.chatservice.dao.MessageDao;
+import com.chatapp.chatservice.dao.MessageStatusDao;
+import com.chatapp.chatservice.dto.MessageDto;
+import com.chatapp.chatservice.dto.MessageIngestEvent;
+import com.chatapp.chatservice.model.Message;
+import com.chatapp.chatservice.model.MessageStatus;
+import com.chatapp.chatservice.service.ResourceVersionService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Write-behind persister for the Kafka-first ingest mode. Each poll is written in one transaction
+ * with INSERT IGNORE, and offsets are committed only after it returns, so a crash or rebalance
+ * replays the batch and the replay is a no-op for rows that already made it. When the batch
+ * insert fails, records are written one by one and the first failing one is reported to the
+ * error handler (see {@link KafkaIngestConfig}), which retries or dead-letters just that record.
+ */
+@Component
+@Slf4j
+public class MessageIngestPersister {
+
+    private final MessageDao messageDao;
+    private final MessageStatusDao messageStatusDao;
+    private final TransactionTemplate transactionTemplate;
+    private final ResourceVersionService resourceVersionService;
+
+    public MessageIngestPersister(MessageDao messageDao, MessageStatusDao messageStatusDao, TransactionTemplate transactionTemplate,
+                                  ResourceVersionService resourceVersionService) {
+        this.messageDao = messageDao;
+        this.messageStatusDao = messageStatusDao;
+        this.transactionTemplate = transactionTemplate;
+        this.resourceVersionService = resourceVersionService;
+    }
+
+    @KafkaListener(topics = KafkaIngestConfig.MESSAGES_INGEST_TOPIC, groupId = "message-persister",
+            containerFactory = "ingestListenerContainerFactory")
+    public void persist(List<ConsumerRecord<String, MessageIngestEvent>> records) {
+        List<MessageIngestEvent> events = new ArrayList<>(records.size());
+        int unreadable = -1;
+        for (int i = 0; i < records.size() && unreadable < 0; i++) {
+            MessageIngestEvent event = records.get(i).value();
+            // ErrorHandlingDeserializer leaves the value null when the payload could not be read
+            if (event == null || event.getMessage() == null) {
+                unreadable = i;
+            } else {
+                events.add(event);
+            }
+        }
+        // Records ahead of the failed one are committed by the error handler, so write them first
+        persistAll(events);
+        if (unreadable >= 0) {
+            throw new BatchListenerFailedException("Unreadable ingest record",
+                    new DeserializationException("Unreadable ingest record", null, false, null), unreadable);
+        }
+    }
+
+    private void persistAll(List<MessageIngestEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        try {
+            write(events);
+        } catch (RuntimeException e) {
+            log.warn("MessageIngestPersister.persist batch of {} failed, writing one by one: {}", events.size(), e.getMessage());
+            for (int i = 0; i < events.size(); i++) {
+                try {
+                    write(List.of(events.get(i)));
+                } catch (RuntimeException recordFailure) {
+                    throw new BatchListenerFailedException("Cannot persist message " + events.get(i).getMessage().getId(),
+                            recordFailure, i);
+                }
+            }
+        }
+    }
+
+    private void write(List<MessageIngestEvent> events) {
+        List<Message> messages = new ArrayList<>(events.size());
+        List<MessageStatus> statuses = new ArrayList<>();
+        // Conversation lists to invalidate once the batch is in MySQL; in this mode the send returned earlier
+        Set<Long> participants = new HashSet<>();
+        for (MessageIngestEvent event : events) {
+            MessageDto dto = event.getMessage();
+            messages.add(Message.builder()
+                    .id(dto.getId())
+                    .senderId(dto.getSender().getId())
+                    .receiverId(dto.getReceiver() != null ? dto.getReceiver().getId() : null)
+                    .groupId(dto.getGroupId())
+                    .content(dto.getContent())
+                    .timestamp(dto.getTimestamp())
+                    .status(dto.getStatus())
+                    .build());
+            participants.add(dto.getSender().getId());
+            if (dto.getReceiver() != null) {
+                participants.add(dto.getReceiver().getId());
+            }
+            if (event.getRecipientIds() != null) {
+                participants.addAll(event.getRecipientIds());
+                for (Long userId : event.getRecipientIds()) {
+                    statuses.add(MessageStatus.builder()
+                            .messageId(dto.getId())
+                            .userId(userId)
+                            .status(MessageStatus.Status.DELIVERED)
+                            .updatedAt(dto.getTimestamp())
+                            .build());
+                }
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            messageDao.insertAllIgnoringDuplicates(messages);
+            messageStatusDao.insertAllIgnoringDuplicates(statuses);
+        });
+        // The rows are durable at this point; a replay for a missed bump would only repeat the insert
+        try {
+            resourceVersionService.conversationsChanged(participants);
+        } catch (RuntimeException e) {
+            log.warn("MessageIngestPersister.persist version bump failed: {}", e.getMessage());
+        }
+        log.debug("MessageIngestPersister.persist messages={} statuses={}", messages.size(), statuses.size());
+    }
+}
@@ -1,8 +1,12 @@
 package com.chatapp.chatservice.kafka;
 
 import com.chatapp.chatservice.dto.MessageDto;
+import com.chatapp.chatservice.dto.MessageIngestEvent;
 import com.chatapp.chatservice.dto.ReadReceipt;
+import com.chatapp.chatservice.metrics.MessageLatencyMetrics;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.stereotype.Component;
 
@@ -10,13 +14,28 @@ import org.springframework.stereotype.Component;
 public class MessageListener {
 
     private final SimpMessageSendingOperations messagingTemplate;
+    private final MessageLatencyMetrics latencyMetrics;
 
-    public MessageListener(SimpMessageSendingOperations messagingTemplate) {
+    public MessageListener(SimpMessageSendingOperations messagingTemplate, MessageLatencyMetrics latencyMetrics) {
         this.messagingTemplate = messagingTemplate;
+        this.latencyMetrics = latencyMetrics;
     }
 
     @KafkaListener(topics = "messages", groupId = "messaging-group")
-    public void listenMessages(MessageDto messageDto) {
+    public void listenMessages(MessageDto messageDto, @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long producedAt) {
+        latencyMetrics.recordSinceEpochMillis(MessageLatencyMetrics.Stage.CONSUMED, producedAt);
+        deliver(messageDto);
+    }
+
+    // Kafka-first ingest mode: deliver straight from the ingest topic, in parallel with the persister
+    @KafkaListener(topics = KafkaIngestConfig.MESSAGES_INGEST_TOPIC, groupId = "messaging-ingest-delivery")
+    public void listenIngestedMessages(MessageIngestEvent event, @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long producedAt) {
+        latencyMetrics.recordSinceEpochMillis(MessageLatencyMetrics.Stage.CONSUMED, producedAt);
+        deliver(event.getMessage());
+    }
+
+    private void deliver(MessageDto messageDto) {
+        long receivedAt = System.nanoTime();
         if (messageDto.getGroupId() != null) {
             messagingTemplate.convertAndSend("/topic/" + messageDto.getGroupId(), messageDto);
         } else {
@@ -29,6 +48,8 @@ public class MessageListener {
                 messagingTemplate.convertAndSendToUser(messageDto.getSender().getUsername(), "/queue/reply", messageDto);
             }
         }
+        latencyMetrics.record(MessageLatencyMetrics.Stage.DISPATCHED, receivedAt);
+        latencyMetrics.recordEndToEnd(messageDto.getId());
     }
 
     @KafkaListener(topics = "read-receipts", groupId = "messaging-group")
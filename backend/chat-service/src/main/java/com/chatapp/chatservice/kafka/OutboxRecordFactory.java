@@ -0,0 +1,37 @@
+package com.chatapp.chatservice.kafka;
+
+import com.chatapp.chatservice.model.MessageOutbox;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Serializes a Kafka payload into an outbox row. The relay publishes the stored JSON as-is with
+ * the payload type as the JsonDeserializer type header, so consumers see the same record the
+ * JsonSerializer used to produce.
+ */
+@Component
+public class OutboxRecordFactory {
+
+    private final ObjectMapper objectMapper;
+
+    public OutboxRecordFactory(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public MessageOutbox create(String topic, String key, Object payload) {
+        try {
+            return MessageOutbox.builder()
+                    .topic(topic)
+                    .recordKey(key)
+                    .payloadType(payload.getClass().getName())
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .createdAt(LocalDateTime.now())
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize outbox payload " + payload.getClass().getName(), e);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.chatapp.chatservice.kafka;
+
+import com.chatapp.chatservice.dao.OutboxDao;
+import com.chatapp.chatservice.metrics.MessageLatencyMetrics;
+import com.chatapp.chatservice.model.MessageOutbox;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes message_outbox rows to Kafka. Each poll claims a batch in a short transaction (SKIP
+ * LOCKED plus a lease, so several instances can relay side by side), then sends it outside the
+ * transaction through a producer tuned by chat.kafka.producer, waits for the acks and marks the
+ * delivered rows sent in one UPDATE. Rows that did not go out are released for the next poll,
+ * together with any later rows of the same record key so that a key's records are not marked
+ * sent past one that failed. The batch size bounds the relay's in-flight sends.
+ * Delivery is at-least-once: a crash between the acks and the UPDATE republishes the batch once
+ * its lease expires.
+ * The relay polls on its own thread so it neither waits behind nor delays the @Scheduled jobs.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxDao outboxDao;
+    private final TransactionTemplate transactionTemplate;
+    private final DefaultKafkaProducerFactory<String, byte[]> relayProducerFactory;
+    private final KafkaTemplate<String, byte[]> relayTemplate;
+    private final KafkaSendMetrics sendMetrics;
+    private final MessageLatencyMetrics latencyMetrics;
+    private final int batchSize;
+    private final long intervalMs;
+    private final long sendTimeoutMs;
+    private final long leaseMs;
+    private final long retentionMs;
+    private final ScheduledExecutorService executor;
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter published;
+    private final Timer batchLatency;
+
+    public OutboxRelay(OutboxDao outboxDao, TransactionTemplate transactionTemplate, KafkaProperties kafkaProperties,
+                       KafkaProducerProperties producerProperties, KafkaSendMetrics sendMetrics,
+                       MessageLatencyMetrics latencyMetrics, MeterRegistry meterRegistry,
+                       @Value("${chat.outbox.batch-size:500}") int batchSize,
+                       @Value("${chat.outbox.interval-ms:20}") long intervalMs,
+                       @Value("${chat.outbox.send-timeout-ms:10000}") long sendTimeoutMs,
+                       @Value("${chat.outbox.lease-ms:60000}") long leaseMs,
+                       @Value("${chat.outbox.retention-ms:3600000}") long retentionMs) {
+        if (leaseMs <= 2 * sendTimeoutMs) {
+            throw new IllegalArgumentException("chat.outbox.lease-ms must be more than twice chat.outbox.send-timeout-ms");
+        }
+        this.outboxDao = outboxDao;
+        this.transactionTemplate = transactionTemplate;
+        this.sendMetrics = sendMetrics;
+        this.latencyMetrics = latencyMetrics;
+        this.batchSize = batchSize;
+        this.intervalMs = intervalMs;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.leaseMs = leaseMs;
+        this.retentionMs = retentionMs;
+
+        Map<String, Object> config = producerProperties.apply(kafkaProperties.buildProducerProperties());
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        // Bound how long a claimed batch can wait on Kafka, so it finishes well inside its lease
+        config.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, sendTimeoutMs);
+        config.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, (int) sendTimeoutMs);
+        config.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG,
+                (int) Math.max(1, Math.min(30_000, sendTimeoutMs - producerProperties.getLingerMs())));
+        this.relayProducerFactory = new DefaultKafkaProducerFactory<>(config);
+        this.relayProducerFactory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        this.relayTemplate = new KafkaTemplate<>(relayProducerFactory);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.published = Counter.builder("chat.outbox.relay.published").register(meterRegistry);
+        this.batchLatency = Timer.builder("chat.outbox.relay.batch")
+                .description("Claim, publish and mark one outbox batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("chat.outbox.relay.lag", lagMillis, AtomicLong::get)
+                .description("Age of the oldest row in the last relayed batch")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        executor.scheduleWithFixedDelay(this::relay, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    // An exception escaping a scheduleWithFixedDelay task would cancel every later poll
+    void relay() {
+        try {
+            int relayed;
+            do {
+                long start = System.nanoTime();
+                relayed = relayBatch();
+                if (relayed > 0) {
+                    batchLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+                // Keep draining while full batches go out cleanly; back off to the poll interval otherwise
+            } while (relayed == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("OutboxRelay.relay failed: {}", e.toString());
+        }
+    }
+
+    private int relayBatch() {
+        List<MessageOutbox> batch = claimBatch();
+        if (batch.isEmpty()) {
+            lagMillis.set(0);
+            return 0;
+        }
+        lagMillis.set(Duration.between(batch.get(0).getCreatedAt(), LocalDateTime.now()).toMillis());
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (MessageOutbox record : batch) {
+            ProducerRecord<String, byte[]> producerRecord = new ProducerRecord<>(record.getTopic(), record.getRecordKey(),
+                    record.getPayload().getBytes(StandardCharsets.UTF_8));
+            producerRecord.headers().add(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME,
+                    record.getPayloadType().getBytes(StandardCharsets.UTF_8));
+            long start = System.nanoTime();
+            CompletableFuture<?> send = relayTemplate.send(producerRecord)
+                    .whenComplete((result, error) -> {
+                        sendMetrics.record(record.getTopic(), start, error);
+                        if (error == null && KafkaTopicConfig.MESSAGES_TOPIC.equals(record.getTopic())) {
+                            latencyMetrics.recordSinceEpochMillis(MessageLatencyMetrics.Stage.KAFKA_ACKED,
+                                    record.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+                        }
+                    });
+            sends.add(send);
+            // Failed before reaching the broker (no metadata, buffer full): the rest would block max.block.ms each
+            if (send.isCompletedExceptionally()) {
+                break;
+            }
+        }
+        relayTemplate.flush();
+
+        List<Long> sent = new ArrayList<>(batch.size());
+        List<Long> unsent = new ArrayList<>();
+        Set<String> failedKeys = new HashSet<>();
+        boolean interrupted = false;
+        for (int i = 0; i < batch.size(); i++) {
+            MessageOutbox record = batch.get(i);
+            boolean acked = false;
+            if (i < sends.size() && !interrupted) {
+                try {
+                    sends.get(i).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+                    acked = true;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    interrupted = true;
+                } catch (Exception e) {
+                    // Released and retried on a later poll; counted in chat.kafka.producer.errors
+                    log.warn("OutboxRelay.relayBatch publish failed id={} topic={}: {}", record.getId(),
+                            record.getTopic(), KafkaSendMetrics.rootCause(e).toString());
+                }
+            }
+            // Once a key fails its later rows are republished after it, even if they were acked now
+            boolean keyFailed = record.getRecordKey() != null && failedKeys.contains(record.getRecordKey());
+            if (acked && !keyFailed) {
+                sent.add(record.getId());
+            } else {
+                unsent.add(record.getId());
+                if (record.getRecordKey() != null) {
+                    failedKeys.add(record.getRecordKey());
+                }
+            }
+        }
+        outboxDao.markSent(sent, LocalDateTime.now());
+        outboxDao.release(unsent);
+        published.increment(sent.size());
+        return sent.size();
+    }
+
+    // Row locks are held only for the claim; the sends happen after this transaction has committed
+    private List<MessageOutbox> claimBatch() {
+        List<MessageOutbox> batch = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            return outboxDao.claimPending(batchSize, now, now.plusNanos(leaseMs * 1_000_000));
+        });
+        return batch != null ? batch : new ArrayList<>();
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(sendTimeoutMs * 2, TimeUnit.MILLISECONDS);
+        relayProducerFactory.destroy();
+    }
+
+    @Scheduled(fixedDelayString = "${chat.outbox.cleanup-interval-ms:60000}")
+    public void purgeSent() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(retentionMs));
+        int deleted;
+        do {
+            deleted = outboxDao.deleteSentBefore(cutoff, 5000);
+        } while (deleted == 5000);
+    }
+}
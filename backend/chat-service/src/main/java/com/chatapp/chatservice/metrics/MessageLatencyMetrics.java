@@ -0,0 +1,79 @@
+package com.chatapp.chatservice.metrics;
+
+import com.chatapp.chatservice.util.SnowflakeIdGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a message through the send pipeline, one timer per stage
+ * ({@code chat.message.latency{stage=...}}) plus {@code chat.message.latency.end_to_end}.
+ * <p>
+ * Stages that cross a process boundary are measured against wall-clock timestamps (the outbox
+ * row, the Kafka record, the Snowflake id), so they include clock skew between instances.
+ */
+@Component
+public class MessageLatencyMetrics {
+
+    public enum Stage {
+        /** Request received until validation is done and the id is assigned. */
+        ACCEPTED("accepted"),
+        /** Id assigned until the group commit (direct mode) or the ingest ack (Kafka mode). */
+        COMMITTED("committed"),
+        /** Outbox row written until the broker acknowledged the relayed record. */
+        KAFKA_ACKED("kafka_acked"),
+        /** Record produced until a listener received it. */
+        CONSUMED("consumed"),
+        /** Listener received the record until it was handed to the STOMP broker. */
+        DISPATCHED("dispatched");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final Map<Stage, Timer> stages = new EnumMap<>(Stage.class);
+    private final Timer endToEnd;
+
+    public MessageLatencyMetrics(MeterRegistry meterRegistry) {
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, timer("chat.message.latency", "Time spent in one stage of the send pipeline")
+                    .tag("stage", stage.tag)
+                    .register(meterRegistry));
+        }
+        this.endToEnd = timer("chat.message.latency.end_to_end", "Id assignment until STOMP dispatch")
+                .register(meterRegistry);
+    }
+
+    public void record(Stage stage, long startNanos) {
+        stages.get(stage).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSinceEpochMillis(Stage stage, long startEpochMillis) {
+        stages.get(stage).record(Math.max(0, System.currentTimeMillis() - startEpochMillis), TimeUnit.MILLISECONDS);
+    }
+
+    /** End-to-end latency, starting at the instant encoded in the message's Snowflake id. */
+    public void recordEndToEnd(Long messageId) {
+        if (messageId != null) {
+            long elapsed = System.currentTimeMillis() - SnowflakeIdGenerator.timestampOf(messageId);
+            endToEnd.record(Math.max(0, elapsed), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static Timer.Builder timer(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30));
+    }
+}
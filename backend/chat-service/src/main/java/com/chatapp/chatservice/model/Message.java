@@ -1,5 +1,6 @@
 package com.chatapp.chatservice.model;
 
+import com.chatapp.chatservice.util.SnowflakeId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -16,8 +17,9 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Message {
 
+    // Time-ordered, so ordering and cursors can use the id instead of the non-unique timestamp
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
 
     private Long senderId;
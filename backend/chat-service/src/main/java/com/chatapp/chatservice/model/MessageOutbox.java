@@ -0,0 +1,52 @@
+package com.chatapp.chatservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Kafka record waiting to be published, written in the same transaction as the change it
+ * announces. Rows are read and written through OutboxDao; the entity only defines the table.
+ */
+@Entity
+@Table(name = "message_outbox", indexes = {
+        @Index(name = "idx_message_outbox_pending", columnList = "sentAt, id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String topic;
+
+    private String recordKey;
+
+    // Fully qualified class name, sent as the JsonDeserializer type header
+    private String payloadType;
+
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+
+    // Set while a relay is publishing the row; another relay may claim it once this has passed
+    private LocalDateTime leaseUntil;
+
+}
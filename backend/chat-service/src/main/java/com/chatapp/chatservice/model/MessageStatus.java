@@ -5,6 +5,7 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
 import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -12,10 +13,13 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
+import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
-@Table(name = "message_status")
+@Table(name = "message_status", indexes = {
+        @Index(name = "idx_message_status_receipts", columnList = "messageId, status, updatedAt")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -32,6 +36,9 @@ public class MessageStatus {
     @Enumerated(EnumType.STRING)
     private Status status;
 
+    // Time of the last status change; orders the message info reader lists
+    private LocalDateTime updatedAt;
+
     public enum Status {
         DELIVERED,
         READ
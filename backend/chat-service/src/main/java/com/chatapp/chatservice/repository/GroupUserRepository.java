@@ -11,4 +11,6 @@ public interface GroupUserRepository extends JpaRepository<GroupUser, GroupUser.
 
     List<GroupUser> findByGroupId(Long groupId);
 
+    long countByGroupId(Long groupId);
+
 }
@@ -4,32 +4,35 @@ import com.chatapp.chatservice.model.Message;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.stereotype.Repository;
 
 import com.chatapp.chatservice.model.MessageStatus;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
 
-    Page<Message> findBySenderIdAndReceiverIdOrReceiverIdAndSenderIdOrderByTimestampAsc(
+    Page<Message> findBySenderIdAndReceiverIdOrReceiverIdAndSenderIdOrderByIdAsc(
             Long senderId, Long receiverId, Long senderId2, Long receiverId2, Pageable pageable);
 
-    Page<Message> findByGroupIdOrderByTimestampAsc(Long groupId, Pageable pageable);
+    Page<Message> findByGroupIdOrderByIdAsc(Long groupId, Pageable pageable);
 
-    Page<Message> findBySenderIdAndReceiverIdOrReceiverIdAndSenderIdOrderByTimestampDesc(
+    Page<Message> findBySenderIdAndReceiverIdOrReceiverIdAndSenderIdOrderByIdDesc(
             Long senderId, Long receiverId, Long senderId2, Long receiverId2, Pageable pageable);
 
-    Page<Message> findByGroupIdOrderByTimestampDesc(Long groupId, Pageable pageable);
+    Page<Message> findByGroupIdOrderByIdDesc(Long groupId, Pageable pageable);
 
-    @Query("SELECT m FROM Message m WHERE (m.senderId = :userId1 AND m.receiverId = :userId2) OR (m.senderId = :userId2 AND m.receiverId = :userId1) ORDER BY m.timestamp DESC")
+    @Query("SELECT m FROM Message m WHERE (m.senderId = :userId1 AND m.receiverId = :userId2) OR (m.senderId = :userId2 AND m.receiverId = :userId1) ORDER BY m.id DESC")
     List<Message> findLastPrivateMessage(@Param("userId1") Long userId1, @Param("userId2") Long userId2, Pageable pageable);
 
-    @Query("SELECT m FROM Message m WHERE m.groupId = :groupId ORDER BY m.timestamp DESC")
+    @Query("SELECT m FROM Message m WHERE m.groupId = :groupId ORDER BY m.id DESC")
     List<Message> findLastGroupMessage(@Param("groupId") Long groupId, Pageable pageable);
 
     // Count only messages sent by :senderId to :receiverId with given status (don't count current user's own messages)
@@ -41,6 +44,14 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
            "((((m.senderId = :userId OR m.receiverId = :userId) AND m.groupId IS NULL) OR " +
            "(m.groupId IN (SELECT gu.groupId FROM GroupUser gu WHERE gu.userId = :userId))) " +
            "AND LOWER(m.content) LIKE LOWER(CONCAT('%', :query, '%'))) " +
-           "ORDER BY m.timestamp DESC")
+           "ORDER BY m.id DESC")
     Page<Message> searchMessages(@Param("userId") Long userId, @Param("query") String query, Pageable pageable);
+
+    // Oldest first; ids are time-ordered so the scan stops early on the primary key
+    @Query("SELECT m FROM Message m WHERE m.timestamp < :cutoff ORDER BY m.id ASC")
+    List<Message> findArchivable(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Message m WHERE m.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
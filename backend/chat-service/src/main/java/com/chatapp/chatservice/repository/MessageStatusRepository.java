@@ -2,8 +2,10 @@ package com.chatapp.chatservice.repository;
 
 import com.chatapp.chatservice.model.MessageStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.Query;
@@ -14,7 +16,13 @@ public interface MessageStatusRepository extends JpaRepository<MessageStatus, Me
 
     List<MessageStatus> findByMessageId(Long messageId);
 
+    List<MessageStatus> findByMessageIdIn(Collection<Long> messageIds);
+
     @Query("SELECT COUNT(ms) FROM MessageStatus ms JOIN Message m ON ms.messageId = m.id WHERE m.groupId = :groupId AND ms.userId = :userId AND ms.status = :status")
     long countByGroupIdAndUserIdAndStatus(@Param("groupId") Long groupId, @Param("userId") Long userId, @Param("status") MessageStatus.Status status);
 
+    @Modifying
+    @Query("DELETE FROM MessageStatus ms WHERE ms.messageId IN :messageIds")
+    int deleteByMessageIdIn(@Param("messageIds") Collection<Long> messageIds);
+
 }
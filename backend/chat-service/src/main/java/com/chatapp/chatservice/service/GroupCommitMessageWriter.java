@@ -0,0 +1,225 @@
+package com.chatapp.chatservice.service;
+
+import com.chatapp.chatservice.dao.MessageDao;
+import com.chatapp.chatservice.dao.MessageStatusDao;
+import com.chatapp.chatservice.dao.OutboxDao;
+import com.chatapp.chatservice.exception.InvalidRequestException;
+import com.chatapp.chatservice.exception.ServiceBusyException;
+import com.chatapp.chatservice.model.Message;
+import com.chatapp.chatservice.model.MessageOutbox;
+import com.chatapp.chatservice.model.MessageStatus;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group-commit writer for new messages. Senders enqueue and wait on a future; a single writer
+ * thread collects up to {@code flush-size} messages or waits at most {@code linger-us} after the
+ * first one, then inserts the whole batch (messages, group delivery rows and their outbox records)
+ * in one transaction, so a burst of sends shares one commit instead of paying one each.
+ * Messages are validated before they are queued; if a batch still fails, its writes are retried
+ * one transaction each so only the offending sender sees the error.
+ */
+@Component
+@Slf4j
+public class GroupCommitMessageWriter {
+
+    // messages.content is VARCHAR(255), which MySQL counts in characters
+    public static final int MAX_CONTENT_LENGTH = 255;
+
+    private final MessageDao messageDao;
+    private final MessageStatusDao messageStatusDao;
+    private final OutboxDao outboxDao;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PendingWrite> queue;
+    private final int flushSize;
+    private final long lingerNanos;
+    private final long enqueueTimeoutMs;
+    private final DistributionSummary batchSizes;
+    private final Timer commitLatency;
+
+    private volatile boolean running = true;
+    private Thread writerThread;
+
+    public GroupCommitMessageWriter(MessageDao messageDao, MessageStatusDao messageStatusDao, OutboxDao outboxDao,
+                                    TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+                                    @Value("${chat.message-writer.flush-size:100}") int flushSize,
+                                    @Value("${chat.message-writer.linger-us:1000}") long lingerMicros,
+                                    @Value("${chat.message-writer.queue-capacity:10000}") int queueCapacity,
+                                    @Value("${chat.message-writer.enqueue-timeout-ms:1000}") long enqueueTimeoutMs) {
+        this.messageDao = messageDao;
+        this.messageStatusDao = messageStatusDao;
+        this.outboxDao = outboxDao;
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.flushSize = flushSize;
+        this.lingerNanos = TimeUnit.MICROSECONDS.toNanos(lingerMicros);
+        this.enqueueTimeoutMs = enqueueTimeoutMs;
+        this.batchSizes = DistributionSummary.builder("chat.message.writer.batch.size")
+                .description("Messages committed per group commit")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.commitLatency = Timer.builder("chat.message.writer.commit")
+                .description("Time to insert and commit one batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("chat.message.writer.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        writerThread = new Thread(this::run, "message-group-commit");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Queues a message (id already assigned) with its group recipients (empty for private
+     * messages) and the outbox record announcing it. The future completes with the message
+     * once its batch has committed.
+     */
+    public CompletableFuture<Message> write(Message message, List<Long> recipientIds, MessageOutbox outbox) {
+        validate(message);
+        PendingWrite pending = new PendingWrite(message, recipientIds, outbox, new CompletableFuture<>());
+        try {
+            if (!queue.offer(pending, enqueueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                log.warn("GroupCommitMessageWriter.write queue full depth={}", queue.size());
+                throw new ServiceBusyException("Too many messages in flight, please retry");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Interrupted while queueing message");
+        }
+        return pending.future();
+    }
+
+    private void run() {
+        List<PendingWrite> batch = new ArrayList<>(flushSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < flushSize) {
+                    // Take whatever is already queued, then linger for stragglers until the deadline
+                    if (queue.drainTo(batch, flushSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Rejects a message the messages table would not accept, so it never joins (and fails) a batch.
+     */
+    public static void validate(Message message) {
+        if (message.getSenderId() == null) {
+            throw new InvalidRequestException("Message has no sender");
+        }
+        if ((message.getReceiverId() == null) == (message.getGroupId() == null)) {
+            throw new InvalidRequestException("Message needs either a receiver or a group");
+        }
+        String content = message.getContent();
+        if (content == null || content.isBlank()) {
+            throw new InvalidRequestException("Message content is empty");
+        }
+        if (content.codePointCount(0, content.length()) > MAX_CONTENT_LENGTH) {
+            throw new InvalidRequestException("Message content is longer than " + MAX_CONTENT_LENGTH + " characters");
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        long start = System.nanoTime();
+        try {
+            insert(batch);
+        } catch (RuntimeException e) {
+            log.warn("GroupCommitMessageWriter.flush failed size={}, retrying one by one: {}", batch.size(), e.getMessage());
+            flushOneByOne(batch);
+            return;
+        }
+        commitLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSizes.record(batch.size());
+        batch.forEach(pending -> pending.future().complete(pending.message()));
+        log.trace("GroupCommitMessageWriter.flush size={}", batch.size());
+    }
+
+    private void flushOneByOne(List<PendingWrite> batch) {
+        for (PendingWrite pending : batch) {
+            try {
+                insert(List.of(pending));
+                pending.future().complete(pending.message());
+            } catch (RuntimeException e) {
+                log.error("GroupCommitMessageWriter.flush rejected messageId={}: {}", pending.message().getId(), e.getMessage(), e);
+                pending.future().completeExceptionally(e);
+            }
+        }
+    }
+
+    private void insert(List<PendingWrite> batch) {
+        List<Message> messages = new ArrayList<>(batch.size());
+        List<MessageStatus> statuses = new ArrayList<>();
+        List<MessageOutbox> outbox = new ArrayList<>(batch.size());
+        for (PendingWrite pending : batch) {
+            Message message = pending.message();
+            messages.add(message);
+            outbox.add(pending.outbox());
+            for (Long userId : pending.recipientIds()) {
+                statuses.add(MessageStatus.builder()
+                        .messageId(message.getId())
+                        .userId(userId)
+                        .status(MessageStatus.Status.DELIVERED)
+                        .updatedAt(message.getTimestamp())
+                        .build());
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            messageDao.insertAll(messages);
+            messageStatusDao.insertAll(statuses);
+            outboxDao.insertAll(outbox);
+        });
+    }
+
+    // Not interrupted: the poll timeout notices the flag, and queued writes are flushed first
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private record PendingWrite(Message message, List<Long> recipientIds, MessageOutbox outbox,
+                                CompletableFuture<Message> future) {
+    }
+}
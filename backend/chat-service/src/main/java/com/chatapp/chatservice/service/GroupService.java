@@ -1,6 +1,14 @@
 package com.chatapp.chatservice.service;
 
 import com.chatapp.chatservice.dto.GroupDto;
+import com.chatapp.chatservice.dto.GroupMembershipRequest;
+import com.chatapp.chatservice.dto.GroupMembershipResult;
+import com.chatapp.chatservice.dto.GroupSummaryDto;
+import com.chatapp.chatservice.dto.UserDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
 
 public interface GroupService {
 
@@ -10,8 +18,14 @@ public interface GroupService {
 
     GroupDto removeUserFromGroup(Long groupId, Long userId);
 
+    GroupMembershipResult updateMembers(Long groupId, GroupMembershipRequest request);
+
     GroupDto getGroup(Long groupId);
 
     GroupDto updateGroup(Long groupId, GroupDto update);
 
+    List<GroupSummaryDto> getGroupSummaries(List<Long> groupIds);
+
+    Page<UserDto> getGroupMembers(Long groupId, Pageable pageable);
+
 }
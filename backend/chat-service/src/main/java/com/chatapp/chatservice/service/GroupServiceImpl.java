@@ -1,36 +1,64 @@
 package com.chatapp.chatservice.service;
 
 import com.chatapp.chatservice.dao.ContactDao;
+import com.chatapp.chatservice.dao.GroupDao;
 import com.chatapp.chatservice.dao.UserDao;
 import com.chatapp.chatservice.dto.GroupDto;
+import com.chatapp.chatservice.dto.GroupMembershipRequest;
+import com.chatapp.chatservice.dto.GroupMembershipResult;
+import com.chatapp.chatservice.dto.GroupSummaryDto;
 import com.chatapp.chatservice.dto.UserDto;
+import com.chatapp.chatservice.event.GroupMembershipChangedEvent;
+import com.chatapp.chatservice.exception.InvalidRequestException;
 import com.chatapp.chatservice.model.Group;
 import com.chatapp.chatservice.model.GroupUser;
+import com.chatapp.chatservice.model.User;
 import com.chatapp.chatservice.repository.GroupRepository;
 import com.chatapp.chatservice.repository.GroupUserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class GroupServiceImpl implements GroupService {
 
+    // One sidebar page of groups; larger lists are requested in chunks
+    static final int MAX_SUMMARY_IDS = 100;
+
     private final GroupRepository groupRepository;
     private final UserDao userDao;
     private final ContactDao contactDao;
     private final GroupUserRepository groupUserRepository;
+    private final GroupDao groupDao;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ResourceVersionService resourceVersionService;
 
     public GroupServiceImpl(GroupRepository groupRepository, UserDao userDao, ContactDao contactDao,
-                          GroupUserRepository groupUserRepository) {
+                          GroupUserRepository groupUserRepository, GroupDao groupDao,
+                          ApplicationEventPublisher eventPublisher, ResourceVersionService resourceVersionService) {
         this.groupRepository = groupRepository;
         this.userDao = userDao;
         this.contactDao = contactDao;
         this.groupUserRepository = groupUserRepository;
+        this.groupDao = groupDao;
+        this.eventPublisher = eventPublisher;
+        this.resourceVersionService = resourceVersionService;
     }
 
     @Override
+    @Transactional
     public GroupDto createGroup(GroupDto groupDto) {
         log.info("GroupService.createGroup name={} createdBy={}", groupDto.getName(), groupDto.getCreatedBy());
         Group group = Group.builder()
@@ -41,6 +69,10 @@ public class GroupServiceImpl implements GroupService {
                 .build();
         groupRepository.save(group);
         groupUserRepository.save(GroupUser.builder().groupId(group.getId()).userId(group.getCreatedBy()).build());
+        if (groupDto.getMemberIds() != null && !groupDto.getMemberIds().isEmpty()) {
+            applyMembershipChange(group, groupDto.getMemberIds(), null);
+        }
+        groupChanged(group.getId(), List.of());
         GroupDto dto = convertToDto(group);
         log.debug("GroupService.createGroup success groupId={}", dto.getId());
         return dto;
@@ -55,18 +87,102 @@ public class GroupServiceImpl implements GroupService {
             throw new RuntimeException("You can only add your own contacts to a group");
         }
         groupUserRepository.save(GroupUser.builder().groupId(groupId).userId(userId).build());
+        groupChanged(groupId, List.of());
         return convertToDto(group);
     }
 
     @Override
     public GroupDto removeUserFromGroup(Long groupId, Long userId) {
         log.info("GroupService.removeUserFromGroup groupId={} userId={}", groupId, userId);
-        groupUserRepository.deleteById(new GroupUser.GroupUserId(groupId, userId));
         Group group = groupRepository.findById(groupId).orElseThrow(() -> new RuntimeException("Group not found"));
+        if (userId.equals(group.getCreatedBy())) {
+            throw new InvalidRequestException("The group creator cannot be removed");
+        }
+        groupUserRepository.deleteById(new GroupUser.GroupUserId(groupId, userId));
+        groupChanged(groupId, List.of(userId));
         return convertToDto(group);
     }
 
     @Override
+    @Transactional
+    public GroupMembershipResult updateMembers(Long groupId, GroupMembershipRequest request) {
+        log.info("GroupService.updateMembers groupId={} add={} remove={}", groupId,
+                request.getAdd() != null ? request.getAdd().size() : 0,
+                request.getRemove() != null ? request.getRemove().size() : 0);
+        Group group = groupRepository.findById(groupId).orElseThrow(() -> new RuntimeException("Group not found"));
+        if (request.getRemove() != null && request.getRemove().contains(group.getCreatedBy())) {
+            throw new InvalidRequestException("The group creator cannot be removed");
+        }
+        GroupMembershipResult result = applyMembershipChange(group, request.getAdd(), request.getRemove());
+        if (!result.getAdded().isEmpty() || !result.getRemoved().isEmpty()) {
+            groupChanged(groupId, result.getRemoved());
+        }
+        return result;
+    }
+
+    // Skips current members (locked, like removals), validates the rest with two IN queries (users,
+    // creator's contacts), then batch-writes group_users
+    private GroupMembershipResult applyMembershipChange(Group group, List<Long> add, List<Long> remove) {
+        Set<Long> requested = add != null ? new LinkedHashSet<>(add) : new LinkedHashSet<>();
+        requested.remove(group.getCreatedBy());
+
+        List<Long> accepted = new ArrayList<>();
+        List<Long> alreadyMembers = new ArrayList<>();
+        List<Long> rejected = new ArrayList<>();
+        if (!requested.isEmpty()) {
+            Set<Long> members = new HashSet<>(groupDao.lockMemberIdsIn(group.getId(), requested));
+            requested.stream().filter(members::contains).forEach(alreadyMembers::add);
+            requested.removeAll(members);
+        }
+        if (!requested.isEmpty()) {
+            Set<Long> existingUsers = new HashSet<>(userDao.findExistingIds(requested));
+            Set<Long> creatorContacts = new HashSet<>(contactDao.findContactIdsIn(group.getCreatedBy(), requested));
+            for (Long userId : requested) {
+                if (existingUsers.contains(userId) && creatorContacts.contains(userId)) {
+                    accepted.add(userId);
+                } else {
+                    rejected.add(userId);
+                }
+            }
+            groupDao.addMembers(group.getId(), accepted);
+        }
+
+        // Only ids that were members are reported, in request order
+        Set<Long> toRemove = remove != null ? new LinkedHashSet<>(remove) : new LinkedHashSet<>();
+        List<Long> removed = new ArrayList<>();
+        if (!toRemove.isEmpty()) {
+            Set<Long> members = new HashSet<>(groupDao.lockMemberIdsIn(group.getId(), toRemove));
+            toRemove.stream().filter(members::contains).forEach(removed::add);
+            groupDao.removeMembers(group.getId(), removed);
+        }
+
+        GroupMembershipResult result = GroupMembershipResult.builder()
+                .groupId(group.getId())
+                .added(accepted)
+                .alreadyMembers(alreadyMembers)
+                .removed(removed)
+                .rejected(rejected)
+                .memberCount(groupUserRepository.countByGroupId(group.getId()))
+                .build();
+        if (!accepted.isEmpty() || !removed.isEmpty()) {
+            eventPublisher.publishEvent(new GroupMembershipChangedEvent(result));
+        }
+        log.debug("GroupService.applyMembershipChange groupId={} added={} alreadyMembers={} removed={} rejected={}",
+                group.getId(), accepted.size(), alreadyMembers.size(), removed.size(), rejected.size());
+        return result;
+    }
+
+    // Bumped after commit: the group itself and the conversation list of every current and removed member,
+    // which shows the group's name and last message
+    private void groupChanged(Long groupId, List<Long> removedMembers) {
+        Set<Long> affected = new HashSet<>(removedMembers);
+        groupUserRepository.findByGroupId(groupId).forEach(member -> affected.add(member.getUserId()));
+        resourceVersionService.groupChanged(groupId);
+        resourceVersionService.conversationsChanged(affected);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public GroupDto getGroup(Long groupId) {
         log.debug("GroupService.getGroup groupId={}", groupId);
         Group group = groupRepository.findById(groupId).orElseThrow(() -> new RuntimeException("Group not found"));
@@ -87,9 +203,31 @@ public class GroupServiceImpl implements GroupService {
             group.setImageUrl(update.getImageUrl());
         }
         groupRepository.save(group);
+        groupChanged(groupId, List.of());
         return convertToDto(group);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<GroupSummaryDto> getGroupSummaries(List<Long> groupIds) {
+        log.debug("GroupService.getGroupSummaries size={}", groupIds.size());
+        Set<Long> ids = new LinkedHashSet<>(groupIds);
+        if (ids.size() > MAX_SUMMARY_IDS) {
+            throw new InvalidRequestException("At most " + MAX_SUMMARY_IDS + " group ids per request");
+        }
+        return groupDao.findSummariesByIds(ids);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<UserDto> getGroupMembers(Long groupId, Pageable pageable) {
+        log.debug("GroupService.getGroupMembers groupId={} page={} size={}", groupId, pageable.getPageNumber(), pageable.getPageSize());
+        List<UserDto> members = userDao.findByGroupId(groupId, pageable.getPageSize(), pageable.getOffset()).stream()
+                .map(this::toUserDto)
+                .collect(Collectors.toList());
+        return PageableExecutionUtils.getPage(members, pageable, () -> groupUserRepository.countByGroupId(groupId));
+    }
+
     private GroupDto convertToDto(Group group) {
         return GroupDto.builder()
                 .id(group.getId())
@@ -97,16 +235,16 @@ public class GroupServiceImpl implements GroupService {
                 .createdBy(group.getCreatedBy())
                 .description(group.getDescription())
                 .imageUrl(group.getImageUrl())
-                .users(groupUserRepository.findByGroupId(group.getId()).stream()
-                        .map(groupUser -> userDao.findById(groupUser.getUserId())
-                                .map(user -> UserDto.builder()
-                                        .id(user.getId())
-                                        .username(user.getUsername())
-                                        .profilePictureUrl(user.getProfilePictureUrl())
-                                        .about(user.getAbout())
-                                        .build())
-                                .orElse(null))
-                        .collect(Collectors.toSet()))
+                .memberCount(groupUserRepository.countByGroupId(group.getId()))
+                .build();
+    }
+
+    private UserDto toUserDto(User user) {
+        return UserDto.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .profilePictureUrl(user.getProfilePictureUrl())
+                .about(user.getAbout())
                 .build();
     }
 
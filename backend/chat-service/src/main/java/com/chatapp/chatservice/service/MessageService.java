@@ -2,6 +2,8 @@ package com.chatapp.chatservice.service;
 
 import com.chatapp.chatservice.dto.MessageDto;
 import com.chatapp.chatservice.dto.MessageInfoDto;
+import com.chatapp.chatservice.dto.MessageReceiptDto;
+import com.chatapp.chatservice.model.MessageStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -13,9 +15,13 @@ public interface MessageService {
 
     Page<MessageDto> getGroupChatHistory(Long groupId, Pageable pageable);
 
+    // Archived messages are read-only: marking one as read is a no-op
     void markMessageAsRead(Long userId, Long messageId);
 
-    MessageInfoDto getMessageInfo(Long messageId);
+    // userId scopes the archive lookup to the user's conversations once the message is archived
+    MessageInfoDto getMessageInfo(Long userId, Long messageId);
+
+    Page<MessageReceiptDto> getMessageReceipts(Long userId, Long messageId, MessageStatus.Status status, Pageable pageable);
 
     java.util.List<com.chatapp.chatservice.dto.ConversationDto> getConversations(Long userId);
 
@@ -1,30 +1,57 @@
 package com.chatapp.chatservice.service;
 
+import com.chatapp.chatservice.archive.ArchivedMessage;
+import com.chatapp.chatservice.archive.MessageArchive;
 import com.chatapp.chatservice.dao.BlockDao;
+import com.chatapp.chatservice.dao.MessageStatusDao;
+import com.chatapp.chatservice.dao.OutboxDao;
 import com.chatapp.chatservice.dao.UserDao;
 import com.chatapp.chatservice.dto.MessageDto;
 import com.chatapp.chatservice.dto.MessageInfoDto;
+import com.chatapp.chatservice.dto.MessageIngestEvent;
+import com.chatapp.chatservice.dto.MessageReceiptDto;
 import com.chatapp.chatservice.dto.ReadReceipt;
 import com.chatapp.chatservice.dto.UserDto;
 import com.chatapp.chatservice.kafka.KafkaProducer;
+import com.chatapp.chatservice.kafka.KafkaTopicConfig;
+import com.chatapp.chatservice.kafka.OutboxRecordFactory;
+import com.chatapp.chatservice.metrics.MessageLatencyMetrics;
 import com.chatapp.chatservice.model.Message;
+import com.chatapp.chatservice.model.MessageOutbox;
 import com.chatapp.chatservice.model.MessageStatus;
 import com.chatapp.chatservice.repository.GroupUserRepository;
 import com.chatapp.chatservice.repository.MessageRepository;
 import com.chatapp.chatservice.repository.MessageStatusRepository;
+import com.chatapp.chatservice.util.SnowflakeIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class MessageServiceImpl implements MessageService {
 
+    private static final int MESSAGE_INFO_PAGE_SIZE = 50;
+
     private final MessageRepository messageRepository;
     private final KafkaProducer kafkaProducer;
     private final UserDao userDao;
@@ -33,11 +60,27 @@ public class MessageServiceImpl implements MessageService {
     private final com.chatapp.chatservice.dao.GroupDao groupDao;
     private final GroupUserRepository groupUserRepository;
     private final MessageStatusRepository messageStatusRepository;
+    private final MessageStatusDao messageStatusDao;
+    private final MessageArchive messageArchive;
+    private final GroupCommitMessageWriter messageWriter;
+    private final OutboxDao outboxDao;
+    private final OutboxRecordFactory outboxRecordFactory;
+    private final SnowflakeIdGenerator idGenerator;
+    private final MessageLatencyMetrics latencyMetrics;
+    private final ResourceVersionService resourceVersionService;
+    private final boolean kafkaIngest;
+    private final long commitTimeoutMs;
 
     public MessageServiceImpl(MessageRepository messageRepository, KafkaProducer kafkaProducer, UserDao userDao,
                               BlockDao blockDao, com.chatapp.chatservice.dao.ContactDao contactDao,
                               com.chatapp.chatservice.dao.GroupDao groupDao, GroupUserRepository groupUserRepository,
-                              MessageStatusRepository messageStatusRepository) {
+                              MessageStatusRepository messageStatusRepository, MessageStatusDao messageStatusDao,
+                              MessageArchive messageArchive, GroupCommitMessageWriter messageWriter,
+                              OutboxDao outboxDao, OutboxRecordFactory outboxRecordFactory,
+                              SnowflakeIdGenerator idGenerator, MessageLatencyMetrics latencyMetrics,
+                              ResourceVersionService resourceVersionService,
+                              @Value("${chat.ingest.mode:direct}") String ingestMode,
+                              @Value("${chat.message-writer.commit-timeout-ms:5000}") long commitTimeoutMs) {
         this.messageRepository = messageRepository;
         this.kafkaProducer = kafkaProducer;
         this.userDao = userDao;
@@ -46,18 +89,33 @@ public class MessageServiceImpl implements MessageService {
         this.groupDao = groupDao;
         this.groupUserRepository = groupUserRepository;
         this.messageStatusRepository = messageStatusRepository;
+        this.messageStatusDao = messageStatusDao;
+        this.messageArchive = messageArchive;
+        this.messageWriter = messageWriter;
+        this.outboxDao = outboxDao;
+        this.outboxRecordFactory = outboxRecordFactory;
+        this.idGenerator = idGenerator;
+        this.latencyMetrics = latencyMetrics;
+        this.resourceVersionService = resourceVersionService;
+        this.kafkaIngest = "kafka".equalsIgnoreCase(ingestMode);
+        this.commitTimeoutMs = commitTimeoutMs;
     }
 
     @Override
     public MessageDto sendMessage(Long senderId, MessageDto messageDto) {
+        long acceptedAt = System.nanoTime();
         log.info("MessageService.sendMessage senderId={} groupId={} receiverId={}", senderId, messageDto.getGroupId(), messageDto.getReceiver()!=null?messageDto.getReceiver().getId():null);
         messageDto.setSender(UserDto.builder().id(senderId).build());
+        List<Long> recipientIds = List.of();
         if (messageDto.getGroupId() != null) {
-            if (groupUserRepository.findByGroupId(messageDto.getGroupId()).stream()
-                    .noneMatch(groupUser -> groupUser.getUserId().equals(senderId))) {
+            List<Long> memberIds = groupUserRepository.findByGroupId(messageDto.getGroupId()).stream()
+                    .map(com.chatapp.chatservice.model.GroupUser::getUserId)
+                    .collect(Collectors.toList());
+            if (!memberIds.contains(senderId)) {
                 log.warn("MessageService.sendMessage not a member senderId={} groupId={}", senderId, messageDto.getGroupId());
                 throw new RuntimeException("You are not a member of this group");
             }
+            recipientIds = memberIds.stream().filter(userId -> !userId.equals(senderId)).collect(Collectors.toList());
         } else {
             if (messageDto.getReceiver() == null || messageDto.getReceiver().getId() == null) {
                 throw new IllegalArgumentException("Receiver cannot be null for private messages");
@@ -75,46 +133,114 @@ public class MessageServiceImpl implements MessageService {
                 .timestamp(LocalDateTime.now())
                 .status(MessageStatus.Status.DELIVERED)
                 .build();
-        Message savedMessage = messageRepository.save(message);
-
-        if (savedMessage.getGroupId() != null) {
-            groupUserRepository.findByGroupId(savedMessage.getGroupId()).stream()
-                    .filter(groupUser -> !groupUser.getUserId().equals(senderId))
-                    .forEach(groupUser -> {
-                        MessageStatus messageStatus = MessageStatus.builder()
-                                .messageId(savedMessage.getId())
-                                .userId(groupUser.getUserId())
-                                .status(MessageStatus.Status.DELIVERED)
-                                .build();
-                        messageStatusRepository.save(messageStatus);
-                    });
+        // Also in front of Kafka ingest, where a row MySQL rejects would only fail in the persister
+        GroupCommitMessageWriter.validate(message);
+        message.setId(idGenerator.nextId());
+        latencyMetrics.record(MessageLatencyMetrics.Stage.ACCEPTED, acceptedAt);
+        long assignedAt = System.nanoTime();
+        if (kafkaIngest) {
+            return ingestViaKafka(message, recipientIds, assignedAt);
         }
-
-        kafkaProducer.sendMessage(convertToDto(savedMessage));
+        // The delivery record commits with the message; OutboxRelay publishes it to Kafka afterwards
+        MessageDto saved = convertToDto(message);
+        MessageOutbox outbox = outboxRecordFactory.create(KafkaTopicConfig.MESSAGES_TOPIC, MessageArchive.keyOf(message), saved);
+        Message savedMessage = awaitCommit(messageWriter.write(message, recipientIds, outbox));
+        latencyMetrics.record(MessageLatencyMetrics.Stage.COMMITTED, assignedAt);
+        resourceVersionService.conversationsChanged(participantsOf(message, recipientIds));
         log.debug("MessageService.sendMessage persisted messageId={} groupId={} status={}", savedMessage.getId(), savedMessage.getGroupId(), savedMessage.getStatus());
-        return convertToDto(savedMessage);
+        return saved;
+    }
+
+    /**
+     * Kafka-first mode: the send is acknowledged once the ingest record is on the topic (acks=all).
+     * MessageIngestPersister writes it to MySQL and MessageListener delivers it, both from the topic.
+     */
+    private MessageDto ingestViaKafka(Message message, List<Long> recipientIds, long assignedAt) {
+        MessageDto dto = convertToDto(message);
+        MessageIngestEvent event = MessageIngestEvent.builder().message(dto).recipientIds(recipientIds).build();
+        try {
+            kafkaProducer.sendIngest(MessageArchive.keyOf(message), event).get(commitTimeoutMs, TimeUnit.MILLISECONDS);
+            latencyMetrics.record(MessageLatencyMetrics.Stage.COMMITTED, assignedAt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while publishing message", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new RuntimeException("Failed to publish message", e instanceof ExecutionException ? e.getCause() : e);
+        }
+        log.debug("MessageService.sendMessage ingested messageId={} groupId={}", message.getId(), message.getGroupId());
+        return dto;
+    }
+
+    /** Users whose conversation list shows this message: the sender plus the receiver or group recipients. */
+    private static List<Long> participantsOf(Message message, List<Long> recipientIds) {
+        List<Long> participants = new java.util.ArrayList<>(recipientIds.size() + 2);
+        participants.add(message.getSenderId());
+        if (message.getReceiverId() != null) {
+            participants.add(message.getReceiverId());
+        }
+        participants.addAll(recipientIds);
+        return participants;
+    }
+
+    private Message awaitCommit(CompletableFuture<Message> pending) {
+        try {
+            return pending.get(commitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while saving message", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new RuntimeException("Failed to save message", e instanceof ExecutionException ? e.getCause() : e);
+        }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<MessageDto> getChatHistory(Long userId1, Long userId2, Pageable pageable) {
         log.debug("MessageService.getChatHistory u1={} u2={} page={} size={}", userId1, userId2, pageable.getPageNumber(), pageable.getPageSize());
-        Page<Message> messages = messageRepository.findBySenderIdAndReceiverIdOrReceiverIdAndSenderIdOrderByTimestampDesc(
+        Page<Message> messages = messageRepository.findBySenderIdAndReceiverIdOrReceiverIdAndSenderIdOrderByIdDesc(
                 userId1, userId2, userId1, userId2, pageable);
-        return messages.map(this::convertToDto);
+        return withArchived(messages, MessageArchive.privateKey(userId1, userId2), pageable).map(this::convertToDto);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<MessageDto> getGroupChatHistory(Long groupId, Pageable pageable) {
         log.debug("MessageService.getGroupChatHistory groupId={} page={} size={}", groupId, pageable.getPageNumber(), pageable.getPageSize());
-        Page<Message> messages = messageRepository.findByGroupIdOrderByTimestampDesc(groupId, pageable);
-        return messages.map(this::convertToDto);
+        Page<Message> messages = messageRepository.findByGroupIdOrderByIdDesc(groupId, pageable);
+        return withArchived(messages, MessageArchive.groupKey(groupId), pageable).map(this::convertToDto);
+    }
+
+    /**
+     * Archived messages are all older than the hot table, so they continue a newest-first page
+     * once the hot rows run out; the page is topped up from the conversation's segments.
+     */
+    private Page<Message> withArchived(Page<Message> hot, String conversationKey, Pageable pageable) {
+        long archivedCount = messageArchive.count(conversationKey);
+        if (archivedCount == 0) {
+            return hot;
+        }
+        long total = hot.getTotalElements() + archivedCount;
+        int missing = pageable.getPageSize() - hot.getNumberOfElements();
+        if (missing <= 0) {
+            return new PageImpl<>(hot.getContent(), pageable, total);
+        }
+        long archiveOffset = Math.max(0, pageable.getOffset() - hot.getTotalElements());
+        List<Message> content = new java.util.ArrayList<>(hot.getContent());
+        content.addAll(messageArchive.readNewestFirst(conversationKey, archiveOffset, missing));
+        return new PageImpl<>(content, pageable, total);
     }
 
     @Override
+    @Transactional
     public void markMessageAsRead(Long userId, Long messageId) {
         log.debug("MessageService.markMessageAsRead userId={} messageId={} ", userId, messageId);
-        Message message = messageRepository.findById(messageId)
-                .orElseThrow(() -> new RuntimeException("Message not found"));
+        Message message = messageRepository.findById(messageId).orElse(null);
+        if (message == null) {
+            // Archived messages are read-only: their status and receipts were frozen when archived
+            findArchived(userId, messageId).orElseThrow(() -> new RuntimeException("Message not found"));
+            log.debug("MessageService.markMessageAsRead messageId={} is archived, nothing to update", messageId);
+            return;
+        }
 
         if (message.getGroupId() != null) {
             // Group message: update MessageStatus
@@ -129,11 +255,21 @@ public class MessageServiceImpl implements MessageService {
             
             if (messageStatus != null && messageStatus.getStatus() != MessageStatus.Status.READ) {
                 messageStatus.setStatus(MessageStatus.Status.READ);
-                messageStatusRepository.save(messageStatus);
+                messageStatus.setUpdatedAt(LocalDateTime.now());
+                // Flushed so the JDBC count below sees this row as READ
+                messageStatusRepository.saveAndFlush(messageStatus);
+                // The last message shows as read to everyone once no member is left on DELIVERED
+                boolean readByAll = messageStatusDao.countByMessageId(messageId)
+                        .getOrDefault(MessageStatus.Status.DELIVERED, 0L) == 0;
+                resourceVersionService.conversationsChanged(readByAll
+                        ? groupUserRepository.findByGroupId(message.getGroupId()).stream()
+                                .map(com.chatapp.chatservice.model.GroupUser::getUserId)
+                                .collect(Collectors.toList())
+                        : List.of(userId));
                 
                 // Send read receipt to sender for group messages
                 userDao.findById(message.getSenderId()).ifPresent(sender -> {
-                    kafkaProducer.sendReadReceipt(ReadReceipt.builder()
+                    publishReadReceipt(ReadReceipt.builder()
                             .messageId(messageId)
                             .sender(sender.getUsername())
                             .receiver(userDao.findById(userId)
@@ -149,9 +285,10 @@ public class MessageServiceImpl implements MessageService {
                 if (message.getStatus() != MessageStatus.Status.READ) {
                     message.setStatus(MessageStatus.Status.READ);
                     messageRepository.save(message);
+                    resourceVersionService.conversationsChanged(List.of(userId, message.getSenderId()));
                     
                     // Send read receipt to sender
-                    kafkaProducer.sendReadReceipt(ReadReceipt.builder()
+                    publishReadReceipt(ReadReceipt.builder()
                             .messageId(messageId)
                             .sender(userDao.findById(message.getSenderId())
                                     .map(user -> user.getUsername())
@@ -166,81 +303,114 @@ public class MessageServiceImpl implements MessageService {
         }
     }
 
+    // Written in the caller's transaction, so the receipt goes out only if the status change commits
+    private void publishReadReceipt(ReadReceipt receipt) {
+        outboxDao.insertAll(List.of(outboxRecordFactory.create(KafkaTopicConfig.READ_RECEIPTS_TOPIC,
+                String.valueOf(receipt.getMessageId()), receipt)));
+    }
+
     @Override
-    public MessageInfoDto getMessageInfo(Long messageId) {
+    @Transactional(readOnly = true)
+    public MessageInfoDto getMessageInfo(Long userId, Long messageId) {
         log.debug("MessageService.getMessageInfo messageId={}", messageId);
-        Message message = messageRepository.findById(messageId)
-                .orElseThrow(() -> new RuntimeException("Message not found"));
-
-        List<UserDto> readBy = new java.util.ArrayList<>();
-        List<UserDto> deliveredTo = new java.util.ArrayList<>();
-
-        if (message.getGroupId() != null) {
-            // Group message: check MessageStatus entries for all group members
-            List<MessageStatus> messageStatuses = messageStatusRepository.findByMessageId(messageId);
-            
-            // Get all group members
-            List<com.chatapp.chatservice.model.GroupUser> groupUsers = groupUserRepository.findByGroupId(message.getGroupId());
-            
-            for (com.chatapp.chatservice.model.GroupUser groupUser : groupUsers) {
-                // Skip sender - they always "read" their own message
-                if (groupUser.getUserId().equals(message.getSenderId())) {
-                    continue;
-                }
-                
-                // Find MessageStatus for this user
-                MessageStatus messageStatus = messageStatuses.stream()
-                        .filter(ms -> ms.getUserId().equals(groupUser.getUserId()))
-                        .findFirst()
-                        .orElse(null);
-                
-                userDao.findById(groupUser.getUserId()).ifPresent(user -> {
-                    UserDto userDto = UserDto.builder()
-                            .id(user.getId())
-                            .username(user.getUsername())
-                            .profilePictureUrl(user.getProfilePictureUrl())
-                            .build();
-                    
-                    if (messageStatus != null) {
-                        if (messageStatus.getStatus() == MessageStatus.Status.READ) {
-                            readBy.add(userDto);
-                        } else if (messageStatus.getStatus() == MessageStatus.Status.DELIVERED) {
-                            deliveredTo.add(userDto);
-                        }
-                    } else {
-                        // No MessageStatus entry means message hasn't been delivered yet
-                        // This shouldn't happen normally, but handle it gracefully
-                    }
-                });
-            }
+        Message message = messageRepository.findById(messageId).orElse(null);
+        MessageInfoDto dto;
+        if (message == null) {
+            ArchivedMessage archived = findArchived(userId, messageId)
+                    .orElseThrow(() -> new RuntimeException("Message not found"));
+            dto = archived.message().getGroupId() != null
+                    ? groupMessageInfo(archivedCounts(archived),
+                            status -> archivedReceipts(archived, status, MESSAGE_INFO_PAGE_SIZE, 0))
+                    : privateMessageInfo(archived.message());
+        } else if (message.getGroupId() != null) {
+            // Group message: counts from one GROUP BY, first page of each list from one join
+            dto = groupMessageInfo(messageStatusDao.countByMessageId(messageId),
+                    status -> messageStatusDao.findReceipts(messageId, status, MESSAGE_INFO_PAGE_SIZE, 0));
         } else {
-            // Private message: check Message.status field
-            UserDto receiver = userDao.findById(message.getReceiverId())
-                    .map(user -> UserDto.builder()
-                            .id(user.getId())
-                            .username(user.getUsername())
-                            .profilePictureUrl(user.getProfilePictureUrl())
-                            .build())
-                    .orElse(null);
-            
-            if (receiver != null) {
-                if (message.getStatus() == MessageStatus.Status.READ) {
-                    readBy.add(receiver);
-                } else if (message.getStatus() == MessageStatus.Status.DELIVERED) {
-                    deliveredTo.add(receiver);
-                }
-            }
+            dto = privateMessageInfo(message);
         }
+        log.trace("MessageService.getMessageInfo result readCount={} deliveredCount={}", dto.getReadCount(), dto.getDeliveredCount());
+        return dto;
+    }
 
-        MessageInfoDto dto = MessageInfoDto.builder()
-                .readBy(readBy.stream().filter(java.util.Objects::nonNull).collect(Collectors.toList()))
-                .deliveredTo(deliveredTo.stream().filter(java.util.Objects::nonNull).collect(Collectors.toList()))
+    private MessageInfoDto groupMessageInfo(Map<MessageStatus.Status, Long> counts,
+                                            Function<MessageStatus.Status, List<MessageReceiptDto>> firstPage) {
+        long readCount = counts.getOrDefault(MessageStatus.Status.READ, 0L);
+        long deliveredCount = counts.getOrDefault(MessageStatus.Status.DELIVERED, 0L);
+        return MessageInfoDto.builder()
+                .readCount(readCount)
+                .deliveredCount(deliveredCount)
+                .readBy(readCount > 0 ? firstPage.apply(MessageStatus.Status.READ) : List.of())
+                .deliveredTo(deliveredCount > 0 ? firstPage.apply(MessageStatus.Status.DELIVERED) : List.of())
                 .build();
-        log.trace("MessageService.getMessageInfo result readBy={} deliveredTo={}", dto.getReadBy()!=null?dto.getReadBy().size():0, dto.getDeliveredTo()!=null?dto.getDeliveredTo().size():0);
-        return dto;
     }
 
-    private MessageDto convertToDto(Message message) {
+    // Private message: check Message.status field
+    private MessageInfoDto privateMessageInfo(Message message) {
+        List<MessageReceiptDto> receiver = userDao.findById(message.getReceiverId())
+                .map(user -> List.of(MessageReceiptDto.builder()
+                        .id(user.getId())
+                        .username(user.getUsername())
+                        .profilePictureUrl(user.getProfilePictureUrl())
+                        .build()))
+                .orElse(List.of());
+        boolean read = message.getStatus() == MessageStatus.Status.READ;
+        boolean delivered = message.getStatus() == MessageStatus.Status.DELIVERED;
+        return MessageInfoDto.builder()
+                .readCount(read ? receiver.size() : 0)
+                .deliveredCount(delivered ? receiver.size() : 0)
+                .readBy(read ? receiver : List.of())
+                .deliveredTo(delivered ? receiver : List.of())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<MessageReceiptDto> getMessageReceipts(Long userId, Long messageId, MessageStatus.Status status, Pageable pageable) {
+        log.debug("MessageService.getMessageReceipts messageId={} status={} page={} size={}", messageId, status, pageable.getPageNumber(), pageable.getPageSize());
+        if (!messageRepository.existsById(messageId)) {
+            ArchivedMessage archived = findArchived(userId, messageId)
+                    .orElseThrow(() -> new RuntimeException("Message not found"));
+            return new PageImpl<>(archivedReceipts(archived, status, pageable.getPageSize(), pageable.getOffset()),
+                    pageable, archivedCounts(archived).getOrDefault(status, 0L));
+        }
+        List<MessageReceiptDto> receipts = messageStatusDao.findReceipts(messageId, status, pageable.getPageSize(), pageable.getOffset());
+        return PageableExecutionUtils.getPage(receipts, pageable,
+                () -> messageStatusDao.countByMessageId(messageId).getOrDefault(status, 0L));
+    }
+
+    // Archived ids are only looked up in the requesting user's own conversations
+    private Optional<ArchivedMessage> findArchived(Long userId, Long messageId) {
+        List<String> keys = new ArrayList<>(messageArchive.privateKeysOf(userId));
+        groupDao.findByUserId(userId).forEach(group -> keys.add(MessageArchive.groupKey(group.getId())));
+        return messageArchive.find(keys, messageId);
+    }
+
+    private static Map<MessageStatus.Status, Long> archivedCounts(ArchivedMessage archived) {
+        return archived.receipts().stream().collect(Collectors.groupingBy(MessageStatus::getStatus,
+                () -> new EnumMap<>(MessageStatus.Status.class), Collectors.counting()));
+    }
+
+    // Same order as MessageStatusDao.findReceipts: status time, then user id
+    private List<MessageReceiptDto> archivedReceipts(ArchivedMessage archived, MessageStatus.Status status, int limit, long offset) {
+        return archived.receipts().stream()
+                .filter(receipt -> receipt.getStatus() == status)
+                .sorted(Comparator.comparing(MessageStatus::getUpdatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparing(MessageStatus::getUserId))
+                .skip(offset)
+                .limit(limit)
+                .flatMap(receipt -> userDao.findById(receipt.getUserId()).stream()
+                        .map(user -> MessageReceiptDto.builder()
+                                .id(user.getId())
+                                .username(user.getUsername())
+                                .profilePictureUrl(user.getProfilePictureUrl())
+                                .timestamp(receipt.getUpdatedAt())
+                                .build()))
+                .toList();
+    }
+
+    // Package-private for the benchmarks module
+    MessageDto convertToDto(Message message) {
         UserDto sender = userDao.findById(message.getSenderId())
                 .map(user -> UserDto.builder().id(user.getId()).username(user.getUsername()).build())
                 .orElse(null);
@@ -259,6 +429,7 @@ public class MessageServiceImpl implements MessageService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public java.util.List<com.chatapp.chatservice.dto.ConversationDto> getConversations(Long userId) {
         log.debug("MessageService.getConversations userId={}", userId);
         java.util.List<com.chatapp.chatservice.dto.ConversationDto> conversations = new java.util.ArrayList<>();
@@ -266,7 +437,8 @@ public class MessageServiceImpl implements MessageService {
         // Get private conversations
         contactDao.findByUserId(userId).forEach(contact -> {
             userDao.findById(contact.getContactId()).ifPresent(contactUser -> {
-                List<Message> lastPrivateMessageList = messageRepository.findLastPrivateMessage(userId, contactUser.getId(), org.springframework.data.domain.PageRequest.of(0, 1));
+                List<Message> lastPrivateMessageList = lastMessage(messageRepository.findLastPrivateMessage(userId, contactUser.getId(), org.springframework.data.domain.PageRequest.of(0, 1)),
+                        MessageArchive.privateKey(userId, contactUser.getId()));
                 if (!lastPrivateMessageList.isEmpty()) {
                     Message lastMessage = lastPrivateMessageList.get(0);
                     long unreadCount = messageRepository.countUnreadPrivateMessages(contactUser.getId(), userId, MessageStatus.Status.DELIVERED);
@@ -287,16 +459,16 @@ public class MessageServiceImpl implements MessageService {
 
         // Get group conversations
         groupDao.findByUserId(userId).forEach(group -> {
-            List<Message> lastGroupMessageList = messageRepository.findLastGroupMessage(group.getId(), org.springframework.data.domain.PageRequest.of(0, 1));
+            List<Message> lastGroupMessageList = lastMessage(messageRepository.findLastGroupMessage(group.getId(), org.springframework.data.domain.PageRequest.of(0, 1)),
+                    MessageArchive.groupKey(group.getId()));
             if (!lastGroupMessageList.isEmpty()) {
                 Message lastMessage = lastGroupMessageList.get(0);
                 long unreadCount = messageStatusRepository.countByGroupIdAndUserIdAndStatus(group.getId(), userId, MessageStatus.Status.DELIVERED);
 
                 // Aggregate last message status for groups: READ only if all non-sender members read, otherwise DELIVERED
-                java.util.List<MessageStatus> msList = messageStatusRepository.findByMessageId(lastMessage.getId());
                 java.util.List<com.chatapp.chatservice.model.GroupUser> groupUsers = groupUserRepository.findByGroupId(group.getId());
                 long targetCount = groupUsers.stream().filter(gu -> !gu.getUserId().equals(lastMessage.getSenderId())).count();
-                long readCount = msList.stream().filter(ms -> ms.getStatus() == MessageStatus.Status.READ).count();
+                long readCount = messageStatusDao.countByMessageId(lastMessage.getId()).getOrDefault(MessageStatus.Status.READ, 0L);
                 MessageStatus.Status aggregateStatus = (targetCount > 0 && readCount == targetCount)
                         ? MessageStatus.Status.READ
                         : MessageStatus.Status.DELIVERED;
@@ -338,7 +510,13 @@ public class MessageServiceImpl implements MessageService {
         return conversations;
     }
 
+    // Quiet conversations may have every message archived
+    private List<Message> lastMessage(List<Message> hot, String conversationKey) {
+        return hot.isEmpty() ? messageArchive.readNewestFirst(conversationKey, 0, 1) : hot;
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public Page<MessageDto> searchMessages(Long userId, String query, Pageable pageable) {
         log.info("MessageService.searchMessages userId={} query={} page={} size={}", userId, query, pageable.getPageNumber(), pageable.getPageSize());
         Page<Message> messages = messageRepository.searchMessages(userId, query, pageable);
@@ -0,0 +1,21 @@
+package com.chatapp.chatservice.service;
+
+import java.util.Collection;
+
+/**
+ * Version counters behind the ETags of cacheable reads. Writers bump a counter after their change
+ * commits; readers turn the current counter into a strong ETag without touching the database.
+ */
+public interface ResourceVersionService {
+
+    /** ETag for the user's conversation list, or null when no safe ETag can be given. */
+    String conversationsETag(Long userId);
+
+    /** ETag for a group with its members, or null when no safe ETag can be given. */
+    String groupETag(Long groupId);
+
+    void conversationsChanged(Collection<Long> userIds);
+
+    void groupChanged(Long groupId);
+
+}
@@ -0,0 +1,130 @@
+package com.chatapp.chatservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Redis-backed version counters, shared by every instance (and with auth-service, which bumps
+ * conversation lists and groups when contacts or profiles change).
+ *
+ * An ETag is {@code "<resource>-<epoch>-<version>"}. The epoch is created once and changes only if
+ * Redis loses its data, which invalidates every ETag handed out before. Counters are bumped after
+ * commit and read before the query, so a response is never tagged newer than its data. With read
+ * replicas enabled a replica may still miss a fresh commit; a resource bumped within the replica
+ * lag bound is served without an ETag until that window has passed.
+ */
+@Service
+@Slf4j
+public class ResourceVersionServiceImpl implements ResourceVersionService {
+
+    private static final String EPOCH_KEY = "resource-version:epoch";
+    private static final String CONVERSATIONS_KEY_PREFIX = "resource-version:conversations:";
+    private static final String GROUP_KEY_PREFIX = "resource-version:group:";
+    private static final String CHANGED_AT_SUFFIX = ":changed";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final long replicaGuardMs;
+
+    public ResourceVersionServiceImpl(RedisTemplate<String, String> redisTemplate,
+                                      @Value("${chat.datasource.replicas.enabled:false}") boolean replicasEnabled,
+                                      @Value("${chat.datasource.replicas.max-lag-seconds:5}") long maxLagSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.replicaGuardMs = replicasEnabled ? maxLagSeconds * 1000 : 0;
+    }
+
+    @Override
+    public String conversationsETag(Long userId) {
+        return eTag("conversations-" + userId, CONVERSATIONS_KEY_PREFIX + userId);
+    }
+
+    @Override
+    public String groupETag(Long groupId) {
+        return eTag("group-" + groupId, GROUP_KEY_PREFIX + groupId);
+    }
+
+    @Override
+    public void conversationsChanged(Collection<Long> userIds) {
+        Set<String> keys = new LinkedHashSet<>();
+        userIds.forEach(userId -> keys.add(CONVERSATIONS_KEY_PREFIX + userId));
+        afterCommit(keys);
+    }
+
+    @Override
+    public void groupChanged(Long groupId) {
+        afterCommit(Set.of(GROUP_KEY_PREFIX + groupId));
+    }
+
+    private String eTag(String resource, String key) {
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(List.of(EPOCH_KEY, key, key + CHANGED_AT_SUFFIX));
+            if (values == null) {
+                return null;
+            }
+            if (values.get(2) != null) {
+                log.trace("ResourceVersionService.eTag key={} changed within replica lag bound", key);
+                return null;
+            }
+            String epoch = values.get(0) != null ? values.get(0) : createEpoch();
+            String version = values.get(1) != null ? values.get(1) : "0";
+            return "\"" + resource + "-" + epoch + "-" + version + "\"";
+        } catch (RuntimeException e) {
+            log.warn("ResourceVersionService.eTag key={} failed: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private String createEpoch() {
+        redisTemplate.opsForValue().setIfAbsent(EPOCH_KEY, Long.toString(System.currentTimeMillis()));
+        return redisTemplate.opsForValue().get(EPOCH_KEY);
+    }
+
+    private void afterCommit(Set<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(keys);
+                }
+            });
+        } else {
+            increment(keys);
+        }
+    }
+
+    // One pipelined round trip however many counters a change touches (e.g. every member of a group)
+    private void increment(Collection<String> keys) {
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                keys.forEach(key -> bump(connection, key));
+                return null;
+            });
+            log.trace("ResourceVersionService.increment keys={}", keys.size());
+        } catch (RuntimeException e) {
+            // The old ETags stay valid until the next bump; clients see the change a little later
+            log.error("ResourceVersionService.increment failed keys={}: {}", keys.size(), e.getMessage());
+        }
+    }
+
+    private void bump(RedisConnection connection, String key) {
+        connection.stringCommands().incr(key.getBytes(StandardCharsets.UTF_8));
+        if (replicaGuardMs > 0) {
+            connection.stringCommands().pSetEx((key + CHANGED_AT_SUFFIX).getBytes(StandardCharsets.UTF_8),
+                    replicaGuardMs, new byte[]{'1'});
+        }
+    }
+}
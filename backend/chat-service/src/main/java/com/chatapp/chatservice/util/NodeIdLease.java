@@ -0,0 +1,116 @@
+package com.chatapp.chatservice.util;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Redis lease on this instance's Snowflake node id, so two running instances can never mint ids
+ * from the same node slot. The lease is claimed at startup (startup fails if another instance
+ * still holds it after one lease period), renewed on a heartbeat and released on shutdown. If renewals stop succeeding or
+ * find the slot taken over, {@link SnowflakeIdGenerator} stops issuing ids.
+ */
+@Component
+@Slf4j
+public class NodeIdLease {
+
+    private static final String NODE_LEASE_KEY_PREFIX = "snowflake-node:";
+    private static final Duration CLAIM_RETRY = Duration.ofSeconds(1);
+    private static final RedisScript<Long> RENEW_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/node_lease_renew.lua"), Long.class);
+    private static final RedisScript<Long> RELEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/node_lease_release.lua"), Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final long nodeId;
+    private final String key;
+    private final String token = UUID.randomUUID().toString();
+    private final long leaseMillis;
+    private volatile long validUntil;
+    private volatile boolean lost;
+
+    public NodeIdLease(RedisTemplate<String, String> redisTemplate,
+                       @Value("${eureka.instance.metadata-map.node-id}") long nodeId,
+                       @Value("${chat.snowflake.node-lease-ms:30000}") long leaseMillis) {
+        if (nodeId < 0 || nodeId > SnowflakeIdGenerator.MAX_NODE_ID) {
+            throw new IllegalArgumentException("node-id must be between 0 and " + SnowflakeIdGenerator.MAX_NODE_ID
+                    + " but was " + nodeId);
+        }
+        this.redisTemplate = redisTemplate;
+        this.nodeId = nodeId;
+        this.key = NODE_LEASE_KEY_PREFIX + nodeId;
+        this.leaseMillis = leaseMillis;
+        claim();
+        log.info("NodeIdLease.claim nodeId={} leaseMs={}", nodeId, leaseMillis);
+    }
+
+    // Waits out one lease period so a restart after a crash can take over its own stale lease
+    private void claim() {
+        long deadline = System.currentTimeMillis() + leaseMillis + CLAIM_RETRY.toMillis();
+        while (true) {
+            long now = System.currentTimeMillis();
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, token, Duration.ofMillis(leaseMillis)))) {
+                validUntil = now + leaseMillis;
+                return;
+            }
+            if (now >= deadline) {
+                throw new IllegalStateException("node-id " + nodeId + " is held by another running instance; "
+                        + "give every instance its own CHAT_NODE_ID");
+            }
+            try {
+                Thread.sleep(CLAIM_RETRY.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while claiming node-id " + nodeId, e);
+            }
+        }
+    }
+
+    public long nodeId() {
+        return nodeId;
+    }
+
+    public boolean isHeld() {
+        return !lost && System.currentTimeMillis() < validUntil;
+    }
+
+    // A failed round trip keeps the lease until it would have expired in Redis. Once another holder
+    // is seen the slot is given up for good: its ids may overlap ours, so only a restart recovers
+    @Scheduled(fixedDelayString = "${chat.snowflake.node-heartbeat-ms:10000}")
+    public void renew() {
+        if (lost) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            Long result = redisTemplate.execute(RENEW_SCRIPT, List.of(key), token, String.valueOf(leaseMillis));
+            if (result != null && result == 1L) {
+                validUntil = now + leaseMillis;
+            } else if (result != null) {
+                lost = true;
+                log.error("NodeIdLease.renew lost nodeId={}, another instance holds it; message ids are disabled", nodeId);
+            }
+        } catch (RuntimeException e) {
+            log.warn("NodeIdLease.renew failed nodeId={}", nodeId, e);
+        }
+    }
+
+    @PreDestroy
+    public void release() {
+        lost = true;
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(key), token);
+        } catch (RuntimeException e) {
+            log.warn("NodeIdLease.release failed nodeId={}", nodeId, e);
+        }
+    }
+}
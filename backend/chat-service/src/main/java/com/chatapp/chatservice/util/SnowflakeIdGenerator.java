@@ -0,0 +1,59 @@
+package com.chatapp.chatservice.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Time-ordered 64-bit ids: milliseconds since {@link #EPOCH} | node id | per-millisecond sequence.
+ * The layout stays within 53 bits so ids survive a round trip through JavaScript numbers.
+ * Ids from one node are strictly increasing; across nodes they are ordered to within clock skew.
+ * The node id is only used while this instance holds its {@link NodeIdLease}.
+ */
+@Component
+@Slf4j
+public class SnowflakeIdGenerator {
+
+    // 2024-01-01T00:00:00Z
+    static final long EPOCH = 1704067200000L;
+
+    static final int NODE_BITS = 5;
+    static final int SEQUENCE_BITS = 7;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final NodeIdLease lease;
+    private final long nodeId;
+
+    private long lastTimestamp = -1L;
+    private long sequence;
+
+    public SnowflakeIdGenerator(NodeIdLease lease) {
+        this.lease = lease;
+        this.nodeId = lease.nodeId();
+        SnowflakeIdentifierGenerator.setIdGenerator(this);
+        log.info("SnowflakeIdGenerator initialised nodeId={}", nodeId);
+    }
+
+    public synchronized long nextId() {
+        if (!lease.isHeld()) {
+            throw new IllegalStateException("Snowflake node id " + nodeId + " lease is not held");
+        }
+        long now = System.currentTimeMillis() - EPOCH;
+        if (now > lastTimestamp) {
+            lastTimestamp = now;
+            sequence = 0;
+        } else {
+            // Same millisecond or clock moved back: keep counting on the last timestamp and
+            // borrow the next millisecond when the sequence wraps, so ids never go backwards
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                lastTimestamp++;
+            }
+        }
+        return (lastTimestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH;
+    }
+}
@@ -0,0 +1,26 @@
+package com.chatapp.chatservice.util;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+/**
+ * Hibernate adapter for {@link SnowflakeIdGenerator}. Hibernate instantiates generators itself,
+ * so the Spring-managed instance registers here when it is created.
+ */
+public class SnowflakeIdentifierGenerator implements IdentifierGenerator {
+
+    private static volatile SnowflakeIdGenerator idGenerator;
+
+    static void setIdGenerator(SnowflakeIdGenerator generator) {
+        idGenerator = generator;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        SnowflakeIdGenerator generator = idGenerator;
+        if (generator == null) {
+            throw new IllegalStateException("SnowflakeIdGenerator has not been initialised");
+        }
+        return generator.nextId();
+    }
+}
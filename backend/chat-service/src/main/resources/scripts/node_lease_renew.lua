@@ -0,0 +1,12 @@
+-- Extends the node id lease in KEYS[1] held by token ARGV[1] to ARGV[2] ms, re-claiming it if it
+-- lapsed and nobody else took it. Returns 1 while the lease is ours, 0 once another instance holds it.
+local holder = redis.call('GET', KEYS[1])
+if holder == ARGV[1] then
+  redis.call('PEXPIRE', KEYS[1], ARGV[2])
+  return 1
+end
+if not holder then
+  redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+  return 1
+end
+return 0
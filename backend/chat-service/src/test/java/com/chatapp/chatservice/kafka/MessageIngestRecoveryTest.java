@@ -0,0 +1,250 @@
+package com.chatapp.chatservice.kafka;
+
+import com.chatapp.chatservice.dao.MessageDaoImpl;
+import com.chatapp.chatservice.dao.MessageStatusDaoImpl;
+import com.chatapp.chatservice.dto.MessageDto;
+import com.chatapp.chatservice.dto.MessageIngestEvent;
+import com.chatapp.chatservice.dto.UserDto;
+import com.chatapp.chatservice.model.MessageType;
+import com.chatapp.chatservice.service.ResourceVersionService;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.condition.EmbeddedKafkaCondition;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Crash and replay behaviour of the Kafka-first ingest path against a real broker: the persister
+ * and the error handler from {@link KafkaIngestConfig} run in a plain listener container, and
+ * rows land in H2 (MySQL mode, so INSERT IGNORE behaves as in production).
+ */
+@EmbeddedKafka(partitions = 1, topics = {
+        MessageIngestRecoveryTest.REPLAY_TOPIC,
+        MessageIngestRecoveryTest.DUPLICATE_TOPIC,
+        MessageIngestRecoveryTest.POISON_TOPIC,
+        MessageIngestRecoveryTest.POISON_TOPIC + ".DLT"
+})
+class MessageIngestRecoveryTest {
+
+    static final String REPLAY_TOPIC = "ingest-replay";
+    static final String DUPLICATE_TOPIC = "ingest-duplicate";
+    static final String POISON_TOPIC = "ingest-poison";
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final List<Long> RECIPIENTS = List.of(21L, 22L);
+
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transactionTemplate;
+
+    private EmbeddedKafkaBroker broker;
+    private MessageIngestPersister persister;
+    private KafkaTemplate<String, byte[]> producer;
+    private KafkaMessageListenerContainer<String, MessageIngestEvent> container;
+
+    @BeforeAll
+    static void createSchema() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:ingest;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.execute("CREATE TABLE messages (id BIGINT PRIMARY KEY, sender_id BIGINT NOT NULL, receiver_id BIGINT, "
+                + "group_id BIGINT, content VARCHAR(255), timestamp TIMESTAMP, status VARCHAR(16))");
+        jdbcTemplate.execute("CREATE TABLE message_status (message_id BIGINT, user_id BIGINT, status VARCHAR(16), "
+                + "updated_at TIMESTAMP, PRIMARY KEY (message_id, user_id))");
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM messages");
+        jdbcTemplate.update("DELETE FROM message_status");
+        broker = EmbeddedKafkaCondition.getBroker();
+        persister = new MessageIngestPersister(new MessageDaoImpl(jdbcTemplate), new MessageStatusDaoImpl(jdbcTemplate),
+                transactionTemplate, mock(ResourceVersionService.class));
+        producer = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(KafkaTestUtils.producerProps(broker),
+                new StringSerializer(), new ByteArraySerializer()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (container != null) {
+            container.stop();
+        }
+        producer.destroy();
+    }
+
+    @Test
+    void publishedButUnpersistedBatchIsReplayedExactlyOnceAfterCrash() throws Exception {
+        for (long id = 1; id <= 3; id++) {
+            send(REPLAY_TOPIC, json(event(id, "hello " + id)));
+        }
+        String group = groupFor(REPLAY_TOPIC);
+
+        // The persister's consumer fetched the batch and died before writing or committing it
+        try (Consumer<String, MessageIngestEvent> crashed = consumerFactory(group).createConsumer()) {
+            crashed.subscribe(List.of(REPLAY_TOPIC));
+            List<ConsumerRecord<String, MessageIngestEvent>> fetched = new ArrayList<>();
+            await(() -> {
+                crashed.poll(Duration.ofMillis(100)).forEach(fetched::add);
+                return fetched.size() == 3;
+            });
+        }
+        assertThat(countMessages()).isZero();
+
+        startContainer(REPLAY_TOPIC);
+
+        await(() -> committedOffset(REPLAY_TOPIC) == 3);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM messages ORDER BY id", Long.class)).containsExactly(1L, 2L, 3L);
+        assertThat(countStatuses()).isEqualTo(3 * RECIPIENTS.size());
+    }
+
+    @Test
+    void duplicateRecordsAreAbsorbedByInsertIgnore() throws Exception {
+        MessageIngestEvent first = event(10, "first");
+        byte[] payload = json(first);
+        send(DUPLICATE_TOPIC, payload);
+        send(DUPLICATE_TOPIC, payload);
+        send(DUPLICATE_TOPIC, json(event(11, "second")));
+        // The first record already reached MySQL before a crash lost its offset commit
+        persister.persist(List.of(new ConsumerRecord<>(DUPLICATE_TOPIC, 0, 0L, "key", first)));
+
+        startContainer(DUPLICATE_TOPIC);
+
+        await(() -> committedOffset(DUPLICATE_TOPIC) == 3);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM messages ORDER BY id", Long.class)).containsExactly(10L, 11L);
+        assertThat(countStatuses()).isEqualTo(2 * RECIPIENTS.size());
+        assertThat(jdbcTemplate.queryForObject("SELECT content FROM messages WHERE id = 10", String.class)).isEqualTo("first");
+    }
+
+    @Test
+    void poisonRecordsAreDeadLetteredWithoutStallingThePartition() throws Exception {
+        MessageIngestEvent noSender = event(32, "no sender");
+        noSender.getMessage().setSender(null);
+        send(POISON_TOPIC, json(event(30, "before")));
+        send(POISON_TOPIC, "not json".getBytes(StandardCharsets.UTF_8));
+        send(POISON_TOPIC, json(event(31, "between")));
+        send(POISON_TOPIC, json(noSender));
+        send(POISON_TOPIC, json(event(33, "after")));
+
+        startContainer(POISON_TOPIC);
+
+        await(() -> committedOffset(POISON_TOPIC) == 5);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM messages ORDER BY id", Long.class)).containsExactly(30L, 31L, 33L);
+
+        Map<String, Object> props = KafkaTestUtils.consumerProps("ingest-dlt-reader", "false", broker);
+        try (Consumer<String, byte[]> dlt = new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+                new ByteArrayDeserializer()).createConsumer()) {
+            dlt.subscribe(List.of(POISON_TOPIC + ".DLT"));
+            List<String> parked = new ArrayList<>();
+            await(() -> {
+                dlt.poll(Duration.ofMillis(100)).forEach(record -> parked.add(new String(record.value(), StandardCharsets.UTF_8)));
+                return parked.size() == 2;
+            });
+            assertThat(parked.get(0)).isEqualTo("not json");
+            assertThat(parked.get(1)).contains("no sender");
+        }
+    }
+
+    private void startContainer(String topic) throws Exception {
+        ContainerProperties containerProperties = new ContainerProperties(topic);
+        containerProperties.setMessageListener((BatchMessageListener<String, MessageIngestEvent>) persister::persist);
+        container = new KafkaMessageListenerContainer<>(consumerFactory(groupFor(topic)), containerProperties);
+        container.setCommonErrorHandler(KafkaIngestConfig.ingestErrorHandler(
+                KafkaIngestConfig.deadLetterTemplate(KafkaTestUtils.producerProps(broker)), 10L, 3));
+        container.start();
+        ContainerTestUtils.waitForAssignment(container, 1);
+    }
+
+    private DefaultKafkaConsumerFactory<String, MessageIngestEvent> consumerFactory(String group) {
+        Map<String, Object> props = KafkaTestUtils.consumerProps(group, "false", broker);
+        JsonDeserializer<MessageIngestEvent> json = new JsonDeserializer<>(MessageIngestEvent.class, false);
+        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new ErrorHandlingDeserializer<>(json));
+    }
+
+    private static String groupFor(String topic) {
+        return "message-persister-" + topic;
+    }
+
+    private void send(String topic, byte[] payload) throws Exception {
+        producer.send(new ProducerRecord<>(topic, "conversation-1-2", payload)).get();
+    }
+
+    private static byte[] json(MessageIngestEvent event) {
+        try (JsonSerializer<MessageIngestEvent> serializer = new JsonSerializer<>()) {
+            serializer.setAddTypeInfo(false);
+            return serializer.serialize("ingest", event);
+        }
+    }
+
+    private static MessageIngestEvent event(long id, String content) {
+        MessageDto message = MessageDto.builder()
+                .id(id)
+                .sender(UserDto.builder().id(1L).build())
+                .groupId(7L)
+                .content(content)
+                .timestamp(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS))
+                .type(MessageType.CHAT)
+                .build();
+        return MessageIngestEvent.builder().message(message).recipientIds(RECIPIENTS).build();
+    }
+
+    private long committedOffset(String topic) {
+        try {
+            OffsetAndMetadata offset = KafkaTestUtils.getCurrentOffset(broker.getBrokersAsString(), groupFor(topic), topic, 0);
+            return offset != null ? offset.offset() : -1L;
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot read committed offset of " + topic, e);
+        }
+    }
+
+    private static int countMessages() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM messages", Integer.class);
+    }
+
+    private static int countStatuses() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM message_status", Integer.class);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within %s", TIMEOUT).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+}
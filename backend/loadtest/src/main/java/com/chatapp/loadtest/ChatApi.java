@@ -0,0 +1,64 @@
+package com.chatapp.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/** The REST calls a chat client makes while chatting: send a message and mark one read. */
+final class ChatApi {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    ChatApi(HttpClient client, String baseUrl) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+    }
+
+    CompletableFuture<HttpResponse<Void>> sendPrivateMessage(String token, long receiverId, String content) {
+        return post(token, "/api/chat/messages", Map.of("receiver", Map.of("id", receiverId), "content", content));
+    }
+
+    CompletableFuture<HttpResponse<Void>> sendGroupMessage(String token, long groupId, String content) {
+        return post(token, "/api/chat/messages", Map.of("groupId", groupId, "content", content));
+    }
+
+    CompletableFuture<HttpResponse<Void>> markRead(String token, long messageId) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/chat/messages/" + messageId + "/read"))
+                .timeout(TIMEOUT)
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    private CompletableFuture<HttpResponse<Void>> post(String token, String path, Object body) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    static boolean ok(HttpResponse<?> response) {
+        return response.statusCode() / 100 == 2;
+    }
+}
@@ -0,0 +1,111 @@
+package com.chatapp.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts synthetic users, contacts and groups straight into the tables chat-service reads. Names
+ * carry a per-run prefix, so a run against a shared MySQL never collides with earlier data.
+ */
+final class DataSeeder {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String prefix;
+
+    DataSeeder(JdbcTemplate jdbcTemplate, String runId) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.prefix = "lt-" + runId + "-";
+    }
+
+    SeedData seed(Scenario scenario) {
+        int userCount = scenario.users();
+        List<String> usernames = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            usernames.add(prefix + "user-" + i);
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (username, email, password, role) VALUES (?, ?, '', 'USER')",
+                usernames, BATCH_SIZE, (ps, username) -> {
+                    ps.setString(1, username);
+                    ps.setString(2, username + "@loadtest.local");
+                });
+        Map<String, Long> idsByName = new HashMap<>();
+        jdbcTemplate.query("SELECT id, username FROM users WHERE username LIKE ?",
+                (RowCallbackHandler) rs -> idsByName.put(rs.getString("username"), rs.getLong("id")), prefix + "user-%");
+        long[] userIds = usernames.stream().mapToLong(idsByName::get).toArray();
+
+        // Contacts: the next contacts-per-user users around the ring, in both directions
+        int contactsPerUser = Math.min(scenario.contactsPerUser(), userCount - 1);
+        List<long[]> contactRows = new ArrayList<>(userCount * contactsPerUser * 2);
+        List<List<Long>> contacts = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            contacts.add(new ArrayList<>());
+        }
+        for (int i = 0; i < userCount; i++) {
+            for (int k = 1; k <= contactsPerUser; k++) {
+                int j = (i + k) % userCount;
+                contactRows.add(new long[]{userIds[i], userIds[j]});
+                contactRows.add(new long[]{userIds[j], userIds[i]});
+                contacts.get(i).add(userIds[j]);
+                contacts.get(j).add(userIds[i]);
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO contacts (user_id, contact_id, invite) VALUES (?, ?, false)",
+                contactRows, BATCH_SIZE, (ps, row) -> {
+                    ps.setLong(1, row[0]);
+                    ps.setLong(2, row[1]);
+                });
+
+        // Groups: consecutive runs of group-size users, so every user lands in a similar number of groups
+        int groupSize = Math.min(scenario.groupSize(), userCount);
+        List<String> groupNames = new ArrayList<>(scenario.groups());
+        for (int g = 0; g < scenario.groups(); g++) {
+            groupNames.add(prefix + "group-" + g);
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO `groups` (name, created_by) VALUES (?, ?)",
+                groupNames, BATCH_SIZE, (ps, name) -> {
+                    ps.setString(1, name);
+                    ps.setLong(2, userIds[0]);
+                });
+        Map<String, Long> groupIdsByName = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM `groups` WHERE name LIKE ?",
+                (RowCallbackHandler) rs -> groupIdsByName.put(rs.getString("name"), rs.getLong("id")), prefix + "group-%");
+
+        List<SeedData.SeededGroup> groups = new ArrayList<>(groupNames.size());
+        List<List<Long>> groupsByUser = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            groupsByUser.add(new ArrayList<>());
+        }
+        List<long[]> memberRows = new ArrayList<>(groupNames.size() * groupSize);
+        for (int g = 0; g < groupNames.size(); g++) {
+            long groupId = groupIdsByName.get(groupNames.get(g));
+            List<Long> members = new ArrayList<>(groupSize);
+            int first = (int) ((long) g * groupSize % userCount);
+            for (int m = 0; m < groupSize; m++) {
+                int user = (first + m) % userCount;
+                members.add(userIds[user]);
+                groupsByUser.get(user).add(groupId);
+                memberRows.add(new long[]{groupId, userIds[user]});
+            }
+            groups.add(new SeedData.SeededGroup(groupId, List.copyOf(members)));
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO group_users (group_id, user_id) VALUES (?, ?)",
+                memberRows, BATCH_SIZE, (ps, row) -> {
+                    ps.setLong(1, row[0]);
+                    ps.setLong(2, row[1]);
+                });
+
+        List<SeedData.SeededUser> users = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            users.add(new SeedData.SeededUser(userIds[i], usernames.get(i), List.copyOf(contacts.get(i)),
+                    List.copyOf(groupsByUser.get(i))));
+        }
+        return new SeedData(users, groups);
+    }
+}
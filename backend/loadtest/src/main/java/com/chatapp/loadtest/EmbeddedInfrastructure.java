@@ -0,0 +1,113 @@
+package com.chatapp.loadtest;
+
+import com.github.fppt.jedismock.RedisServer;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kafka, Redis and the database chat-service needs. Each one is embedded unless the matching
+ * option points at a real instance: {@code --kafka-bootstrap}, {@code --redis-host}/{@code --redis-port},
+ * {@code --db-url}/{@code --db-username}/{@code --db-password}.
+ */
+final class EmbeddedInfrastructure implements AutoCloseable {
+
+    private static final String H2_URL = "jdbc:h2:mem:chatapp;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+            + "CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1";
+
+    private final EmbeddedKafkaBroker kafka;
+    private final RedisServer redis;
+    private final String kafkaBootstrap;
+    private final String redisHost;
+    private final int redisPort;
+    private final String dbUrl;
+    private final String dbUsername;
+    private final String dbPassword;
+
+    private EmbeddedInfrastructure(EmbeddedKafkaBroker kafka, RedisServer redis, String kafkaBootstrap, String redisHost,
+                                   int redisPort, String dbUrl, String dbUsername, String dbPassword) {
+        this.kafka = kafka;
+        this.redis = redis;
+        this.kafkaBootstrap = kafkaBootstrap;
+        this.redisHost = redisHost;
+        this.redisPort = redisPort;
+        this.dbUrl = dbUrl;
+        this.dbUsername = dbUsername;
+        this.dbPassword = dbPassword;
+    }
+
+    static EmbeddedInfrastructure start(Map<String, String> options) {
+        EmbeddedKafkaBroker kafka = null;
+        String kafkaBootstrap = options.get("kafka-bootstrap");
+        if (kafkaBootstrap == null) {
+            kafka = new EmbeddedKafkaBroker(1, false, 6);
+            kafka.afterPropertiesSet();
+            kafkaBootstrap = kafka.getBrokersAsString();
+        }
+
+        RedisServer redis = null;
+        String redisHost = options.get("redis-host");
+        int redisPort = Integer.parseInt(options.getOrDefault("redis-port", "6379"));
+        if (redisHost == null) {
+            try {
+                redis = RedisServer.newRedisServer();
+                redis.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot start in-process Redis", e);
+            }
+            redisHost = redis.getHost();
+            redisPort = redis.getBindPort();
+        }
+
+        String dbUrl = options.getOrDefault("db-url", H2_URL);
+        EmbeddedInfrastructure infrastructure = new EmbeddedInfrastructure(kafka, redis, kafkaBootstrap, redisHost, redisPort,
+                dbUrl, options.getOrDefault("db-username", "sa"), options.getOrDefault("db-password", ""));
+        infrastructure.createAuthTables();
+        return infrastructure;
+    }
+
+    boolean embeddedDatabase() {
+        return dbUrl.startsWith("jdbc:h2:");
+    }
+
+    /** Overrides applied on top of chat-service's application.yml. */
+    Map<String, Object> chatServiceProperties() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.datasource.url", dbUrl);
+        properties.put("spring.datasource.username", dbUsername);
+        properties.put("spring.datasource.password", dbPassword);
+        if (embeddedDatabase()) {
+            properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        }
+        properties.put("spring.kafka.bootstrap-servers", kafkaBootstrap);
+        properties.put("spring.data.redis.host", redisHost);
+        properties.put("spring.data.redis.port", redisPort);
+        properties.put("eureka.client.enabled", false);
+        // chat-service requires a node id; a single in-process instance can always take 0
+        properties.put("eureka.instance.metadata-map.node-id", 0);
+        return properties;
+    }
+
+    private void createAuthTables() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(dbUrl, dbUsername, dbPassword);
+        new ResourceDatabasePopulator(new ClassPathResource("auth-schema.sql")).execute(dataSource);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (redis != null) {
+            redis.stop();
+        }
+        if (kafka != null) {
+            kafka.destroy();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.chatapp.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Client-side measurements for one scenario. Histograms record microseconds; everything is reset
+ * at the end of the warm-up so the report only covers the measured window.
+ */
+final class LoadMetrics {
+
+    private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    final Histogram connectLatency = histogram();
+    final Histogram sendLatency = histogram();
+    final Histogram deliveryLatency = histogram();
+    final Histogram receiptLatency = histogram();
+
+    final LongAdder connected = new LongAdder();
+    final LongAdder connectFailures = new LongAdder();
+    final LongAdder transportErrors = new LongAdder();
+    final LongAdder messagesSent = new LongAdder();
+    final LongAdder sendFailures = new LongAdder();
+    final LongAdder messagesDelivered = new LongAdder();
+    final LongAdder typingSent = new LongAdder();
+    final LongAdder typingReceived = new LongAdder();
+    final LongAdder readsSent = new LongAdder();
+    final LongAdder readFailures = new LongAdder();
+    final LongAdder receiptsReceived = new LongAdder();
+
+    static void record(Histogram histogram, long startNanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        histogram.recordValue(Math.max(0, Math.min(micros, MAX_MICROS)));
+    }
+
+    /** Clears everything except connection counts, which describe the ramp-up that came before. */
+    void resetForMeasurement() {
+        sendLatency.reset();
+        deliveryLatency.reset();
+        receiptLatency.reset();
+        transportErrors.reset();
+        messagesSent.reset();
+        sendFailures.reset();
+        messagesDelivered.reset();
+        typingSent.reset();
+        typingReceived.reset();
+        readsSent.reset();
+        readFailures.reset();
+        receiptsReceived.reset();
+    }
+
+    private static Histogram histogram() {
+        return new ConcurrentHistogram(MAX_MICROS, 3);
+    }
+}
@@ -0,0 +1,88 @@
+package com.chatapp.loadtest;
+
+import com.chatapp.chatservice.ChatServiceApplication;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots chat-service in this JVM against embedded Kafka, an in-process Redis and H2 (or real
+ * instances, see {@link EmbeddedInfrastructure}), seeds users, contacts and groups, and runs
+ * STOMP clients against it.
+ * <p>
+ * Usage: {@code java -jar loadtest.jar --scenario=smoke,steady [--users=500] [--out=dir] ...};
+ * any scenario key can be overridden on the command line.
+ */
+public final class LoadTestApplication {
+
+    private static final String JWT_SECRET = "loadtest-signing-secret-loadtest-signing-secret-0123456789abcdef";
+
+    private LoadTestApplication() {
+    }
+
+    public static void main(String[] args) {
+        int status = 0;
+        try {
+            Map<String, String> options = parseOptions(args);
+            Path outDir = Path.of(options.getOrDefault("out", "target/loadtest-results"));
+            String runId = Long.toString(System.currentTimeMillis(), 36);
+            for (String name : options.getOrDefault("scenario", "smoke").split(",")) {
+                Scenario scenario = Scenario.load(name.trim(), options);
+                ScenarioReport report = run(scenario, options, runId + "-" + scenario.name());
+                report.print(System.out);
+                report.writeJson(outDir.resolve(scenario.name() + ".json"));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            status = 1;
+        }
+        // Kafka, Tomcat and WebSocket client threads are not all daemons
+        System.exit(status);
+    }
+
+    private static ScenarioReport run(Scenario scenario, Map<String, String> options, String runId) throws Exception {
+        try (EmbeddedInfrastructure infrastructure = EmbeddedInfrastructure.start(options);
+             ConfigurableApplicationContext context = startChatService(infrastructure, scenario)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            SeedData seed = new DataSeeder(context.getBean(JdbcTemplate.class), runId).seed(scenario);
+            return new ScenarioRunner(scenario, seed, port, new TokenFactory(JWT_SECRET), context.getBean(MeterRegistry.class))
+                    .run();
+        }
+    }
+
+    private static ConfigurableApplicationContext startChatService(EmbeddedInfrastructure infrastructure, Scenario scenario) {
+        Map<String, Object> properties = infrastructure.chatServiceProperties();
+        properties.put("jwt.secret", JWT_SECRET);
+        properties.put("chat.ingest.mode", scenario.ingestMode());
+        // Per-message INFO logging and SQL echo would dominate the profile
+        properties.put("spring.jpa.show-sql", false);
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.chatapp", "WARN");
+        // Passed as command-line arguments so they win over chat-service's application.yml
+        List<String> args = properties.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue()).toList();
+        return new SpringApplicationBuilder(ChatServiceApplication.class).run(args.toArray(String[]::new));
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,117 @@
+package com.chatapp.loadtest;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples process resources once a second, plus a few chat-service gauges read from its own
+ * MeterRegistry. The server runs in this JVM, so CPU, heap and threads include the load
+ * generator; the chat-service gauges do not.
+ */
+final class ResourceSampler implements AutoCloseable {
+
+    private final MeterRegistry serverRegistry;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "loadtest-resource-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final com.sun.management.OperatingSystemMXBean os =
+            (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    private final Stat cpu = new Stat();
+    private final Stat heapMb = new Stat();
+    private final Stat threadCount = new Stat();
+    private final Stat hikariActive = new Stat();
+    private final Stat writerQueueDepth = new Stat();
+    private final Stat kafkaInFlight = new Stat();
+    private volatile long gcMillisAtReset;
+    private volatile long gcCountAtReset;
+
+    ResourceSampler(MeterRegistry serverRegistry) {
+        this.serverRegistry = serverRegistry;
+    }
+
+    void start() {
+        reset();
+        scheduler.scheduleAtFixedRate(this::sample, 1, 1, TimeUnit.SECONDS);
+    }
+
+    synchronized void reset() {
+        cpu.reset();
+        heapMb.reset();
+        threadCount.reset();
+        hikariActive.reset();
+        writerQueueDepth.reset();
+        kafkaInFlight.reset();
+        gcMillisAtReset = gcMillis();
+        gcCountAtReset = gcCount();
+    }
+
+    private synchronized void sample() {
+        cpu.add(Math.max(0, os.getProcessCpuLoad()) * 100);
+        heapMb.add(memory.getHeapMemoryUsage().getUsed() / (1024.0 * 1024.0));
+        threadCount.add(threads.getThreadCount());
+        hikariActive.add(gaugeSum("hikaricp.connections.active"));
+        writerQueueDepth.add(gaugeSum("chat.message.writer.queue.depth"));
+        kafkaInFlight.add(gaugeSum("chat.kafka.producer.in.flight"));
+    }
+
+    synchronized ScenarioReport.Resources snapshot() {
+        return new ScenarioReport.Resources(
+                cpu.average(), cpu.max,
+                heapMb.average(), heapMb.max,
+                threadCount.max,
+                gcCount() - gcCountAtReset, gcMillis() - gcMillisAtReset,
+                hikariActive.max, writerQueueDepth.max, kafkaInFlight.max);
+    }
+
+    private double gaugeSum(String name) {
+        return serverRegistry.find(name).gauges().stream().mapToDouble(Gauge::value).filter(Double::isFinite).sum();
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private static final class Stat {
+        private double sum;
+        private long samples;
+        private double max;
+
+        void add(double value) {
+            sum += value;
+            samples++;
+            max = Math.max(max, value);
+        }
+
+        double average() {
+            return samples == 0 ? 0 : sum / samples;
+        }
+
+        void reset() {
+            sum = 0;
+            samples = 0;
+            max = 0;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.chatapp.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * One load profile. Loaded from {@code scenarios/<name>.properties} on the classpath (or a file
+ * path), with any matching command-line option overriding the file.
+ */
+public record Scenario(
+        String name,
+        int users,
+        int contactsPerUser,
+        int groups,
+        int groupSize,
+        int connectRatePerSecond,
+        double messagesPerUserPerMinute,
+        double groupMessageRatio,
+        double typingPerUserPerMinute,
+        double readRatio,
+        int warmupSeconds,
+        int durationSeconds,
+        String ingestMode) {
+
+    public static Scenario load(String name, Map<String, String> overrides) {
+        Properties properties = new Properties();
+        try (InputStream in = open(name)) {
+            properties.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read scenario " + name, e);
+        }
+        overrides.forEach((key, value) -> {
+            if (properties.containsKey(key)) {
+                properties.setProperty(key, value);
+            }
+        });
+        return new Scenario(
+                properties.getProperty("name", name),
+                intValue(properties, "users", 100),
+                intValue(properties, "contacts-per-user", 10),
+                intValue(properties, "groups", 10),
+                intValue(properties, "group-size", 20),
+                intValue(properties, "connect-rate-per-second", 100),
+                doubleValue(properties, "messages-per-user-per-minute", 6),
+                doubleValue(properties, "group-message-ratio", 0.3),
+                doubleValue(properties, "typing-per-user-per-minute", 12),
+                doubleValue(properties, "read-ratio", 0.5),
+                intValue(properties, "warmup-seconds", 10),
+                intValue(properties, "duration-seconds", 60),
+                properties.getProperty("ingest-mode", "direct"));
+    }
+
+    private static InputStream open(String name) throws IOException {
+        Path path = Path.of(name);
+        if (Files.isRegularFile(path)) {
+            return Files.newInputStream(path);
+        }
+        InputStream in = Scenario.class.getResourceAsStream("/scenarios/" + name + ".properties");
+        if (in == null) {
+            throw new IllegalArgumentException("Unknown scenario " + name);
+        }
+        return in;
+    }
+
+    private static int intValue(Properties properties, String key, int defaultValue) {
+        return Integer.parseInt(properties.getProperty(key, String.valueOf(defaultValue)).trim());
+    }
+
+    private static double doubleValue(Properties properties, String key, double defaultValue) {
+        return Double.parseDouble(properties.getProperty(key, String.valueOf(defaultValue)).trim());
+    }
+}
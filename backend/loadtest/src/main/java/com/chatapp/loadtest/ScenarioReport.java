@@ -0,0 +1,76 @@
+package com.chatapp.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/** Result of one scenario, printed as a table and written as JSON next to the other runs. */
+record ScenarioReport(
+        Scenario scenario,
+        Connections connections,
+        Throughput throughput,
+        Map<String, Percentiles> latencyMillis,
+        Map<String, Percentiles> serverLatencyMillis,
+        Resources resources) {
+
+    record Connections(long connected, long failed, double setupPerSecond, long transportErrors) {
+    }
+
+    record Throughput(double messagesSentPerSecond, double deliveriesPerSecond, long sendFailures,
+                      double typingSentPerSecond, double typingReceivedPerSecond,
+                      double readsPerSecond, long readFailures, double receiptsPerSecond) {
+    }
+
+    record Percentiles(long count, double p50, double p99, double p999, double max) {
+
+        static Percentiles of(Histogram micros) {
+            return new Percentiles(micros.getTotalCount(),
+                    micros.getValueAtPercentile(50) / 1000.0,
+                    micros.getValueAtPercentile(99) / 1000.0,
+                    micros.getValueAtPercentile(99.9) / 1000.0,
+                    micros.getMaxValue() / 1000.0);
+        }
+    }
+
+    record Resources(double cpuPercentAvg, double cpuPercentMax, double heapMbAvg, double heapMbMax,
+                     double threadsMax, long gcCount, long gcMillis,
+                     double hikariActiveMax, double writerQueueDepthMax, double kafkaInFlightMax) {
+    }
+
+    void print(PrintStream out) {
+        out.println();
+        out.printf("=== Scenario %s: %d users, %ds measured ===%n", scenario.name(), scenario.users(), scenario.durationSeconds());
+        out.printf("connections   %d ok, %d failed, %.1f/s setup, %d transport errors%n",
+                connections.connected(), connections.failed(), connections.setupPerSecond(), connections.transportErrors());
+        out.printf("messages      %.1f/s sent (%d failed), %.1f/s delivered%n",
+                throughput.messagesSentPerSecond(), throughput.sendFailures(), throughput.deliveriesPerSecond());
+        out.printf("typing        %.1f/s sent, %.1f/s received%n",
+                throughput.typingSentPerSecond(), throughput.typingReceivedPerSecond());
+        out.printf("reads         %.1f/s sent (%d failed), %.1f/s receipts%n",
+                throughput.readsPerSecond(), throughput.readFailures(), throughput.receiptsPerSecond());
+        out.printf("%-28s %10s %10s %10s %10s %10s%n", "latency (ms)", "count", "p50", "p99", "p999", "max");
+        latencyMillis.forEach((name, p) -> printRow(out, name, p));
+        serverLatencyMillis.forEach((name, p) -> printRow(out, "server " + name, p));
+        out.printf("cpu           %.0f%% avg, %.0f%% max (whole JVM)%n", resources.cpuPercentAvg(), resources.cpuPercentMax());
+        out.printf("heap          %.0f MB avg, %.0f MB max; %d GCs, %d ms%n",
+                resources.heapMbAvg(), resources.heapMbMax(), resources.gcCount(), resources.gcMillis());
+        out.printf("threads       %.0f max%n", resources.threadsMax());
+        out.printf("server        hikari active %.0f max, writer queue %.0f max, kafka in-flight %.0f max%n",
+                resources.hikariActiveMax(), resources.writerQueueDepthMax(), resources.kafkaInFlightMax());
+    }
+
+    void writeJson(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), this);
+    }
+
+    private static void printRow(PrintStream out, String name, Percentiles p) {
+        out.printf("%-28s %10d %10.2f %10.2f %10.2f %10.2f%n", name, p.count(), p.p50(), p.p99(), p.p999(), p.max());
+    }
+}
@@ -0,0 +1,202 @@
+package com.chatapp.loadtest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Runs one scenario against a started chat-service: connect every user at the configured rate,
+ * drive sends and typing for the warm-up, reset, drive for the measured window, then report.
+ */
+final class ScenarioRunner {
+
+    private static final long TICK_MILLIS = 10;
+
+    private final Scenario scenario;
+    private final SeedData seed;
+    private final int port;
+    private final TokenFactory tokens;
+    private final MeterRegistry serverRegistry;
+    private final LoadMetrics metrics = new LoadMetrics();
+
+    ScenarioRunner(Scenario scenario, SeedData seed, int port, TokenFactory tokens, MeterRegistry serverRegistry) {
+        this.scenario = scenario;
+        this.seed = seed;
+        this.port = port;
+        this.tokens = tokens;
+        this.serverRegistry = serverRegistry;
+    }
+
+    ScenarioReport run() throws InterruptedException {
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        stompClient.setDefaultHeartbeat(new long[]{0, 0});
+        ExecutorService httpExecutor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        HttpClient httpClient = HttpClient.newBuilder()
+                .executor(httpExecutor)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        ChatApi api = new ChatApi(httpClient, "http://localhost:" + port);
+
+        Map<Long, String> usernames = seed.users().stream()
+                .collect(Collectors.toMap(SeedData.SeededUser::id, SeedData.SeededUser::username));
+        Map<String, Long> pendingReads = new ConcurrentHashMap<>();
+        List<VirtualUser> users = new ArrayList<>(seed.users().size());
+        for (SeedData.SeededUser user : seed.users()) {
+            users.add(new VirtualUser(user, tokens.tokenFor(user), usernames, api, metrics, pendingReads, scenario.readRatio()));
+        }
+
+        ScheduledExecutorService driver = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "loadtest-driver"));
+        try (ResourceSampler sampler = new ResourceSampler(serverRegistry)) {
+            sampler.start();
+            ScenarioReport.Connections connections = connectAll(stompClient, users);
+            List<VirtualUser> connected = users.stream().filter(VirtualUser::isConnected).toList();
+            if (connected.isEmpty()) {
+                throw new IllegalStateException("No client could connect; see the chat-service log above");
+            }
+            startDriver(driver, connected);
+
+            TimeUnit.SECONDS.sleep(scenario.warmupSeconds());
+            metrics.resetForMeasurement();
+            sampler.reset();
+            long measureStart = System.nanoTime();
+            TimeUnit.SECONDS.sleep(scenario.durationSeconds());
+            double seconds = (System.nanoTime() - measureStart) / 1e9;
+
+            return new ScenarioReport(scenario, connections, throughput(seconds), clientLatencies(), serverLatencies(),
+                    sampler.snapshot());
+        } finally {
+            driver.shutdownNow();
+            users.forEach(VirtualUser::disconnect);
+            stompClient.stop();
+            httpExecutor.shutdownNow();
+        }
+    }
+
+    private ScenarioReport.Connections connectAll(WebSocketStompClient stompClient, List<VirtualUser> users)
+            throws InterruptedException {
+        String url = "ws://localhost:" + port + "/ws/websocket";
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, scenario.connectRatePerSecond());
+        long rampStart = System.nanoTime();
+        AtomicLong lastConnected = new AtomicLong(rampStart);
+        List<CompletableFuture<?>> pending = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            LockSupport.parkNanos(rampStart + i * intervalNanos - System.nanoTime());
+            pending.add(users.get(i).connect(stompClient, url)
+                    .whenComplete((session, error) -> lastConnected.accumulateAndGet(System.nanoTime(), Math::max)));
+        }
+        try {
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new))
+                    .get(60, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            // Failures are already counted per client; report whatever made it
+        }
+        double rampSeconds = Math.max(1e-3, (lastConnected.get() - rampStart) / 1e9);
+        long connectedCount = metrics.connected.sum();
+        return new ScenarioReport.Connections(connectedCount, metrics.connectFailures.sum(), connectedCount / rampSeconds,
+                metrics.transportErrors.sum());
+    }
+
+    /** Spreads sends and typing events over 10 ms ticks to hit the configured per-user rates. */
+    private void startDriver(ScheduledExecutorService driver, List<VirtualUser> connected) {
+        double ticksPerMinute = TimeUnit.MINUTES.toMillis(1) / (double) TICK_MILLIS;
+        double messagesPerTick = connected.size() * scenario.messagesPerUserPerMinute() / ticksPerMinute;
+        double typingPerTick = connected.size() * scenario.typingPerUserPerMinute() / ticksPerMinute;
+        double[] due = new double[2];
+        driver.scheduleAtFixedRate(() -> {
+            due[0] += messagesPerTick;
+            due[1] += typingPerTick;
+            due[0] = fire(due[0], connected, user -> user.sendMessage(scenario.groupMessageRatio()));
+            due[1] = fire(due[1], connected, user -> user.sendTyping(scenario.groupMessageRatio()));
+        }, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private static double fire(double due, List<VirtualUser> users, Consumer<VirtualUser> action) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (due >= 1) {
+            VirtualUser user = users.get(random.nextInt(users.size()));
+            try {
+                action.accept(user);
+            } catch (RuntimeException e) {
+                // A dropped session must not stop the driver; the transport error is counted by the handler
+            }
+            due--;
+        }
+        return due;
+    }
+
+    private ScenarioReport.Throughput throughput(double seconds) {
+        return new ScenarioReport.Throughput(
+                metrics.messagesSent.sum() / seconds,
+                metrics.messagesDelivered.sum() / seconds,
+                metrics.sendFailures.sum(),
+                metrics.typingSent.sum() / seconds,
+                metrics.typingReceived.sum() / seconds,
+                metrics.readsSent.sum() / seconds,
+                metrics.readFailures.sum(),
+                metrics.receiptsReceived.sum() / seconds);
+    }
+
+    private Map<String, ScenarioReport.Percentiles> clientLatencies() {
+        Map<String, ScenarioReport.Percentiles> latencies = new LinkedHashMap<>();
+        latencies.put("connect", ScenarioReport.Percentiles.of(metrics.connectLatency));
+        latencies.put("send (REST)", ScenarioReport.Percentiles.of(metrics.sendLatency));
+        latencies.put("delivery", ScenarioReport.Percentiles.of(metrics.deliveryLatency));
+        latencies.put("read receipt", ScenarioReport.Percentiles.of(metrics.receiptLatency));
+        return latencies;
+    }
+
+    /** chat-service's own pipeline timers; these use Micrometer's rolling window, not the measured window. */
+    private Map<String, ScenarioReport.Percentiles> serverLatencies() {
+        Map<String, ScenarioReport.Percentiles> latencies = new LinkedHashMap<>();
+        for (Timer timer : serverRegistry.find("chat.message.latency").timers()) {
+            latencies.put(timer.getId().getTag("stage"), percentiles(timer.takeSnapshot()));
+        }
+        Timer endToEnd = serverRegistry.find("chat.message.latency.end_to_end").timer();
+        if (endToEnd != null) {
+            latencies.put("end_to_end", percentiles(endToEnd.takeSnapshot()));
+        }
+        return latencies;
+    }
+
+    private static ScenarioReport.Percentiles percentiles(HistogramSnapshot snapshot) {
+        double p50 = 0;
+        double p99 = 0;
+        double p999 = 0;
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            double millis = value.value(TimeUnit.MILLISECONDS);
+            if (value.percentile() == 0.5) {
+                p50 = millis;
+            } else if (value.percentile() == 0.99) {
+                p99 = millis;
+            } else if (value.percentile() == 0.999) {
+                p999 = millis;
+            }
+        }
+        return new ScenarioReport.Percentiles(snapshot.count(), p50, p99, p999, snapshot.max(TimeUnit.MILLISECONDS));
+    }
+}
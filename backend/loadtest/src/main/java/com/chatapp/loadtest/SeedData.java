@@ -0,0 +1,13 @@
+package com.chatapp.loadtest;
+
+import java.util.List;
+
+/** Users, contacts and groups created for one run. */
+record SeedData(List<SeededUser> users, List<SeededGroup> groups) {
+
+    record SeededUser(long id, String username, List<Long> contactIds, List<Long> groupIds) {
+    }
+
+    record SeededGroup(long id, List<Long> memberIds) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.chatapp.loadtest;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** Mints tokens shaped like auth-service's (subject, id and role claims), signed with chat-service's secret. */
+final class TokenFactory {
+
+    private final Key key;
+
+    TokenFactory(String secret) {
+        this.key = Keys.hmacShaKeyFor(secret.getBytes());
+    }
+
+    String tokenFor(SeedData.SeededUser user) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setClaims(Map.of("id", user.id(), "role", "USER"))
+                .setSubject(user.username())
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + TimeUnit.HOURS.toMillis(10)))
+                .signWith(key)
+                .compact();
+    }
+}
@@ -0,0 +1,203 @@
+package com.chatapp.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * One simulated client: a STOMP session subscribed to everything the frontend subscribes to,
+ * sending over REST like the frontend does. Message content carries the sender's
+ * {@code System.nanoTime()}, so receivers in this JVM can measure delivery latency.
+ */
+final class VirtualUser extends StompSessionHandlerAdapter {
+
+    // The /ws endpoint only accepts the frontend origins
+    private static final String ORIGIN = "http://localhost:5173";
+    private static final String MARKER = "lt:";
+
+    private final SeedData.SeededUser user;
+    private final String token;
+    private final Map<Long, String> usernames;
+    private final ChatApi api;
+    private final LoadMetrics metrics;
+    private final Map<String, Long> pendingReads;
+    private final double readRatio;
+
+    private volatile StompSession session;
+
+    VirtualUser(SeedData.SeededUser user, String token, Map<Long, String> usernames, ChatApi api, LoadMetrics metrics,
+                Map<String, Long> pendingReads, double readRatio) {
+        this.user = user;
+        this.token = token;
+        this.usernames = usernames;
+        this.api = api;
+        this.metrics = metrics;
+        this.pendingReads = pendingReads;
+        this.readRatio = readRatio;
+    }
+
+    CompletableFuture<StompSession> connect(WebSocketStompClient client, String url) {
+        WebSocketHttpHeaders handshakeHeaders = new WebSocketHttpHeaders();
+        handshakeHeaders.setOrigin(ORIGIN);
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + token);
+        long start = System.nanoTime();
+        return client.connectAsync(url, handshakeHeaders, connectHeaders, this).whenComplete((connected, error) -> {
+            if (error == null) {
+                LoadMetrics.record(metrics.connectLatency, start);
+                metrics.connected.increment();
+            } else {
+                metrics.connectFailures.increment();
+            }
+        });
+    }
+
+    boolean isConnected() {
+        StompSession current = session;
+        return current != null && current.isConnected();
+    }
+
+    @Override
+    public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+        this.session = session;
+        session.subscribe("/user/queue/reply", handler(this::onMessage));
+        session.subscribe("/user/queue/read", handler(this::onReadReceipt));
+        session.subscribe("/user/queue/typing", handler(payload -> metrics.typingReceived.increment()));
+        for (Long groupId : user.groupIds()) {
+            session.subscribe("/topic/" + groupId, handler(this::onMessage));
+            session.subscribe("/topic/" + groupId + "/typing", handler(this::onGroupTyping));
+        }
+    }
+
+    @Override
+    public void handleException(StompSession session, StompCommand command, StompHeaders headers, byte[] payload,
+                                Throwable exception) {
+        metrics.transportErrors.increment();
+    }
+
+    @Override
+    public void handleTransportError(StompSession session, Throwable exception) {
+        metrics.transportErrors.increment();
+    }
+
+    void sendMessage(double groupMessageRatio) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String content = MARKER + System.nanoTime() + ":load test message";
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<Void>> sent;
+        if (!user.groupIds().isEmpty() && (user.contactIds().isEmpty() || random.nextDouble() < groupMessageRatio)) {
+            sent = api.sendGroupMessage(token, pick(user.groupIds()), content);
+        } else if (!user.contactIds().isEmpty()) {
+            sent = api.sendPrivateMessage(token, pick(user.contactIds()), content);
+        } else {
+            return;
+        }
+        sent.whenComplete((response, error) -> {
+            if (error == null && ChatApi.ok(response)) {
+                LoadMetrics.record(metrics.sendLatency, start);
+                metrics.messagesSent.increment();
+            } else {
+                metrics.sendFailures.increment();
+            }
+        });
+    }
+
+    void sendTyping(double groupMessageRatio) {
+        StompSession current = session;
+        if (current == null || !current.isConnected()) {
+            return;
+        }
+        Map<String, Object> typing;
+        if (!user.groupIds().isEmpty() && (user.contactIds().isEmpty() || ThreadLocalRandom.current().nextDouble() < groupMessageRatio)) {
+            typing = Map.of("sender", user.username(), "groupId", pick(user.groupIds()), "typing", true);
+        } else if (!user.contactIds().isEmpty()) {
+            typing = Map.of("sender", user.username(), "receiver", usernames.get(pick(user.contactIds())), "typing", true);
+        } else {
+            return;
+        }
+        current.send("/app/chat.typing", typing);
+        metrics.typingSent.increment();
+    }
+
+    void disconnect() {
+        StompSession current = session;
+        if (current != null && current.isConnected()) {
+            current.disconnect();
+        }
+    }
+
+    private void onMessage(JsonNode message) {
+        String sender = message.path("sender").path("username").asText(null);
+        String content = message.path("content").asText("");
+        if (user.username().equals(sender) || !content.startsWith(MARKER)) {
+            // The sender's own echo, or traffic that did not come from the generator
+            return;
+        }
+        int end = content.indexOf(':', MARKER.length());
+        long sentAt = Long.parseLong(content.substring(MARKER.length(), end));
+        LoadMetrics.record(metrics.deliveryLatency, sentAt);
+        metrics.messagesDelivered.increment();
+
+        long messageId = message.path("id").asLong();
+        if (messageId != 0 && ThreadLocalRandom.current().nextDouble() < readRatio) {
+            markRead(messageId);
+        }
+    }
+
+    private void markRead(long messageId) {
+        String key = messageId + "/" + user.username();
+        pendingReads.put(key, System.nanoTime());
+        metrics.readsSent.increment();
+        api.markRead(token, messageId).whenComplete((response, error) -> {
+            if (error != null || !ChatApi.ok(response)) {
+                pendingReads.remove(key);
+                metrics.readFailures.increment();
+            }
+        });
+    }
+
+    private void onReadReceipt(JsonNode receipt) {
+        metrics.receiptsReceived.increment();
+        Long readAt = pendingReads.remove(receipt.path("messageId").asLong() + "/" + receipt.path("receiver").asText());
+        if (readAt != null) {
+            LoadMetrics.record(metrics.receiptLatency, readAt);
+        }
+    }
+
+    private void onGroupTyping(JsonNode typing) {
+        if (!user.username().equals(typing.path("sender").asText(null))) {
+            metrics.typingReceived.increment();
+        }
+    }
+
+    private static long pick(List<Long> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private static StompFrameHandler handler(Consumer<JsonNode> consumer) {
+        return new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return JsonNode.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                consumer.accept((JsonNode) payload);
+            }
+        };
+    }
+}
@@ -0,0 +1,26 @@
+-- Tables owned by auth-service that chat-service reads; only created when missing
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(255),
+    email VARCHAR(255),
+    password VARCHAR(255),
+    role VARCHAR(255),
+    profile_picture_url VARCHAR(255),
+    about VARCHAR(255),
+    phone_number VARCHAR(255) UNIQUE
+);
+CREATE TABLE IF NOT EXISTS contacts (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT,
+    contact_id BIGINT,
+    invite BIT,
+    identifier VARCHAR(255),
+    invite_username VARCHAR(255),
+    invite_email VARCHAR(255),
+    phone_number VARCHAR(255) UNIQUE
+);
+CREATE TABLE IF NOT EXISTS blocks (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT,
+    blocked_user_id BIGINT
+);
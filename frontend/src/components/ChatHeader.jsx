@@ -34,8 +34,9 @@ const ChatHeader = ({ selectedContact, onMessageSelect }) => {
     const fetchGroupDetails = async () => {
       if (selectedContact?.type === 'GROUP' && selectedContact?.id) {
         try {
-          const res = await api.get(`/groups/${selectedContact.id}`);
-          const users = Array.isArray(res.data?.users) ? res.data.users : [];
+          // First page of members is enough for the header line
+          const res = await api.get(`/groups/${selectedContact.id}/members`, { params: { size: 20 } });
+          const users = Array.isArray(res.data?.content) ? res.data.content : [];
           // Exclude current user from the header list, like WhatsApp does
           const names = users
             .filter((u) => u?.id !== user?.id)
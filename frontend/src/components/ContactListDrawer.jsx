@@ -20,7 +20,7 @@ import { Close, Send, GroupAdd, PersonAdd, ArrowBack } from '@mui/icons-material
 import { useDispatch, useSelector } from 'react-redux';
 import { fetchContacts, fetchInviteContacts, sendInviteEmail, selectContact, addContactByIdentifier } from '../features/contactsSlice';
 import { setCurrentChat } from '../features/messagesSlice';
-import { createGroup, addUserToGroup } from '../features/groupsSlice';
+import { createGroup } from '../features/groupsSlice';
 
 const ContactListDrawer = ({ open, onClose }) => {
   const dispatch = useDispatch();
@@ -91,15 +91,8 @@ const ContactListDrawer = ({ open, onClose }) => {
     }
     setGroupLoading(true);
     try {
-      const group = await dispatch(createGroup(groupName.trim())).unwrap();
-      // Add selected contacts to group
-      for (const contactId of selectedContacts) {
-        try {
-          await dispatch(addUserToGroup({ groupId: group.id, userId: contactId })).unwrap();
-        } catch (e) {
-          console.error('Failed to add user to group:', e);
-        }
-      }
+      // Selected contacts are added server-side in the same request
+      await dispatch(createGroup({ name: groupName.trim(), memberIds: Array.from(selectedContacts) })).unwrap();
       setGroupName('');
       setSelectedContacts(new Set());
       setView('main');
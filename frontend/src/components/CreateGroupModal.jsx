@@ -18,7 +18,7 @@ import {
   CircularProgress,
 } from '@mui/material';
 import { useDispatch, useSelector } from 'react-redux';
-import { createGroup, addUserToGroup } from '../features/groupsSlice';
+import { createGroup } from '../features/groupsSlice';
 import { fetchContacts } from '../features/contactsSlice';
 
 const CreateGroupModal = ({ open, onClose }) => {
@@ -50,16 +50,8 @@ const CreateGroupModal = ({ open, onClose }) => {
 
     setLoading(true);
     try {
-      const group = await dispatch(createGroup(groupName.trim())).unwrap();
-      
-      // Add selected contacts to group
-      for (const contactId of selectedContacts) {
-        try {
-          await dispatch(addUserToGroup({ groupId: group.id, userId: contactId })).unwrap();
-        } catch (error) {
-          console.error(`Failed to add user ${contactId} to group:`, error);
-        }
-      }
+      // Selected contacts are added server-side in the same request
+      await dispatch(createGroup({ name: groupName.trim(), memberIds: selectedContacts })).unwrap();
 
       setGroupName('');
       setSelectedContacts([]);
@@ -2,11 +2,13 @@ import React, { useEffect, useState } from 'react';
 import { Drawer, Box, Typography, TextField, List, ListItem, ListItemAvatar, Avatar, ListItemText, IconButton, Button, Divider, Checkbox, FormControlLabel } from '@mui/material';
 import { Delete, PersonAdd, Edit, ArrowBack, Close } from '@mui/icons-material';
 import { useDispatch, useSelector } from 'react-redux';
-import { addUserToGroup, removeUserFromGroup, updateGroup } from '../features/groupsSlice';
+import { addUserToGroup, removeUserFromGroup, updateGroup, updateGroupMembers } from '../features/groupsSlice';
 import { setConversationImage } from '../features/conversationsSlice';
 import { fetchContacts } from '../features/contactsSlice';
 import api from '../services/api';
 
+const MEMBERS_PAGE_SIZE = 50;
+
 const GroupInfoDrawer = ({ open, onClose, groupId }) => {
   const dispatch = useDispatch();
   const { user } = useSelector((state) => state.auth);
@@ -18,8 +20,17 @@ const GroupInfoDrawer = ({ open, onClose, groupId }) => {
   const [isEditing, setIsEditing] = useState(false);
   const [selectedToAdd, setSelectedToAdd] = useState(new Set());
   const [adding, setAdding] = useState(false);
+  const [members, setMembers] = useState([]);
+  const [membersPage, setMembersPage] = useState({ number: 0, last: true });
   const isCreator = group && user && group.createdBy === user.id;
 
+  const loadMembers = async (page = 0) => {
+    const res = await api.get(`/groups/${groupId}/members`, { params: { page, size: MEMBERS_PAGE_SIZE } });
+    const content = Array.isArray(res.data?.content) ? res.data.content : [];
+    setMembers((prev) => (page === 0 ? content : [...prev, ...content]));
+    setMembersPage({ number: page, last: res.data?.last ?? true });
+  };
+
   useEffect(() => {
     if (!open || !groupId) return;
     const load = async () => {
@@ -30,6 +41,7 @@ const GroupInfoDrawer = ({ open, onClose, groupId }) => {
       setImageUrl(res.data?.imageUrl || '');
       setIsEditing(false);
       setSelectedToAdd(new Set());
+      await loadMembers(0);
     };
     load();
   }, [open, groupId]);
@@ -64,6 +76,7 @@ const GroupInfoDrawer = ({ open, onClose, groupId }) => {
     try {
       const updated = await dispatch(addUserToGroup({ groupId, userId })).unwrap();
       setGroup(updated);
+      await loadMembers(0);
     } catch (_) {}
   };
 
@@ -81,12 +94,12 @@ const GroupInfoDrawer = ({ open, onClose, groupId }) => {
     if (selectedToAdd.size === 0) return;
     setAdding(true);
     try {
-      for (const uid of selectedToAdd) {
-        try {
-          const updated = await dispatch(addUserToGroup({ groupId, userId: uid })).unwrap();
-          setGroup(updated);
-        } catch (_) {}
-      }
+      try {
+        await dispatch(updateGroupMembers({ groupId, add: Array.from(selectedToAdd) })).unwrap();
+        const res = await api.get(`/groups/${groupId}`);
+        setGroup(res.data);
+        await loadMembers(0);
+      } catch (_) {}
       setSelectedToAdd(new Set());
     } finally {
       setAdding(false);
@@ -97,10 +110,10 @@ const GroupInfoDrawer = ({ open, onClose, groupId }) => {
     try {
       const updated = await dispatch(removeUserFromGroup({ groupId, userId })).unwrap();
       setGroup(updated);
+      await loadMembers(0);
     } catch (_) {}
   };
 
-  const members = Array.isArray(group?.users) ? group.users : [];
   const [contactQuery, setContactQuery] = useState('');
   const candidateContacts = contacts
     .map((c) => c.contact)
@@ -152,7 +165,7 @@ const GroupInfoDrawer = ({ open, onClose, groupId }) => {
         <Divider className="my-3" />
 
         <Box className="mt-2">
-          <Typography variant="subtitle2">Members ({members.length})</Typography>
+          <Typography variant="subtitle2">Members ({group?.memberCount ?? members.length})</Typography>
           <List dense>
             {members.map((m) => (
               <ListItem key={m.id}
@@ -169,6 +182,9 @@ const GroupInfoDrawer = ({ open, onClose, groupId }) => {
               </ListItem>
             ))}
           </List>
+          {!membersPage.last && (
+            <Button size="small" onClick={() => loadMembers(membersPage.number + 1)}>Show more members</Button>
+          )}
         </Box>
 
         {isCreator && (
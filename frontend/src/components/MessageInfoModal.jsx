@@ -11,11 +11,14 @@ import {
   Box,
   CircularProgress,
   IconButton,
+  Button,
 } from '@mui/material';
 import { ArrowBack } from '@mui/icons-material';
 import { useSelector } from 'react-redux';
 import api from '../services/api';
 
+const RECEIPT_PAGE_SIZE = 50;
+
 const MessageInfoDrawer = ({ open, onClose, messageId }) => {
   const { user } = useSelector((state) => state.auth);
   const [messageInfo, setMessageInfo] = useState(null);
@@ -29,6 +32,20 @@ const MessageInfoDrawer = ({ open, onClose, messageId }) => {
     }
   }, [open, messageId]);
 
+  // Appends the next page of readers/deliverers; status is 'READ' or 'DELIVERED'
+  const loadMoreReceipts = async (status) => {
+    const key = status === 'READ' ? 'readBy' : 'deliveredTo';
+    const loaded = messageInfo[key].length;
+    try {
+      const response = await api.get(`/chat/messages/${messageId}/receipts`, {
+        params: { status, page: Math.floor(loaded / RECEIPT_PAGE_SIZE), size: RECEIPT_PAGE_SIZE },
+      });
+      setMessageInfo((prev) => ({ ...prev, [key]: [...prev[key], ...response.data.content] }));
+    } catch (error) {
+      console.error('Failed to fetch message receipts:', error);
+    }
+  };
+
   const fetchMessageInfo = async () => {
     setLoading(true);
     try {
@@ -75,7 +92,7 @@ const MessageInfoDrawer = ({ open, onClose, messageId }) => {
               <>
                 <Box className="px-4 py-3 bg-[#f0f2f5]">
                   <Typography variant="subtitle2" className="text-gray-600 font-medium">
-                    Read by ({messageInfo.readBy.length})
+                    Read by ({messageInfo.readCount})
                   </Typography>
                 </Box>
                 <List className="p-0">
@@ -112,7 +129,7 @@ const MessageInfoDrawer = ({ open, onClose, messageId }) => {
                           }
                           secondary={
                             <Typography className="text-xs text-gray-500">
-                              {formatTime(new Date())}
+                              {formatTime(user.timestamp)}
                             </Typography>
                           }
                         />
@@ -124,6 +141,11 @@ const MessageInfoDrawer = ({ open, onClose, messageId }) => {
                     </React.Fragment>
                   ))}
                 </List>
+                {messageInfo.readBy.length < messageInfo.readCount && (
+                  <Box className="flex justify-center py-2">
+                    <Button size="small" onClick={() => loadMoreReceipts('READ')}>Show more</Button>
+                  </Box>
+                )}
               </>
             )}
 
@@ -131,7 +153,7 @@ const MessageInfoDrawer = ({ open, onClose, messageId }) => {
               <>
                 <Box className="px-4 py-3 bg-[#f0f2f5]">
                   <Typography variant="subtitle2" className="text-gray-600 font-medium">
-                    Delivered to ({messageInfo.deliveredTo.length})
+                    Delivered to ({messageInfo.deliveredCount})
                   </Typography>
                 </Box>
                 <List className="p-0">
@@ -168,7 +190,7 @@ const MessageInfoDrawer = ({ open, onClose, messageId }) => {
                           }
                           secondary={
                             <Typography className="text-xs text-gray-500">
-                              {formatTime(new Date())}
+                              {formatTime(user.timestamp)}
                             </Typography>
                           }
                         />
@@ -180,6 +202,11 @@ const MessageInfoDrawer = ({ open, onClose, messageId }) => {
                     </React.Fragment>
                   ))}
                 </List>
+                {messageInfo.deliveredTo.length < messageInfo.deliveredCount && (
+                  <Box className="flex justify-center py-2">
+                    <Button size="small" onClick={() => loadMoreReceipts('DELIVERED')}>Show more</Button>
+                  </Box>
+                )}
               </>
             )}
 
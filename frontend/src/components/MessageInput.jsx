@@ -111,6 +111,8 @@ const MessageInput = ({ selectedContact }) => {
           multiline
           maxRows={4}
           placeholder="Type a message"
+          // messages.content is VARCHAR(255); the server rejects longer messages
+          inputProps={{ maxLength: 255 }}
           value={message}
           onChange={(e) => {
             setMessage(e.target.value);
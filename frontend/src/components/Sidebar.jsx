@@ -3,7 +3,7 @@ import { Box, List, ListItem, ListItemButton, Avatar, Typography, TextField, Ico
 import { Search as SearchIcon, MoreVert, Logout, Contacts as ContactsIcon, DoneAll } from '@mui/icons-material';
 import { useDispatch, useSelector } from 'react-redux';
 import { useNavigate } from 'react-router-dom';
-import { logout } from '../features/authSlice';
+import { logoutSession } from '../features/authSlice';
 import { selectContact, clearSelectedContact } from '../features/contactsSlice';
 import { fetchConversations, setConversationImage } from '../features/conversationsSlice';
 import ImagePreviewDialog from './ImagePreviewDialog';
@@ -15,6 +15,9 @@ import ProfileDrawer from './ProfileDrawer';
 import ContactListDrawer from './ContactListDrawer';
 import api from '../services/api';
 
+// Server cap on ids per /groups/summary request
+const GROUP_SUMMARY_CHUNK = 100;
+
 const Sidebar = () => {
   const dispatch = useDispatch();
   const navigate = useNavigate();
@@ -45,24 +48,27 @@ const Sidebar = () => {
       const toFetch = (conversations || [])
         .filter((c) => c.type === 'GROUP' && !c.profilePictureUrl && !requestedGroupImagesRef.current.has(c.id));
       if (toFetch.length === 0) return;
-      for (const c of toFetch) {
-        requestedGroupImagesRef.current.add(c.id);
-        try {
-          const res = await api.get(`/groups/${c.id}`);
-          const imageUrl = res.data?.imageUrl || null;
-          if (imageUrl) {
-            dispatch(setConversationImage({ id: c.id, type: 'GROUP', imageUrl }));
-          }
-        } catch (_) {
-          // ignore
+      toFetch.forEach((c) => requestedGroupImagesRef.current.add(c.id));
+      try {
+        // One summary request per chunk of groups instead of a full group load per avatar
+        for (let i = 0; i < toFetch.length; i += GROUP_SUMMARY_CHUNK) {
+          const ids = toFetch.slice(i, i + GROUP_SUMMARY_CHUNK).map((c) => c.id).join(',');
+          const res = await api.get('/groups/summary', { params: { ids } });
+          (res.data || []).forEach((summary) => {
+            if (summary.imageUrl) {
+              dispatch(setConversationImage({ id: summary.id, type: 'GROUP', imageUrl: summary.imageUrl }));
+            }
+          });
         }
+      } catch (_) {
+        // ignore
       }
     };
     fetchMissingGroupImages();
   }, [conversations, dispatch]);
 
   const handleLogout = () => {
-    dispatch(logout());
+    dispatch(logoutSession());
     navigate('/login');
   };
 
@@ -9,9 +9,21 @@ export const register = createAsyncThunk('auth/register', async ({ username, ema
 export const login = createAsyncThunk('auth/login', async ({ username, password }) => {
   const response = await api.post('/auth/login', { username, password });
   localStorage.setItem('token', response.data.token);
+  localStorage.setItem('refreshToken', response.data.refreshToken);
   return response.data.token;
 });
 
+export const logoutSession = createAsyncThunk('auth/logoutSession', async (_, { dispatch }) => {
+  const refreshToken = localStorage.getItem('refreshToken');
+  try {
+    if (refreshToken) {
+      await api.post('/auth/logout', { refreshToken });
+    }
+  } finally {
+    dispatch(logout());
+  }
+});
+
 export const fetchUserProfile = createAsyncThunk('auth/fetchUserProfile', async () => {
   const response = await api.get('/auth/profile');
   return response.data;
@@ -39,6 +51,7 @@ export const authSlice = createSlice({
       state.token = null;
       state.isAuthenticated = false;
       localStorage.removeItem('token');
+      localStorage.removeItem('refreshToken');
     },
     setUser: (state, action) => {
       state.user = action.payload;
@@ -80,6 +93,7 @@ export const authSlice = createSlice({
         state.isAuthenticated = false;
         state.status = 'failed';
         localStorage.removeItem('token');
+        localStorage.removeItem('refreshToken');
       })
       .addCase(updateProfile.fulfilled, (state, action) => {
         state.user = action.payload;
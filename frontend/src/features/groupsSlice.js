@@ -1,8 +1,8 @@
 import { createSlice, createAsyncThunk } from '@reduxjs/toolkit';
 import api from '../services/api';
 
-export const createGroup = createAsyncThunk('groups/createGroup', async (groupName) => {
-  const response = await api.post('/groups', { name: groupName });
+export const createGroup = createAsyncThunk('groups/createGroup', async ({ name, memberIds = [] }) => {
+  const response = await api.post('/groups', { name, memberIds });
   return response.data;
 });
 
@@ -11,6 +11,11 @@ export const addUserToGroup = createAsyncThunk('groups/addUserToGroup', async ({
   return response.data;
 });
 
+export const updateGroupMembers = createAsyncThunk('groups/updateGroupMembers', async ({ groupId, add = [], remove = [] }) => {
+  const response = await api.post(`/groups/${groupId}/members`, { add, remove });
+  return response.data;
+});
+
 export const removeUserFromGroup = createAsyncThunk('groups/removeUserFromGroup', async ({ groupId, userId }) => {
   const response = await api.delete(`/groups/${groupId}/users/${userId}`);
   return response.data;
@@ -12,4 +12,78 @@ api.interceptors.request.use((config) => {
   return config;
 });
 
+// Share one in-flight refresh so parallel 401s don't rotate the refresh token twice
+let refreshPromise = null;
+
+// Tabs share the tokens in localStorage, so refreshes are serialized across tabs with a Web Lock.
+// A tab that waited on the lock reuses the token another tab just stored. Browsers without
+// navigator.locks fall back to the server's grace window for a just-rotated refresh token.
+const refreshAccessToken = async (staleToken) => {
+  const refresh = async () => {
+    const current = localStorage.getItem('token');
+    if (current && current !== staleToken) {
+      return current;
+    }
+    const refreshToken = localStorage.getItem('refreshToken');
+    if (!refreshToken) {
+      throw new Error('No refresh token');
+    }
+    const response = await axios.post(`${api.defaults.baseURL}/auth/refresh`, { refreshToken });
+    localStorage.setItem('token', response.data.token);
+    localStorage.setItem('refreshToken', response.data.refreshToken);
+    return response.data.token;
+  };
+  return navigator.locks ? navigator.locks.request('auth-refresh', refresh) : refresh();
+};
+
+const sharedRefresh = (staleToken) => {
+  if (!refreshPromise) {
+    refreshPromise = refreshAccessToken(staleToken).finally(() => {
+      refreshPromise = null;
+    });
+  }
+  return refreshPromise;
+};
+
+const expiresAtMillis = (token) => {
+  try {
+    const payload = token.split('.')[1].replace(/-/g, '+').replace(/_/g, '/');
+    return JSON.parse(atob(payload)).exp * 1000;
+  } catch (_) {
+    return 0;
+  }
+};
+
+// For callers outside axios (the WebSocket CONNECT frame): the stored access token, refreshed
+// first if it expires within the next 30 seconds
+export const getFreshAccessToken = async () => {
+  const token = localStorage.getItem('token');
+  if (token && expiresAtMillis(token) - Date.now() > 30000) {
+    return token;
+  }
+  return sharedRefresh(token);
+};
+
+api.interceptors.response.use(
+  (response) => response,
+  async (error) => {
+    const original = error.config;
+    const isAuthCall = original && original.url && original.url.startsWith('/auth/') && !original.url.startsWith('/auth/profile');
+    if (error.response && error.response.status === 401 && original && !original._retry && !isAuthCall) {
+      original._retry = true;
+      try {
+        const header = original.headers && original.headers.Authorization;
+        const staleToken = header ? String(header).replace(/^Bearer /, '') : null;
+        const token = await sharedRefresh(staleToken);
+        original.headers.Authorization = `Bearer ${token}`;
+        return api(original);
+      } catch (_) {
+        localStorage.removeItem('token');
+        localStorage.removeItem('refreshToken');
+      }
+    }
+    return Promise.reject(error);
+  }
+);
+
 export default api;
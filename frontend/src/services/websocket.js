@@ -1,5 +1,6 @@
 import { Client } from '@stomp/stompjs';
 import SockJS from 'sockjs-client';
+import { getFreshAccessToken } from './api';
 
 let stompClient = null;
 let subscriptions = [];
@@ -11,8 +12,23 @@ export const connectWebSocket = (token, username, callbacks) => {
     return stompClient;
   }
 
+  let accessToken = token;
   stompClient = new Client({
-    webSocketFactory: () => new SockJS('http://localhost:8084/ws'),
+    // Runs before every (re)connect, ahead of webSocketFactory. Access tokens expire after 15
+    // minutes, so both the handshake URL and the STOMP CONNECT header take a fresh one each time
+    beforeConnect: async (client) => {
+      try {
+        accessToken = await getFreshAccessToken();
+      } catch (e) {
+        console.warn('Could not refresh the access token before connecting:', e);
+        accessToken = localStorage.getItem('token') || accessToken;
+      }
+      client.connectHeaders = { Authorization: `Bearer ${accessToken}` };
+    },
+    // Through the gateway, which pins each user to one chat-service instance. SockJS cannot send
+    // headers, so the token goes in the URL
+    webSocketFactory: () =>
+      new SockJS(`http://localhost:8080/ws?access_token=${encodeURIComponent(accessToken)}`),
     connectHeaders: {
       Authorization: `Bearer ${token}`,
     },